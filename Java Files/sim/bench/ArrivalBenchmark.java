@@ -0,0 +1,101 @@
+package sim.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+import sim.service.arrivals.ArrivalCurveCache;
+import sim.service.arrivals.ArrivalCurveGenerator;
+import sim.service.arrivals.EditedSplitGaussianArrivalGenerator;
+import sim.service.arrivals.LegacyArrivalGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arrival generators over every flight of a scenario per op: built from scratch (cache cleared
+ * first) and through ArrivalCurveCache lookups, which is what the engine does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ArrivalBenchmark {
+
+    private final ArrivalCurveGenerator legacy = new LegacyArrivalGenerator();
+    private final ArrivalCurveGenerator edited = new EditedSplitGaussianArrivalGenerator();
+
+    private List<Flight> flights;
+    private int[] totals;
+    private int span;
+    private ArrivalCurveConfig legacyCurve;
+    private ArrivalCurveConfig editedCurve;
+
+    @Setup(Level.Trial)
+    public void setUp(ScenarioState scenario) {
+        flights = new ArrayList<>(scenario.config.getFlights());
+        span = scenario.config.getEffectiveArrivalSpanMinutes();
+        legacyCurve = curve(true);
+        editedCurve = curve(false);
+        totals = new int[flights.size()];
+        for (int i = 0; i < totals.length; i++) {
+            Flight f = flights.get(i);
+            totals[i] = (int) Math.round(f.getSeats() * f.getFillPercent());
+        }
+    }
+
+    @Benchmark
+    public int legacy() {
+        return build(legacy, legacyCurve);
+    }
+
+    @Benchmark
+    public int edited() {
+        return build(edited, editedCurve);
+    }
+
+    @Benchmark
+    public int cacheLegacy() {
+        return lookUp(legacyCurve);
+    }
+
+    @Benchmark
+    public int cacheEdited() {
+        return lookUp(editedCurve);
+    }
+
+    private int build(ArrivalCurveGenerator gen, ArrivalCurveConfig curve) {
+        ArrivalCurveCache.shared().clear();
+        int sum = 0;
+        for (int i = 0; i < totals.length; i++) {
+            sum += gen.buildArrivalsPerMinute(flights.get(i), totals[i], curve, span).length;
+        }
+        return sum;
+    }
+
+    private int lookUp(ArrivalCurveConfig curve) {
+        ArrivalCurveCache cache = ArrivalCurveCache.shared();
+        int sum = 0;
+        for (int total : totals) sum += cache.get(ArrivalCurveCache.key(curve, span, total)).length;
+        return sum;
+    }
+
+    private static ArrivalCurveConfig curve(boolean legacyMode) {
+        ArrivalCurveConfig curve = ArrivalCurveConfig.legacyDefault();
+        curve.setLegacyMode(legacyMode);
+        curve.validateAndClamp();
+        return curve;
+    }
+}
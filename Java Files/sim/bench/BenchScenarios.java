@@ -0,0 +1,55 @@
+package sim.bench;
+
+import sim.service.ScenarioConfig;
+import sim.service.batch.ScenarioGenerator;
+
+import java.util.Locale;
+
+/**
+ * Fixed benchmark scenarios, built by ScenarioGenerator from a fixed seed, so every run of
+ * every benchmark measures exactly the same day.
+ *
+ *  - SMALL   : a handful of flights (what the UI is usually demoed with)
+ *  - MEDIUM  : a regional airport's day
+ *  - AIRPORT : a busy hub in departure banks
+ */
+public final class BenchScenarios {
+
+    private static final long SEED = 0x5EED;
+
+    private BenchScenarios() { }
+
+    public enum Scale {
+        SMALL(10, 1),
+        MEDIUM(120, 4),
+        AIRPORT(600, 8);
+
+        final int flights;
+        final int banks;
+
+        Scale(int flights, int banks) {
+            this.flights = flights;
+            this.banks = banks;
+        }
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Scale parse(String s) {
+            try {
+                return valueOf(s.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("unknown scale: " + s + " (small, medium, airport)");
+            }
+        }
+    }
+
+    /** A fresh config every call; callers may edit it freely. */
+    public static ScenarioConfig config(Scale scale) {
+        ScenarioGenerator gen = new ScenarioGenerator(SEED + scale.ordinal());
+        gen.setFlightCount(scale.flights);
+        gen.setBanks(scale.banks, 60, 0.15);
+        return gen.generate();
+    }
+}
@@ -0,0 +1,160 @@
+package sim.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.service.ScenarioConfig;
+import sim.service.SimulationEngine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Engine benchmarks at every BenchScenarios scale. Building the engine and recording a day for
+ * scrubbing happen in @Setup and are not timed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EngineBenchmark {
+
+    /** Batch engine stepped one minute per op; the day restarts when it ends, so reset() is amortized. */
+    @State(Scope.Thread)
+    public static class Stepping {
+        SimulationEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp(ScenarioState scenario) {
+            engine = batchEngine(scenario.config);
+            engine.reset();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        SimulationEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp(ScenarioState scenario) {
+            engine = batchEngine(scenario.config);
+        }
+    }
+
+    /**
+     * Batch engine on a sub-minute clock. Event-driven runs only visit the ticks where something
+     * arrives, finishes or is due, so their cost should stay nearly flat from 60 s down to 1 s
+     * ticks; the stepper (eventDriven=false) visits every tick.
+     */
+    @State(Scope.Thread)
+    public static class Ticked {
+        @Param({"60", "5", "1"})
+        public int tickSeconds;
+
+        @Param({"true", "false"})
+        public boolean eventDriven;
+
+        SimulationEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp(ScenarioState scenario) {
+            engine = batchEngine(scenario.config);
+            engine.setEventDriven(eventDriven);
+            engine.setTickSeconds(tickSeconds);
+        }
+    }
+
+    /** What the UI runs: per-interval histories plus a keyframe every k intervals. */
+    @State(Scope.Thread)
+    public static class Recorded {
+        SimulationEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp(ScenarioState scenario) {
+            engine = scenario.config.createEngine();
+        }
+    }
+
+    /** A full keyframe after every interval (the pre-keyframe rewind). */
+    @State(Scope.Thread)
+    public static class KeyframeEveryInterval {
+        SimulationEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp(ScenarioState scenario) {
+            engine = scenario.config.createEngine();
+            engine.setKeyframeInterval(1);
+        }
+    }
+
+    /** A recorded day and seeded random intervals to jump to. */
+    @State(Scope.Thread)
+    public static class Scrubbing {
+        SimulationEngine engine;
+        final int[] targets = new int[1024];
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ScenarioState scenario) {
+            engine = scenario.config.createEngine();
+            engine.runAllIntervals();
+            Random rnd = new Random(42);
+            for (int i = 0; i < targets.length; i++) targets[i] = rnd.nextInt(engine.getTotalIntervals() + 1);
+        }
+    }
+
+    @Benchmark
+    public int simulateInterval(Stepping s) {
+        SimulationEngine engine = s.engine;
+        if (engine.getCurrentInterval() >= engine.getTotalIntervals()) engine.reset();
+        engine.simulateInterval();
+        return engine.getCurrentInterval();
+    }
+
+    @Benchmark
+    public int runAllIntervals(Batch b) {
+        b.engine.runAllIntervals();
+        return b.engine.getTicketQueuedSeries().peakValue();
+    }
+
+    @Benchmark
+    public int runAllIntervalsTicked(Ticked t) {
+        t.engine.runAllIntervals();
+        return t.engine.getTicketQueuedSeries().peakValue();
+    }
+
+    @Benchmark
+    public int runAllIntervalsRecorded(Recorded r) {
+        r.engine.runAllIntervals();
+        return r.engine.getTicketQueuedSeries().peakValue();
+    }
+
+    @Benchmark
+    public int snapshotsEveryInterval(KeyframeEveryInterval k) {
+        k.engine.runAllIntervals();
+        return k.engine.getTicketQueuedSeries().peakValue();
+    }
+
+    @Benchmark
+    public int goToInterval(Scrubbing s) {
+        s.engine.goToInterval(s.targets[s.next++ & (s.targets.length - 1)]);
+        return s.engine.getCurrentInterval();
+    }
+
+    static SimulationEngine batchEngine(ScenarioConfig cfg) {
+        SimulationEngine engine = cfg.createEngine();
+        engine.setRecordingEnabled(false);
+        engine.setEventDriven(true);
+        return engine;
+    }
+}
@@ -0,0 +1,106 @@
+package sim.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.model.Passenger;
+import sim.service.SimulationEngine;
+import sim.ui.GridRenderer;
+
+import javax.swing.JPanel;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One GridRenderer paint per op into a reused offscreen image, as the panels' paintComponent
+ * would, at the middle of a recorded day. The forks run headless; nothing opens a display.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Djava.awt.headless=true"})
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    private static final int WIDTH = 1600;
+    private static final int HEIGHT = 900;
+
+    private SimulationEngine engine;
+    private JPanel panel;
+    private BufferedImage image;
+    private final List<Rectangle> areas = new ArrayList<>();
+    private final List<Passenger> passengers = new ArrayList<>();
+    private final List<Rectangle> counters = new ArrayList<>();
+    private int[] ticketA;
+    private int[] ticketB;
+    private int[] checkpointA;
+    private int[] checkpointB;
+
+    @Setup(Level.Trial)
+    public void setUp(ScenarioState scenario) {
+        engine = scenario.config.createEngine();
+        engine.runAllIntervals();
+        engine.goToInterval(engine.getTotalIntervals() / 2);
+
+        panel = new JPanel();
+        panel.setSize(WIDTH, HEIGHT);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        ticketA = new int[engine.getTicketLines().size()];
+        ticketB = new int[ticketA.length];
+        checkpointA = new int[engine.getCheckpointLines().size()];
+        checkpointB = new int[checkpointA.length];
+    }
+
+    @Benchmark
+    public int ticketLines() {
+        Graphics2D g = begin();
+        try {
+            GridRenderer.renderTicketLines(panel, g, engine, ticketA, ticketB, areas, passengers, counters, null);
+        } finally {
+            g.dispose();
+        }
+        return areas.size();
+    }
+
+    @Benchmark
+    public int checkpointLines() {
+        Graphics2D g = begin();
+        try {
+            GridRenderer.renderCheckpointLines(panel, g, engine, checkpointA, checkpointB, areas, passengers, counters, null);
+        } finally {
+            g.dispose();
+        }
+        return areas.size();
+    }
+
+    @Benchmark
+    public int holdRooms() {
+        Graphics2D g = begin();
+        try {
+            GridRenderer.renderHoldRooms(panel, g, engine, areas, passengers, null);
+        } finally {
+            g.dispose();
+        }
+        return areas.size();
+    }
+
+    private Graphics2D begin() {
+        Graphics2D g = image.createGraphics();
+        g.setColor(panel.getBackground());
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        return g;
+    }
+}
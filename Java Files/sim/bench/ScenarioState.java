@@ -0,0 +1,26 @@
+package sim.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sim.service.ScenarioConfig;
+
+/**
+ * The BenchScenarios config for the "scale" parameter, built once per trial. Benchmark states
+ * take it in their @Setup methods and build their own engines from it.
+ */
+@State(Scope.Benchmark)
+public class ScenarioState {
+
+    @Param({"small", "medium", "airport"})
+    public String scale;
+
+    ScenarioConfig config;
+
+    @Setup(Level.Trial)
+    public void build() {
+        config = BenchScenarios.config(BenchScenarios.Scale.parse(scale));
+    }
+}
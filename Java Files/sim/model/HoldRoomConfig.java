@@ -1,6 +1,4 @@
-package sim.ui;
-
-import sim.model.Flight;
+package sim.model;
 
 import java.io.Serializable;
 import java.util.Collection;
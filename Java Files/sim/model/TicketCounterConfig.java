@@ -1,7 +1,6 @@
-package sim.ui;
+package sim.model;
 
 
-import sim.model.Flight;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -3,7 +3,7 @@ package sim.service;
 
 
 import sim.model.Flight;
-import java.util.*;
+import sim.service.arrivals.LargestRemainder;
 
 
 public class ArrivalGenerator {
@@ -40,22 +40,22 @@ public class ArrivalGenerator {
      * number of arrivals in that minute (summing to totalPassengers).
      */
     public int[] generatePerMinuteArrivals(Flight flight) {
-        int totalPassengers = (int) Math.round(flight.getSeats() * flight.getFillPercent());
+        return generatePerMinuteArrivals((int) Math.round(flight.getSeats() * flight.getFillPercent()));
+    }
+
+
+    /** Same, for a passenger count (the curve does not depend on anything else of the flight). */
+    public int[] generatePerMinuteArrivals(int totalPassengers) {
         int[] arrivals = new int[totalMinutes];
-        double[] raw = new double[totalMinutes];
+        double[] frac = new double[totalMinutes];
         int floorSum = 0;
         for (int m = 0; m < totalMinutes; m++) {
-            raw[m] = minuteProbabilities[m] * totalPassengers;
-            arrivals[m] = (int) Math.floor(raw[m]);
+            double raw = minuteProbabilities[m] * totalPassengers;
+            arrivals[m] = (int) Math.floor(raw);
+            frac[m] = raw - arrivals[m];
             floorSum += arrivals[m];
         }
-        int remainder = totalPassengers - floorSum;
-        List<Integer> idx = new ArrayList<>();
-        for (int m = 0; m < totalMinutes; m++) idx.add(m);
-        idx.sort((a, b) -> Double.compare(raw[b] - arrivals[b], raw[a] - arrivals[a]));
-        for (int k = 0; k < remainder; k++) {
-            arrivals[idx.get(k)]++;
-        }
+        LargestRemainder.distribute(arrivals, frac, totalPassengers - floorSum);
         return arrivals;
     }
 
@@ -0,0 +1,142 @@
+package sim.service;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The flight list and arrival span compiled once into what the engine reads every minute.
+ *
+ * Flights get dense ids (their position in the list). Each flight's arrival-window start,
+ * boarding close and departure are minutes since globalStart (earliest departure minus the
+ * span), and an active-flight index lists, for every minute, the flights whose window
+ * [arrival start .. departure] contains it, in id order. A minute then only touches its
+ * active flights instead of the whole schedule.
+ *
+ * Departure times are read once: editing a Flight afterwards does not change a compiled
+ * schedule. Immutable, so engines of a sweep built from the same flights and span can share one.
+ */
+public final class CompiledSchedule {
+
+    private final List<Flight> flights;
+    private final Map<Flight, Integer> indexByFlight = new IdentityHashMap<>();
+    private final int arrivalSpanMinutes;
+    private final LocalTime globalStart;
+    private final int totalIntervals;
+
+    private final int[] arrivalStartMinute;
+    private final int[] closeMinute;
+    private final int[] departureMinute;
+    private final int[] passengers;
+
+    // active flights of minute m: activeFlights[activeStart[m] .. activeStart[m + 1])
+    private final int[] activeStart;
+    private final int[] activeFlights;
+
+    private CompiledSchedule(List<Flight> flights, int arrivalSpanMinutes) {
+        this.flights = Collections.unmodifiableList(new ArrayList<>(flights));
+        this.arrivalSpanMinutes = arrivalSpanMinutes;
+
+        LocalTime firstDep = this.flights.stream()
+                .map(Flight::getDepartureTime)
+                .min(LocalTime::compareTo)
+                .orElse(LocalTime.MIDNIGHT);
+        this.globalStart = firstDep.minusMinutes(arrivalSpanMinutes);
+
+        int n = this.flights.size();
+        arrivalStartMinute = new int[n];
+        closeMinute = new int[n];
+        departureMinute = new int[n];
+        passengers = new int[n];
+        int maxDeparture = 0;
+        for (int fi = 0; fi < n; fi++) {
+            Flight f = this.flights.get(fi);
+            indexByFlight.putIfAbsent(f, fi);
+            LocalTime dep = f.getDepartureTime();
+            departureMinute[fi] = minutesSinceStart(dep);
+            // NOTE: still uses 20 minutes (this matches your existing program rules)
+            closeMinute[fi] = minutesSinceStart(dep.minusMinutes(ArrivalCurveConfig.DEFAULT_BOARDING_CLOSE));
+            arrivalStartMinute[fi] = minutesSinceStart(dep.minusMinutes(arrivalSpanMinutes));
+            passengers[fi] = (int) Math.round(f.getSeats() * f.getFillPercent());
+            maxDeparture = Math.max(maxDeparture, departureMinute[fi]);
+        }
+        this.totalIntervals = maxDeparture + 1;
+
+        // counting sort of (minute, flight) pairs; flights in id order within a minute
+        int[] counts = new int[totalIntervals + 1];
+        for (int fi = 0; fi < n; fi++) {
+            for (int m = windowFirst(fi); m <= windowLast(fi); m++) counts[m + 1]++;
+        }
+        for (int m = 0; m < totalIntervals; m++) counts[m + 1] += counts[m];
+        activeStart = counts.clone();
+        activeFlights = new int[counts[totalIntervals]];
+        for (int fi = 0; fi < n; fi++) {
+            for (int m = windowFirst(fi); m <= windowLast(fi); m++) activeFlights[counts[m]++] = fi;
+        }
+    }
+
+    public static CompiledSchedule compile(List<Flight> flights, int arrivalSpanMinutes) {
+        return new CompiledSchedule((flights == null) ? Collections.emptyList() : flights, arrivalSpanMinutes);
+    }
+
+    /** true if this schedule was compiled from exactly these flights (same objects, same order) and span. */
+    public boolean matches(List<Flight> flights, int arrivalSpanMinutes) {
+        if (flights == null || this.arrivalSpanMinutes != arrivalSpanMinutes || flights.size() != this.flights.size()) {
+            return false;
+        }
+        for (int fi = 0; fi < flights.size(); fi++) {
+            if (flights.get(fi) != this.flights.get(fi)) return false;
+        }
+        return true;
+    }
+
+    public List<Flight> getFlights() { return flights; }
+    public int getFlightCount() { return flights.size(); }
+    public Flight getFlight(int fi) { return flights.get(fi); }
+
+    /** Dense id of f (its first position in the list), or -1 if f is not in this schedule. */
+    public int indexOf(Flight f) {
+        Integer fi = indexByFlight.get(f);
+        return (fi == null) ? -1 : fi;
+    }
+
+    public int getArrivalSpanMinutes() { return arrivalSpanMinutes; }
+    public LocalTime getGlobalStart() { return globalStart; }
+    public int getTotalIntervals() { return totalIntervals; }
+
+    /** Minute of flight fi's first arrival slot. */
+    public int arrivalStartMinute(int fi) { return arrivalStartMinute[fi]; }
+    public int closeMinute(int fi) { return closeMinute[fi]; }
+    public int departureMinute(int fi) { return departureMinute[fi]; }
+    /** seats x fill, rounded: the passengers the arrival curve spreads. */
+    public int passengers(int fi) { return passengers[fi]; }
+
+    /** Active flights of minute: activeFlight(k) for activeFrom(minute) <= k < activeTo(minute). */
+    public int activeFrom(int minute) { return inDay(minute) ? activeStart[minute] : 0; }
+    public int activeTo(int minute) { return inDay(minute) ? activeStart[minute + 1] : 0; }
+    public int activeFlight(int k) { return activeFlights[k]; }
+
+    private int windowFirst(int fi) {
+        return Math.max(0, Math.min(arrivalStartMinute[fi], Math.min(closeMinute[fi], departureMinute[fi])));
+    }
+
+    private int windowLast(int fi) {
+        return Math.min(totalIntervals - 1, departureMinute[fi]);
+    }
+
+    /** Minutes outside the day have no active flights. */
+    private boolean inDay(int minute) {
+        return minute >= 0 && minute < totalIntervals;
+    }
+
+    private int minutesSinceStart(LocalTime t) {
+        return (int) Duration.between(globalStart, t).toMinutes();
+    }
+}
@@ -0,0 +1,85 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Flight index x resource index eligibility (which counters / hold rooms accept which flight),
+ * compiled once when the engine is built.
+ *
+ * The configs' accepts() rules hash Flight objects or trimmed flight-number strings; compiling
+ * calls each rule once per pair, after that a lookup is a shift and a mask. Each flight's row is
+ * a plain long[] bitset over resource indices, rows stored back to back.
+ */
+final class EligibilityMatrix {
+
+    private final int flights;
+    private final int resources;
+    private final int words;
+    private final long[] bits;
+
+    private EligibilityMatrix(int flights, int resources) {
+        this.flights = flights;
+        this.resources = resources;
+        this.words = (resources + 63) >>> 6;
+        this.bits = new long[flights * words];
+    }
+
+    /** Null resources accept nothing. */
+    static <C> EligibilityMatrix compile(List<Flight> flights, List<C> resources, BiPredicate<C, Flight> accepts) {
+        EligibilityMatrix m = new EligibilityMatrix(flights.size(), resources.size());
+        for (int fi = 0; fi < flights.size(); fi++) {
+            Flight f = flights.get(fi);
+            int base = fi * m.words;
+            for (int r = 0; r < resources.size(); r++) {
+                C cfg = resources.get(r);
+                if (cfg != null && accepts.test(cfg, f)) m.bits[base + (r >>> 6)] |= 1L << r;
+            }
+        }
+        return m;
+    }
+
+    int flightCount() { return flights; }
+
+    int resourceCount() { return resources; }
+
+    boolean get(int flightIdx, int resource) {
+        return (bits[flightIdx * words + (resource >>> 6)] & (1L << resource)) != 0;
+    }
+
+    boolean isEmpty(int flightIdx) {
+        int base = flightIdx * words;
+        for (int w = 0; w < words; w++) {
+            if (bits[base + w] != 0) return false;
+        }
+        return true;
+    }
+
+    /** Resources accepting flightIdx, ascending. */
+    int[] members(int flightIdx) {
+        int base = flightIdx * words;
+        int n = 0;
+        for (int w = 0; w < words; w++) n += Long.bitCount(bits[base + w]);
+        int[] out = new int[n];
+        int o = 0;
+        for (int w = 0; w < words; w++) {
+            long word = bits[base + w];
+            while (word != 0) {
+                out[o++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    /** flightIdx's row as a value-comparable key (flights with equal keys share a routing group). */
+    BitSet rowKey(int flightIdx) {
+        int base = flightIdx * words;
+        long[] row = new long[words];
+        System.arraycopy(bits, base, row, 0, words);
+        return BitSet.valueOf(row);
+    }
+}
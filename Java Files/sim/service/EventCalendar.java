@@ -0,0 +1,57 @@
+package sim.service;
+
+import java.util.Arrays;
+
+/**
+ * The run's fixed events in time order: per flight, its departure, every minute with arrivals,
+ * and its boarding close.
+ *
+ * None of these depend on what happens during the run, so the calendar is a sorted long[]
+ * built once (a priority queue that never needs an insert), and "what happens at minute m" is
+ * a binary search. Events are packed as minute << 32 | flight << 2 | type, so one minute's
+ * events come out flight by flight and, within a flight, in the stepper's order:
+ * departure check, arrivals, boarding close.
+ *
+ * Transfers are not here: they are dynamic and sit in the TransferWheels.
+ */
+final class EventCalendar {
+
+    static final int DEPARTURE = 0;
+    static final int ARRIVALS = 1;
+    static final int BOARDING_CLOSE = 2;
+
+    private long[] events = new long[64];
+    private int size;
+
+    void add(int minute, int flightIdx, int type) {
+        if (size == events.length) events = Arrays.copyOf(events, size * 2);
+        events[size++] = ((long) minute << 32) | ((long) flightIdx << 2) | type;
+    }
+
+    /** Call once after the last add(). */
+    EventCalendar sorted() {
+        Arrays.sort(events, 0, size);
+        return this;
+    }
+
+    int size() { return size; }
+
+    /** Index of the first event at or after minute (size() if none). */
+    int first(int minute) {
+        long key = (long) minute << 32;
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (events[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    int minute(int e) { return (int) (events[e] >> 32); }
+
+    int flight(int e) { return (int) ((events[e] & 0xFFFFFFFFL) >>> 2); }
+
+    int type(int e) { return (int) (events[e] & 3); }
+}
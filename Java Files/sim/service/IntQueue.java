@@ -0,0 +1,153 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Growable ring-buffer FIFO of passenger ids (no boxing, no per-node allocation).
+ *
+ *  - addLast / pollFirst are O(1); size is a field
+ *  - get(i) is O(1) and walks in FIFO order, the same order the UI draws a line in
+ *  - removal from the middle keeps the order of the remaining ids
+ *  - toArray / copyTo are at most two System.arraycopy calls
+ *
+ * Every element also has a sequence number, firstSeq() + index, that stays valid while elements
+ * are only added at the back, polled from the front or overwritten with set(). Any other
+ * removal, setAll() and clear() renumber.
+ */
+final class IntQueue {
+
+    private int[] data;
+    private int head;
+    private int size;
+    // sequence number of the element at index 0
+    private int firstSeq;
+
+    IntQueue() {
+        this(8);
+    }
+
+    IntQueue(int initialCapacity) {
+        data = new int[Math.max(1, initialCapacity)];
+    }
+
+    IntQueue(int[] values) {
+        data = (values.length == 0) ? new int[1] : values.clone();
+        size = values.length;
+    }
+
+    int size() { return size; }
+
+    boolean isEmpty() { return size == 0; }
+
+    int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        return data[slot(index)];
+    }
+
+    int firstSeq() { return firstSeq; }
+
+    void set(int index, int value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        data[slot(index)] = value;
+    }
+
+    void add(int value) {
+        if (size == data.length) grow();
+        data[slot(size)] = value;
+        size++;
+    }
+
+    int peekFirst() {
+        if (size == 0) throw new IllegalStateException("queue is empty");
+        return data[head];
+    }
+
+    int pollFirst() {
+        if (size == 0) throw new IllegalStateException("queue is empty");
+        int v = data[head];
+        head = (head + 1 == data.length) ? 0 : head + 1;
+        size--;
+        firstSeq++;
+        if (size == 0) head = 0;
+        return v;
+    }
+
+    int removeAt(int index) {
+        if (index == 0) return pollFirst();
+        int v = get(index);
+        if (index < size / 2) {
+            // closer to the front: shift the front part right by one and advance head
+            for (int i = index; i > 0; i--) data[slot(i)] = data[slot(i - 1)];
+            head = (head + 1 == data.length) ? 0 : head + 1;
+        } else {
+            // closer to the back: shift the back part left by one
+            for (int i = index; i < size - 1; i++) data[slot(i)] = data[slot(i + 1)];
+        }
+        size--;
+        return v;
+    }
+
+    /** Removes the first occurrence; @return its index or -1 */
+    int removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (data[slot(i)] == value) {
+                removeAt(i);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes every id matching filter in one pass; @return how many were removed */
+    int removeIf(IntPredicate filter) {
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            int v = data[slot(r)];
+            if (!filter.test(v)) data[slot(w++)] = v;
+        }
+        int removed = size - w;
+        size = w;
+        if (size == 0) head = 0;
+        return removed;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        firstSeq = 0;
+    }
+
+    void setAll(int[] values) {
+        if (values.length > data.length) data = new int[values.length];
+        System.arraycopy(values, 0, data, 0, values.length);
+        head = 0;
+        size = values.length;
+        firstSeq = 0;
+    }
+
+    int[] toArray() {
+        int[] out = new int[size];
+        copyTo(out, 0);
+        return out;
+    }
+
+    /** Bulk copy of the ids in FIFO order into dst[offset ..]. */
+    void copyTo(int[] dst, int offset) {
+        int first = Math.min(size, data.length - head);
+        System.arraycopy(data, head, dst, offset, first);
+        System.arraycopy(data, 0, dst, offset + first, size - first);
+    }
+
+    private int slot(int index) {
+        int s = head + index;
+        return (s >= data.length) ? s - data.length : s;
+    }
+
+    private void grow() {
+        int[] bigger = new int[data.length * 2];
+        copyTo(bigger, 0);
+        data = bigger;
+        head = 0;
+    }
+}
@@ -0,0 +1,134 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Append-only int series indexed by interval, backed by a growable int[].
+ *
+ * Replaces the boxed LinkedHashMap<Integer,Integer> metrics:
+ *  - append / set / get are O(1), no boxing
+ *  - rewinding is just a length change (truncate)
+ *  - UI code reads through a View, which never copies
+ */
+public final class IntTimeSeries {
+
+    private int[] data;
+    private int length;
+
+    public IntTimeSeries() {
+        this(64);
+    }
+
+    public IntTimeSeries(int initialCapacity) {
+        this.data = new int[Math.max(1, initialCapacity)];
+    }
+
+    public int length() { return length; }
+
+    /** @return value at index, or 0 when the index was never written */
+    public int get(int index) {
+        return (index >= 0 && index < length) ? data[index] : 0;
+    }
+
+    public void append(int value) {
+        ensureCapacity(length + 1);
+        data[length++] = value;
+    }
+
+    /** Write value at index; any gap before it reads as 0. */
+    public void set(int index, int value) {
+        if (index < 0) throw new IndexOutOfBoundsException("index " + index);
+        if (index >= length) {
+            ensureCapacity(index + 1);
+            // slots between the old length and index may hold values from before a truncate
+            Arrays.fill(data, length, index, 0);
+            length = index + 1;
+        }
+        data[index] = value;
+    }
+
+    /** Drop everything from newLength on (no-op if already shorter). */
+    public void truncate(int newLength) {
+        if (newLength < length) length = Math.max(0, newLength);
+    }
+
+    public void clear() {
+        length = 0;
+    }
+
+    /** Read-only, zero-copy view over the whole series. */
+    public View view() {
+        return new View(this, () -> length);
+    }
+
+    /** Read-only, zero-copy view that only exposes the first visibleLength.getAsInt() values. */
+    public View view(IntSupplier visibleLength) {
+        return new View(this, visibleLength);
+    }
+
+    private void ensureCapacity(int min) {
+        if (min > data.length) {
+            data = Arrays.copyOf(data, Math.max(min, data.length * 2));
+        }
+    }
+
+    /**
+     * Live read-only window onto an IntTimeSeries. Length is evaluated on every call,
+     * so a view obtained once keeps following the engine as it advances or rewinds.
+     */
+    public static final class View {
+        private final IntTimeSeries series;
+        private final IntSupplier visibleLength;
+
+        private View(IntTimeSeries series, IntSupplier visibleLength) {
+            this.series = series;
+            this.visibleLength = visibleLength;
+        }
+
+        public int length() {
+            return Math.max(0, Math.min(series.length, visibleLength.getAsInt()));
+        }
+
+        /** @return value at index, or 0 outside the visible range */
+        public int get(int index) {
+            return (index >= 0 && index < length()) ? series.data[index] : 0;
+        }
+
+        /** @return first index holding the largest positive value, or -1 if nothing is above 0 */
+        public int peakIndex() {
+            int n = length();
+            int[] d = series.data;
+            int best = 0;
+            int bestIdx = -1;
+            for (int i = 0; i < n; i++) {
+                if (d[i] > best) {
+                    best = d[i];
+                    bestIdx = i;
+                }
+            }
+            return bestIdx;
+        }
+
+        /** @return largest value (0 if empty or all values are <= 0) */
+        public int peakValue() {
+            int idx = peakIndex();
+            return idx < 0 ? 0 : series.data[idx];
+        }
+
+        /** Copy of the visible values */
+        public int[] toArray() {
+            return Arrays.copyOf(series.data, length());
+        }
+
+        /** Boxed copy keyed by index, starting at firstIndex (for the older Map-based API). */
+        public Map<Integer, Integer> toMap(int firstIndex) {
+            int n = length();
+            Map<Integer, Integer> out = new LinkedHashMap<>();
+            for (int i = Math.max(0, firstIndex); i < n; i++) out.put(i, series.data[i]);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package sim.service;
+
+import java.util.Arrays;
+
+/**
+ * Picks lines of one PassengerLines family for arriving passengers (see RoutingPolicy).
+ *
+ * Candidates come in groups: group g is the sorted set of lines a passenger of that kind may join
+ * (e.g. the counters accepting one flight). Callers add each routed id to its line before routing
+ * the next one; route() and routeBatch() never change the lines themselves.
+ */
+abstract class LineRouter {
+
+    protected final PassengerLines lines;
+    protected final int[][] groups;
+
+    // per line: passengers routed by the running batch, not yet added
+    protected final int[] extra;
+
+    LineRouter(PassengerLines lines, int[][] groups) {
+        this.lines = lines;
+        this.groups = groups;
+        this.extra = new int[lines.lineCount()];
+    }
+
+    /** Line for passenger id among group's lines. */
+    abstract int route(int group, int id);
+
+    /**
+     * Lines for a whole cohort joining one after another, written to out[0 .. count) in joining
+     * order: the same answer as count route() calls with each id added in between.
+     */
+    void routeBatch(int group, int[] ids, int count, int[] out) {
+        for (int k = 0; k < count; k++) {
+            int line = route(group, ids[k]);
+            out[k] = line;
+            extra[line]++;
+            routed(line);
+        }
+        for (int k = 0; k < count; k++) extra[out[k]] = 0;
+    }
+
+    /** Live size plus whatever the running batch already sent there. */
+    protected final int load(int line) {
+        return lines.size(line) + extra[line];
+    }
+
+    /** Shorter line first, lower index on a tie; NONE loses to everything. */
+    protected final int shorter(int a, int b) {
+        if (a == PassengerLines.NONE) return b;
+        if (b == PassengerLines.NONE) return a;
+        int la = load(a);
+        int lb = load(b);
+        if (la != lb) return (la < lb) ? a : b;
+        return (a < b) ? a : b;
+    }
+
+    /** A batch just counted one more passenger for line. */
+    protected void routed(int line) { }
+
+    // ==========================================================
+    // Exact JSQ
+    // ==========================================================
+
+    /**
+     * One tournament tree per group: leaves are the group's lines, each inner node holds the
+     * shorter of its two children, the root is the answer. PassengerLines reports every size
+     * change; the touched leaves are only marked, and their paths are replayed on the next pick,
+     * so a burst of changes to one line costs one O(log n) update.
+     */
+    static final class ShortestQueue extends LineRouter {
+
+        private final int[][] tree;
+        // [group][line] leaf position, or -1 when the line is not in the group
+        private final int[][] leafOf;
+        // groups that contain each line
+        private final int[][] groupsOfLine;
+
+        private final boolean[] dirty;
+        private final int[] dirtyLines;
+        private int dirtyCount;
+
+        ShortestQueue(PassengerLines lines, int[][] groups) {
+            super(lines, groups);
+            int n = lines.lineCount();
+            tree = new int[groups.length][];
+            leafOf = new int[groups.length][n];
+            int[] memberships = new int[n];
+            for (int g = 0; g < groups.length; g++) {
+                int cap = 1;
+                while (cap < groups[g].length) cap <<= 1;
+                tree[g] = new int[2 * cap];
+                Arrays.fill(tree[g], PassengerLines.NONE);
+                Arrays.fill(leafOf[g], -1);
+                for (int k = 0; k < groups[g].length; k++) {
+                    leafOf[g][groups[g][k]] = k;
+                    tree[g][cap + k] = groups[g][k];
+                    memberships[groups[g][k]]++;
+                }
+            }
+            groupsOfLine = new int[n][];
+            for (int i = 0; i < n; i++) groupsOfLine[i] = new int[memberships[i]];
+            Arrays.fill(memberships, 0);
+            for (int g = 0; g < groups.length; g++) {
+                for (int line : groups[g]) groupsOfLine[line][memberships[line]++] = g;
+            }
+            dirty = new boolean[n];
+            dirtyLines = new int[n];
+            for (int g = 0; g < groups.length; g++) {
+                int cap = tree[g].length / 2;
+                for (int i = cap - 1; i >= 1; i--) tree[g][i] = shorter(tree[g][2 * i], tree[g][2 * i + 1]);
+            }
+            lines.setSizeListener(this::markDirty);
+        }
+
+        @Override
+        int route(int group, int id) {
+            flush();
+            return tree[group][1];
+        }
+
+        @Override
+        protected void routed(int line) {
+            // the batch's extra[] count already changed the line's load; re-rank it right away
+            for (int g : groupsOfLine[line]) update(g, line);
+            markDirty(line);
+        }
+
+        private void markDirty(int line) {
+            if (dirty[line]) return;
+            dirty[line] = true;
+            dirtyLines[dirtyCount++] = line;
+        }
+
+        private void flush() {
+            for (int k = 0; k < dirtyCount; k++) {
+                int line = dirtyLines[k];
+                dirty[line] = false;
+                for (int g : groupsOfLine[line]) update(g, line);
+            }
+            dirtyCount = 0;
+        }
+
+        private void update(int g, int line) {
+            int[] t = tree[g];
+            int i = (t.length / 2 + leafOf[g][line]) >> 1;
+            while (i >= 1) {
+                t[i] = shorter(t[2 * i], t[2 * i + 1]);
+                i >>= 1;
+            }
+        }
+    }
+
+    // ==========================================================
+    // Power of two choices
+    // ==========================================================
+
+    /**
+     * Two candidates drawn from a hash of the passenger id, so a replayed minute makes the same
+     * picks without keeping any random state in the rewind snapshots.
+     */
+    static final class TwoChoice extends LineRouter {
+
+        TwoChoice(PassengerLines lines, int[][] groups) {
+            super(lines, groups);
+        }
+
+        @Override
+        int route(int group, int id) {
+            int[] members = groups[group];
+            int m = members.length;
+            if (m == 1) return members[0];
+            long h = mix(id);
+            int a = (int) Long.remainderUnsigned(h, m);
+            int b = (int) Long.remainderUnsigned(h >>> 32, m - 1);
+            if (b >= a) b++;
+            return shorter(members[a], members[b]);
+        }
+
+        /** SplitMix64 finalizer. */
+        private static long mix(long z) {
+            z = (z + 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
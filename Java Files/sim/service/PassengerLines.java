@@ -0,0 +1,370 @@
+package sim.service;
+
+import sim.model.Passenger;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * One family of lines (all ticket queues, all hold rooms, ...) with lazy deletion of finished flights.
+ *
+ * Each line counts its entries per flight; that count is the per-flight location index. When a
+ * flight is cleared (boarding close for the queues, departure for the hold rooms) its passengers
+ * are NOT removed: clearing only moves the flight's counts into each line's dead tally, O(lines)
+ * and no passenger touched. Dead entries are skipped by every reader (sizes, views, service) and
+ * physically dropped:
+ *  - for free when they reach the front of a queue
+ *  - in one compaction pass once more than GARBAGE_RATIO of a line is dead
+ *
+ * A family built with handles also remembers, per id, its line and queue sequence number, so
+ * removeTracked() can unlink any passenger in O(1): the slot is overwritten with a TOMBSTONE,
+ * which every reader treats like a dead entry and which goes away the same lazy way. Compaction
+ * renumbers the queue, so it rewrites the handles of the ids that stay.
+ */
+final class PassengerLines {
+
+    /** Compact a line once dead entries exceed this share of its physical size. */
+    static final double GARBAGE_RATIO = 0.5;
+
+    static final int NONE = -1;
+
+    // slot of an id removed through its handle
+    private static final int TOMBSTONE = -1;
+
+    /** Which store epoch turns a family's entries dead. */
+    enum ClearedBy {
+        BOARDING_CLOSE,
+        DEPARTURE
+    }
+
+    /** Told about every id this family drops on its own (dead entries), so histories can log the exit. */
+    interface ExitListener {
+        void exited(int line, int id);
+    }
+
+    /** Told whenever the live size of a line may have changed (routing indexes). */
+    interface SizeListener {
+        void sizeChanged(int line);
+    }
+
+    private final PassengerStore store;
+    private final ClearedBy clearedBy;
+
+    private final IntQueue[] lines;
+    // [line][flight] entries of flights not yet cleared
+    private final int[][] countByFlight;
+    // entries of cleared flights (and tombstones) still physically in the line
+    private final int[] dead;
+
+    // handles by id (null when the family does not track them): line (NONE if not in the family) and queue sequence
+    private int[] lineOf;
+    private int[] seqOf;
+
+    // bumped on every change, so views know when to rebuild their live copy
+    private int version;
+
+    private SizeListener sizeListener;
+
+    private final List<List<Passenger>> views;
+
+    PassengerLines(int numLines, int numFlights, PassengerStore store, ClearedBy clearedBy) {
+        this(numLines, numFlights, store, clearedBy, false);
+    }
+
+    PassengerLines(int numLines, int numFlights, PassengerStore store, ClearedBy clearedBy, boolean trackHandles) {
+        this.store = store;
+        this.clearedBy = clearedBy;
+        this.lines = new IntQueue[numLines];
+        this.countByFlight = new int[numLines][numFlights];
+        this.dead = new int[numLines];
+        List<List<Passenger>> v = new ArrayList<>(numLines);
+        for (int i = 0; i < numLines; i++) {
+            lines[i] = new IntQueue();
+            v.add(new LineView(i));
+        }
+        this.views = Collections.unmodifiableList(v);
+        if (trackHandles) {
+            lineOf = new int[0];
+            seqOf = new int[0];
+        }
+    }
+
+    int lineCount() { return lines.length; }
+
+    void setSizeListener(SizeListener listener) { this.sizeListener = listener; }
+
+    private void sizeChanged(int line) {
+        if (sizeListener != null) sizeListener.sizeChanged(line);
+    }
+
+    private void allSizesChanged() {
+        if (sizeListener == null) return;
+        for (int i = 0; i < lines.length; i++) sizeListener.sizeChanged(i);
+    }
+
+    /** Physical queue, dead entries included (history truncation and snapshots). */
+    IntQueue raw(int line) { return lines[line]; }
+
+    /** Live entries in line. */
+    int size(int line) { return lines[line].size() - dead[line]; }
+
+    int totalSize() {
+        int n = 0;
+        for (int i = 0; i < lines.length; i++) n += size(i);
+        return n;
+    }
+
+    /** No entry at all, dead ones included (nothing for service to look at). */
+    boolean isEmpty() {
+        for (IntQueue q : lines) {
+            if (!q.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    /** Live entries of flightIdx in line. */
+    int count(int line, int flightIdx) { return countByFlight[line][flightIdx]; }
+
+    /** Live entries of flightIdx across the family, O(lines). */
+    int count(int flightIdx) {
+        int n = 0;
+        for (int[] c : countByFlight) n += c[flightIdx];
+        return n;
+    }
+
+    void add(int line, int id) {
+        IntQueue q = lines[line];
+        q.add(id);
+        countByFlight[line][store.flightIndex(id)]++;
+        if (lineOf != null) setHandle(id, line, q.firstSeq() + q.size() - 1);
+        version++;
+        sizeChanged(line);
+    }
+
+    /**
+     * Remove and return the first live id that does not match skip, or NONE.
+     * Dead entries found at the front are dropped on the way (reported to listener).
+     */
+    int takeFirst(int line, IntPredicate skip, ExitListener listener) {
+        IntQueue q = lines[line];
+        dropDeadFront(line, listener);
+        for (int i = 0; i < q.size(); i++) {
+            int id = q.get(i);
+            if (isDead(id) || skip.test(id)) continue;
+            q.removeAt(i);
+            countByFlight[line][store.flightIndex(id)]--;
+            if (lineOf != null) {
+                lineOf[id] = NONE;
+                renumber(line);
+            }
+            version++;
+            sizeChanged(line);
+            return id;
+        }
+        return NONE;
+    }
+
+    /**
+     * O(1) removal through id's handle (family built with trackHandles).
+     * @return the line id was in, or NONE if it is not a live entry of this family
+     */
+    int removeTracked(int id, ExitListener listener) {
+        if (id >= lineOf.length || lineOf[id] == NONE || isDead(id)) return NONE;
+        int line = lineOf[id];
+        IntQueue q = lines[line];
+        q.set(seqOf[id] - q.firstSeq(), TOMBSTONE);
+        lineOf[id] = NONE;
+        countByFlight[line][store.flightIndex(id)]--;
+        dead[line]++;
+        while (!q.isEmpty() && q.peekFirst() == TOMBSTONE) {
+            q.pollFirst();
+            dead[line]--;
+        }
+        if (dead[line] > GARBAGE_RATIO * q.size()) compact(line, listener);
+        version++;
+        sizeChanged(line);
+        return line;
+    }
+
+    /**
+     * The store's epoch clock now covers flightIdx: its entries become dead in every line.
+     * Lines whose garbage passes GARBAGE_RATIO are compacted right away.
+     */
+    void clearFlight(int flightIdx, ExitListener listener) {
+        for (int i = 0; i < lines.length; i++) {
+            int n = countByFlight[i][flightIdx];
+            if (n == 0) continue;
+            countByFlight[i][flightIdx] = 0;
+            dead[i] += n;
+            if (dead[i] > GARBAGE_RATIO * lines[i].size()) compact(i, listener);
+            sizeChanged(i);
+        }
+        version++;
+    }
+
+    /** Physically drop every dead entry now. */
+    void compactAll(ExitListener listener) {
+        for (int i = 0; i < lines.length; i++) {
+            if (dead[i] > 0) compact(i, listener);
+        }
+    }
+
+    private void compact(int line, ExitListener listener) {
+        lines[line].removeIf(id -> {
+            if (!isTalliedDead(line, id)) return false;
+            if (listener != null && id != TOMBSTONE) listener.exited(line, id);
+            return true;
+        });
+        dead[line] = 0;
+        if (lineOf != null) renumber(line);
+        version++;
+    }
+
+    private void dropDeadFront(int line, ExitListener listener) {
+        IntQueue q = lines[line];
+        while (dead[line] > 0 && !q.isEmpty() && isTalliedDead(line, q.peekFirst())) {
+            int id = q.pollFirst();
+            dead[line]--;
+            if (listener != null && id != TOMBSTONE) listener.exited(line, id);
+            version++;
+        }
+    }
+
+    private boolean isDead(int id) {
+        if (id == TOMBSTONE) return true;
+        return (clearedBy == ClearedBy.DEPARTURE) ? store.isDeparted(id) : store.isCleared(id);
+    }
+
+    /**
+     * Dead and already moved to the dead tally. When several flights are cleared in the same minute,
+     * the store reports all of them dead before clearFlight() has run for each; a compaction
+     * triggered by the first must leave the others' entries for their own clearFlight() to count.
+     */
+    private boolean isTalliedDead(int line, int id) {
+        if (id == TOMBSTONE) return true;
+        return isDead(id) && countByFlight[line][store.flightIndex(id)] == 0;
+    }
+
+    /** Live ids of line in FIFO order. */
+    int[] liveIds(int line) {
+        IntQueue q = lines[line];
+        if (dead[line] == 0) return q.toArray();
+        int[] out = new int[size(line)];
+        int o = 0;
+        for (int i = 0; i < q.size(); i++) {
+            int id = q.get(i);
+            if (!isDead(id)) out[o++] = id;
+        }
+        return out;
+    }
+
+    private void setHandle(int id, int line, int seq) {
+        if (id >= lineOf.length) {
+            int n = Math.max(id + 1, lineOf.length * 2);
+            int old = lineOf.length;
+            lineOf = Arrays.copyOf(lineOf, n);
+            seqOf = Arrays.copyOf(seqOf, n);
+            Arrays.fill(lineOf, old, n, NONE);
+        }
+        lineOf[id] = line;
+        seqOf[id] = seq;
+    }
+
+    /** Rewrite the handles of line's live ids after its queue was renumbered. */
+    private void renumber(int line) {
+        IntQueue q = lines[line];
+        int first = q.firstSeq();
+        for (int i = 0; i < q.size(); i++) {
+            int id = q.get(i);
+            if (!isDead(id)) setHandle(id, line, first + i);
+        }
+    }
+
+    // ==========================================================
+    // Snapshots
+    // ==========================================================
+
+    void collectIds(BitSet out) {
+        for (IntQueue q : lines) {
+            for (int i = 0; i < q.size(); i++) {
+                int id = q.get(i);
+                if (id != TOMBSTONE) out.set(id);
+            }
+        }
+    }
+
+    int[][] copyLines() {
+        int[][] copy = new int[lines.length][];
+        for (int i = 0; i < copy.length; i++) copy[i] = lines[i].toArray();
+        return copy;
+    }
+
+    /** Put the physical lines back and recount (the store's clocks must already match the restored interval). */
+    void restore(int[][] source) {
+        if (source.length != lines.length) {
+            throw new IllegalStateException("keyframe has " + source.length + " lines, engine has " + lines.length);
+        }
+        if (lineOf != null) Arrays.fill(lineOf, NONE);
+        for (int i = 0; i < lines.length; i++) {
+            lines[i].setAll(source[i]);
+            Arrays.fill(countByFlight[i], 0);
+            dead[i] = 0;
+            for (int id : source[i]) {
+                if (isDead(id)) dead[i]++;
+                else countByFlight[i][store.flightIndex(id)]++;
+            }
+            if (lineOf != null) renumber(i);
+        }
+        version++;
+        allSizesChanged();
+    }
+
+    void clear() {
+        for (int i = 0; i < lines.length; i++) {
+            lines[i].clear();
+            Arrays.fill(countByFlight[i], 0);
+            dead[i] = 0;
+        }
+        if (lineOf != null) Arrays.fill(lineOf, NONE);
+        version++;
+        allSizesChanged();
+    }
+
+    // ==========================================================
+    // UI views
+    // ==========================================================
+
+    /** Read-only live views, one per line (dead entries hidden, Passenger objects from the store). */
+    List<List<Passenger>> views() { return views; }
+
+    private final class LineView extends AbstractList<Passenger> {
+        private final int line;
+        private int[] live;
+        private int liveVersion = -1;
+
+        LineView(int line) {
+            this.line = line;
+        }
+
+        @Override
+        public Passenger get(int index) {
+            if (dead[line] == 0) return store.view(lines[line].get(index));
+            if (liveVersion != version) {
+                live = liveIds(line);
+                liveVersion = version;
+            }
+            if (index < 0 || index >= live.length) throw new IndexOutOfBoundsException("index " + index + ", size " + live.length);
+            return store.view(live[index]);
+        }
+
+        @Override
+        public int size() {
+            return PassengerLines.this.size(line);
+        }
+    }
+}
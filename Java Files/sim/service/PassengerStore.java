@@ -0,0 +1,276 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays storage for every passenger of a run.
+ *
+ * A passenger is a dense int id (0, 1, 2, ... in creation order); each field lives in its own
+ * column. The engine's queues, pending buckets and history logs only hold ids. A Passenger object
+ * is created the first time the UI asks for a given id and cached, so the same id always maps to
+ * the same object (identity-based Sets in the UI keep working).
+ *
+ * Missed is not written per passenger at boarding close. Each flight has a close epoch (its
+ * boarding-close minute); a passenger is missed once the clock has reached that epoch and they
+ * never made it into a hold room. Departure works the same way with a departure epoch.
+ * The engine moves three clocks forward:
+ *  - boardingClosedThrough: closes that have happened (missed from step 1 of the close minute)
+ *  - clearedThrough: closes whose passengers have left the non-hold lines (after the snapshot)
+ *  - departedThrough: departures whose passengers have left the hold rooms (before the snapshot)
+ */
+final class PassengerStore {
+
+    private static final byte IN_PERSON = 1;
+    // explicit setMissed(true); boarding close is covered by the close epochs
+    private static final byte MISSED = 2;
+
+    /** Close epoch of a flight that never closes within the run. */
+    static final int NEVER = Integer.MAX_VALUE;
+
+    /** Number of mutable ints saveState() writes per passenger. */
+    static final int STATE_INTS = 7;
+
+    private final List<Flight> flights;
+
+    // per flight: boarding-close / departure minute (NEVER if it does not happen inside the run)
+    private final int[] closeEpochByFlight;
+    private final int[] departureEpochByFlight;
+    private int boardingClosedThrough = -1;
+    private int clearedThrough = -1;
+    private int departedThrough = -1;
+
+    private int size;
+    // ids created so far per flight (replay reuses ids, so only add/truncate/clear change it)
+    private final int[] countByFlight;
+
+    // immutable per passenger
+    private int[] flight = new int[0];
+    private int[] arrivalMinute = new int[0];
+    // IN_PERSON | MISSED
+    private byte[] flags = new byte[0];
+
+    // written by the engine as the passenger moves through the airport
+    private int[] ticketCompletionMinute = new int[0];
+    private int[] checkpointEntryMinute = new int[0];
+    private int[] checkpointCompletionMinute = new int[0];
+    private int[] holdRoomEntryMinute = new int[0];
+    private int[] holdRoomSequence = new int[0];
+    private int[] assignedHoldRoomIndex = new int[0];
+
+    // lazily materialized views (null until first asked for)
+    private Passenger[] views = new Passenger[0];
+
+    PassengerStore(List<Flight> flights, int[] closeEpochByFlight, int[] departureEpochByFlight) {
+        this.flights = flights;
+        this.closeEpochByFlight = closeEpochByFlight.clone();
+        this.departureEpochByFlight = departureEpochByFlight.clone();
+        this.countByFlight = new int[closeEpochByFlight.length];
+        grow(256);
+    }
+
+    int size() { return size; }
+
+    /** Passengers of flightIndex created so far. */
+    int count(int flightIndex) { return countByFlight[flightIndex]; }
+
+    /** New passenger in its initial state; @return its id */
+    int add(int flightIndex, int arrival, boolean inPerson) {
+        if (size == flight.length) grow(size * 2);
+        int id = size++;
+        flight[id] = flightIndex;
+        countByFlight[flightIndex]++;
+        arrivalMinute[id] = arrival;
+        flags[id] = inPerson ? IN_PERSON : 0;
+        resetState(id);
+        return id;
+    }
+
+    /** Put the mutable fields of id back to the values a new Passenger starts with. */
+    void resetState(int id) {
+        flags[id] &= IN_PERSON;
+        ticketCompletionMinute[id] = 0;
+        checkpointEntryMinute[id] = 0;
+        checkpointCompletionMinute[id] = 0;
+        holdRoomEntryMinute[id] = -1;
+        holdRoomSequence[id] = -1;
+        assignedHoldRoomIndex[id] = -1;
+    }
+
+    /** Forget every id >= newSize (used when a rewound run takes a different branch). */
+    void truncate(int newSize) {
+        if (newSize >= size) return;
+        newSize = Math.max(0, newSize);
+        for (int id = newSize; id < size; id++) countByFlight[flight[id]]--;
+        Arrays.fill(views, newSize, size, null);
+        size = newSize;
+    }
+
+    void clear() {
+        Arrays.fill(views, 0, size, null);
+        Arrays.fill(countByFlight, 0);
+        size = 0;
+        boardingClosedThrough = -1;
+        clearedThrough = -1;
+        departedThrough = -1;
+    }
+
+    // ==========================================================
+    // Close epochs
+    // ==========================================================
+
+    /** Flights whose close minute is <= minute count as closed (their passengers outside a hold room are missed). */
+    void setBoardingClosedThrough(int minute) { this.boardingClosedThrough = minute; }
+
+    /** Flights whose close minute is <= minute have been cleared from the non-hold lines. */
+    void setClearedThrough(int minute) { this.clearedThrough = minute; }
+
+    /** Flights whose departure minute is <= minute have boarded and left the hold rooms. */
+    void setDepartedThrough(int minute) { this.departedThrough = minute; }
+
+    int closeEpoch(int id) { return closeEpochByFlight[flight[id]]; }
+    int departureEpoch(int id) { return departureEpochByFlight[flight[id]]; }
+
+    /** id belongs to a flight already cleared from the non-hold lines (a dead entry there). */
+    boolean isCleared(int id) { return closeEpochByFlight[flight[id]] <= clearedThrough; }
+
+    /** id belongs to a flight that already departed (a dead entry in the hold rooms). */
+    boolean isDeparted(int id) { return departureEpochByFlight[flight[id]] <= departedThrough; }
+
+    // ==========================================================
+    // Columns
+    // ==========================================================
+
+    int flightIndex(int id) { return flight[id]; }
+    int arrivalMinute(int id) { return arrivalMinute[id]; }
+    boolean isInPerson(int id) { return (flags[id] & IN_PERSON) != 0; }
+
+    boolean isMissed(int id) {
+        if ((flags[id] & MISSED) != 0) return true;
+        return closeEpochByFlight[flight[id]] <= boardingClosedThrough && holdRoomEntryMinute[id] < 0;
+    }
+
+    void setMissed(int id, boolean missed) {
+        if (missed) flags[id] |= MISSED;
+        else flags[id] &= ~MISSED;
+    }
+
+    int ticketCompletionMinute(int id) { return ticketCompletionMinute[id]; }
+    void setTicketCompletionMinute(int id, int m) { ticketCompletionMinute[id] = m; }
+
+    int checkpointEntryMinute(int id) { return checkpointEntryMinute[id]; }
+    void setCheckpointEntryMinute(int id, int m) { checkpointEntryMinute[id] = m; }
+
+    int checkpointCompletionMinute(int id) { return checkpointCompletionMinute[id]; }
+    void setCheckpointCompletionMinute(int id, int m) { checkpointCompletionMinute[id] = m; }
+
+    int holdRoomEntryMinute(int id) { return holdRoomEntryMinute[id]; }
+    void setHoldRoomEntryMinute(int id, int m) { holdRoomEntryMinute[id] = m; }
+
+    int holdRoomSequence(int id) { return holdRoomSequence[id]; }
+    void setHoldRoomSequence(int id, int seq) { holdRoomSequence[id] = seq; }
+
+    int assignedHoldRoomIndex(int id) { return assignedHoldRoomIndex[id]; }
+    void setAssignedHoldRoomIndex(int id, int idx) { assignedHoldRoomIndex[id] = idx; }
+
+    // ==========================================================
+    // Rewind support: mutable fields of a set of ids, packed STATE_INTS per id
+    // ==========================================================
+
+    int[] saveState(int[] ids, int count) {
+        int[] out = new int[count * STATE_INTS];
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            out[o++] = ticketCompletionMinute[id];
+            out[o++] = checkpointEntryMinute[id];
+            out[o++] = checkpointCompletionMinute[id];
+            out[o++] = flags[id] & MISSED;
+            out[o++] = holdRoomEntryMinute[id];
+            out[o++] = holdRoomSequence[id];
+            out[o++] = assignedHoldRoomIndex[id];
+        }
+        return out;
+    }
+
+    void restoreState(int[] ids, int count, int[] state) {
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            ticketCompletionMinute[id] = state[o++];
+            checkpointEntryMinute[id] = state[o++];
+            checkpointCompletionMinute[id] = state[o++];
+            setMissed(id, state[o++] != 0);
+            holdRoomEntryMinute[id] = state[o++];
+            holdRoomSequence[id] = state[o++];
+            assignedHoldRoomIndex[id] = state[o++];
+        }
+    }
+
+    // ==========================================================
+    // Passenger views
+    // ==========================================================
+
+    /** The Passenger object for id (created once, then cached). */
+    Passenger view(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException("passenger id " + id + ", size " + size);
+        Passenger p = views[id];
+        if (p == null) {
+            p = new StoredPassenger(this, id);
+            views[id] = p;
+        }
+        return p;
+    }
+
+    private void grow(int capacity) {
+        flight = Arrays.copyOf(flight, capacity);
+        arrivalMinute = Arrays.copyOf(arrivalMinute, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        ticketCompletionMinute = Arrays.copyOf(ticketCompletionMinute, capacity);
+        checkpointEntryMinute = Arrays.copyOf(checkpointEntryMinute, capacity);
+        checkpointCompletionMinute = Arrays.copyOf(checkpointCompletionMinute, capacity);
+        holdRoomEntryMinute = Arrays.copyOf(holdRoomEntryMinute, capacity);
+        holdRoomSequence = Arrays.copyOf(holdRoomSequence, capacity);
+        assignedHoldRoomIndex = Arrays.copyOf(assignedHoldRoomIndex, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+
+    /**
+     * Passenger whose mutable fields live in the store. Reads always see the engine's current
+     * column values; setters write through.
+     */
+    private static final class StoredPassenger extends Passenger {
+        private final PassengerStore store;
+        private final int id;
+
+        StoredPassenger(PassengerStore store, int id) {
+            super(store.flights.get(store.flightIndex(id)), store.arrivalMinute(id), store.isInPerson(id));
+            this.store = store;
+            this.id = id;
+        }
+
+        @Override public int getTicketCompletionMinute() { return store.ticketCompletionMinute(id); }
+        @Override public void setTicketCompletionMinute(int m) { store.setTicketCompletionMinute(id, m); }
+
+        @Override public int getCheckpointEntryMinute() { return store.checkpointEntryMinute(id); }
+        @Override public void setCheckpointEntryMinute(int m) { store.setCheckpointEntryMinute(id, m); }
+
+        @Override public int getCheckpointCompletionMinute() { return store.checkpointCompletionMinute(id); }
+        @Override public void setCheckpointCompletionMinute(int m) { store.setCheckpointCompletionMinute(id, m); }
+
+        @Override public boolean isMissed() { return store.isMissed(id); }
+        @Override public void setMissed(boolean missed) { store.setMissed(id, missed); }
+
+        @Override public int getHoldRoomEntryMinute() { return store.holdRoomEntryMinute(id); }
+        @Override public void setHoldRoomEntryMinute(int m) { store.setHoldRoomEntryMinute(id, m); }
+
+        @Override public int getHoldRoomSequence() { return store.holdRoomSequence(id); }
+        @Override public void setHoldRoomSequence(int seq) { store.setHoldRoomSequence(id, seq); }
+
+        @Override public int getAssignedHoldRoomIndex() { return store.assignedHoldRoomIndex(id); }
+        @Override public void setAssignedHoldRoomIndex(int idx) { store.setAssignedHoldRoomIndex(id, idx); }
+    }
+}
@@ -0,0 +1,214 @@
+package sim.service;
+
+import sim.model.Passenger;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Enter/exit log for one family of lines (e.g. all ticket queues), replacing a full copy of
+ * every line at every history step.
+ *
+ * Each line keeps its passenger ids in the order they joined, with the step they became visible
+ * and the step they stopped being visible. "Who was in line i at step t" is then every entry
+ * with enter <= t < exit, in join order. At each step we also remember, per line, the first
+ * entry still present (low mark) and the entry count (high mark), so a lookup only scans the
+ * entries that could have been in the line at that step.
+ *
+ * Step numbering follows the old history lists: the step being recorded is steps(), so an
+ * exit before markStep() hides the passenger from that step, and an exit after it keeps them
+ * visible for that step only.
+ *
+ * Lookups return Passenger views from the PassengerStore.
+ *
+ * Line families delete finished flights lazily, so a cleared passenger's entry may still be
+ * open; lookups hide it from the first step it would have been gone under eager removal:
+ * after the close epoch for the queues (close clear runs after the snapshot), from the
+ * departure epoch on for the hold rooms (departure runs before it).
+ */
+final class PassengerTimeline {
+
+    private static final int OPEN = Integer.MAX_VALUE;
+
+    private final PassengerStore store;
+    private final PassengerLines.ClearedBy clearedBy;
+    private final Line[] lines;
+    private int steps;
+
+    // passenger id -> entry index + 1 of the line it is currently in (0 = in none);
+    // a passenger is in at most one line of a family at a time
+    private int[] openEntry = new int[64];
+
+    PassengerTimeline(int numLines, PassengerStore store, PassengerLines.ClearedBy clearedBy) {
+        this.store = store;
+        this.clearedBy = clearedBy;
+        lines = new Line[numLines];
+        for (int i = 0; i < numLines; i++) lines[i] = new Line();
+    }
+
+    int steps() { return steps; }
+
+    void enter(int line, int id) {
+        setOpen(id, lines[line].enter(id, steps) + 1);
+    }
+
+    void exit(int line, int id) {
+        if (id >= openEntry.length || openEntry[id] == 0) return;
+        lines[line].close(openEntry[id] - 1, steps);
+        openEntry[id] = 0;
+    }
+
+    private void setOpen(int id, int entryPlusOne) {
+        if (id >= openEntry.length) openEntry = Arrays.copyOf(openEntry, Math.max(id + 1, openEntry.length * 2));
+        openEntry[id] = entryPlusOne;
+    }
+
+    /** The snapshot moment: freezes the current content of every line as step steps(). */
+    void markStep() {
+        for (Line l : lines) l.mark();
+        steps++;
+    }
+
+    /**
+     * Forget step newSteps and everything after it, after the engine was put back to that point.
+     * current holds each line's present content, which decides who is still open.
+     */
+    void truncate(int newSteps, PassengerLines current) {
+        if (newSteps >= steps) return;
+        newSteps = Math.max(0, newSteps);
+        Arrays.fill(openEntry, 0);
+        for (int i = 0; i < lines.length; i++) lines[i].truncate(newSteps, current.raw(i));
+        steps = newSteps;
+    }
+
+    void clear() {
+        for (Line l : lines) l.clear();
+        Arrays.fill(openEntry, 0);
+        steps = 0;
+    }
+
+    /** Passengers in line at step, in join order (a new list each call). */
+    List<Passenger> lineAt(int step, int line) {
+        if (step < 0 || step >= steps) throw new IndexOutOfBoundsException("step " + step + ", steps " + steps);
+        return lines[line].at(step);
+    }
+
+    /** Read-only List<step -> List<line -> passengers>> shaped like the old history lists; lines are built on access. */
+    List<List<List<Passenger>>> asHistory() {
+        return new AbstractList<List<List<Passenger>>>() {
+            @Override
+            public List<List<Passenger>> get(int step) {
+                if (step < 0 || step >= steps) throw new IndexOutOfBoundsException("step " + step + ", steps " + steps);
+                return new AbstractList<List<Passenger>>() {
+                    @Override
+                    public List<Passenger> get(int line) {
+                        return lines[line].at(step);
+                    }
+
+                    @Override
+                    public int size() {
+                        return lines.length;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return steps;
+            }
+        };
+    }
+
+    private boolean isGoneAt(int id, int step) {
+        return (clearedBy == PassengerLines.ClearedBy.DEPARTURE)
+                ? store.departureEpoch(id) <= step
+                : store.closeEpoch(id) < step;
+    }
+
+    // ==========================================================
+    // One line
+    // ==========================================================
+
+    private final class Line {
+        private int[] passengers = new int[16];
+        private int[] enterStep = new int[16];
+        private int[] exitStep = new int[16];
+        private int count;
+
+        // first entry not yet exited (advanced lazily in mark())
+        private int head;
+
+        // per step: [low, high) entry window
+        private final IntTimeSeries lowMarks = new IntTimeSeries();
+        private final IntTimeSeries highMarks = new IntTimeSeries();
+
+        /** @return the new entry's index */
+        int enter(int id, int step) {
+            if (count == passengers.length) {
+                int cap = count * 2;
+                passengers = Arrays.copyOf(passengers, cap);
+                enterStep = Arrays.copyOf(enterStep, cap);
+                exitStep = Arrays.copyOf(exitStep, cap);
+            }
+            passengers[count] = id;
+            enterStep[count] = step;
+            exitStep[count] = OPEN;
+            return count++;
+        }
+
+        void close(int entry, int step) {
+            exitStep[entry] = step;
+        }
+
+        void mark() {
+            while (head < count && exitStep[head] != OPEN) head++;
+            lowMarks.append(head);
+            highMarks.append(count);
+        }
+
+        List<Passenger> at(int step) {
+            int lo = lowMarks.get(step);
+            int hi = highMarks.get(step);
+            List<Passenger> out = new ArrayList<>(hi - lo);
+            for (int i = lo; i < hi; i++) {
+                if (enterStep[i] > step || exitStep[i] <= step) continue;
+                if (isGoneAt(passengers[i], step)) continue;
+                out.add(store.view(passengers[i]));
+            }
+            return out;
+        }
+
+        void truncate(int newSteps, IntQueue present) {
+            // entries that joined at or after newSteps never happened
+            count = (newSteps > 0) ? highMarks.get(newSteps - 1) : 0;
+
+            BitSet inLine = new BitSet();
+            for (int i = 0; i < present.size(); i++) {
+                int id = present.get(i);
+                if (id >= 0) inLine.set(id);
+            }
+            for (int i = 0; i < count; i++) {
+                if (exitStep[i] < newSteps) continue;
+                if (inLine.get(passengers[i])) {
+                    exitStep[i] = OPEN;
+                    setOpen(passengers[i], i + 1);
+                } else {
+                    exitStep[i] = newSteps;
+                }
+            }
+            head = Math.min(head, (newSteps > 0) ? lowMarks.get(newSteps - 1) : 0);
+            lowMarks.truncate(newSteps);
+            highMarks.truncate(newSteps);
+        }
+
+        void clear() {
+            count = 0;
+            head = 0;
+            lowMarks.clear();
+            highMarks.clear();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package sim.service;
+
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.apache.commons.math3.distribution.ExponentialDistribution;
+import org.apache.commons.math3.distribution.LogNormalDistribution;
+import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.apache.commons.math3.random.AbstractRandomGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * The stochastic engine's draws: arrivals, in-person split and service times, each sampled from
+ * the (stream, key, minute) generators of StreamSeeds through commons-math distributions. Only
+ * created for stochastic runs, so the deterministic engine runs without commons-math.
+ */
+final class RandomStreams {
+
+    private final StreamSeeds seeds;
+
+    // reseeded per draw site; commons-math distributions sample through it
+    private final Generator generator = new Generator();
+
+    RandomStreams(StreamSeeds seeds) {
+        this.seeds = seeds;
+    }
+
+    /** Poisson(mean) arrivals of flight fi in minute. */
+    int poisson(int fi, int minute, double mean) {
+        if (mean <= 0) return 0;
+        generator.use(seeds.at(StreamSeeds.ARRIVALS, fi, minute));
+        return new PoissonDistribution(generator, mean,
+                PoissonDistribution.DEFAULT_EPSILON, PoissonDistribution.DEFAULT_MAX_ITERATIONS).sample();
+    }
+
+    /** Binomial(n, p) in-person passengers of flight fi in minute. */
+    int binomial(int fi, int minute, int n, double p) {
+        if (n <= 0) return 0;
+        generator.use(seeds.at(StreamSeeds.IN_PERSON_SPLIT, fi, minute));
+        return new BinomialDistribution(generator, n, Math.max(0.0, Math.min(1.0, p))).sample();
+    }
+
+    /**
+     * Service times for one family of servers (counters or checkpoints). Each lane draws from
+     * its own (stream, lane, minute) generator, reseeded the first time the lane serves in a
+     * minute; forget() must be called whenever the engine's clock jumps (rewind, reset).
+     */
+    final class ServiceSampler {
+        private final int stream;
+        private final StochasticModel model;
+        private final Generator[] generators;
+        private final int[] seededMinute;
+        private final double[] distMean;
+        private final ExponentialDistribution[] exponential;
+        private final LogNormalDistribution[] logNormal;
+
+        ServiceSampler(int stream, int lanes, StochasticModel model) {
+            this.stream = stream;
+            this.model = model;
+            this.generators = new Generator[lanes];
+            this.seededMinute = new int[lanes];
+            this.distMean = new double[lanes];
+            this.exponential = new ExponentialDistribution[lanes];
+            this.logNormal = new LogNormalDistribution[lanes];
+            for (int i = 0; i < lanes; i++) generators[i] = new Generator();
+            forget();
+        }
+
+        void forget() {
+            java.util.Arrays.fill(seededMinute, Integer.MIN_VALUE);
+        }
+
+        /** Service time in minutes for lane at mean (minutes per passenger). */
+        double sample(int lane, int minute, double mean) {
+            Generator g = generators[lane];
+            if (seededMinute[lane] != minute) {
+                g.use(seeds.at(stream, lane, minute));
+                seededMinute[lane] = minute;
+            }
+            if (model.getServiceDistribution() == StochasticModel.ServiceDistribution.LOGNORMAL) {
+                if (logNormal[lane] == null || distMean[lane] != mean) {
+                    double cv = model.getServiceCv();
+                    double shape = Math.sqrt(Math.log1p(cv * cv));
+                    double scale = Math.log(mean) - shape * shape / 2;
+                    logNormal[lane] = new LogNormalDistribution(g, scale, shape);
+                    distMean[lane] = mean;
+                }
+                return logNormal[lane].sample();
+            }
+            if (exponential[lane] == null || distMean[lane] != mean) {
+                exponential[lane] = new ExponentialDistribution(g, mean);
+                distMean[lane] = mean;
+            }
+            return exponential[lane].sample();
+        }
+    }
+
+    ServiceSampler serviceSampler(int stream, int lanes, StochasticModel model) {
+        return new ServiceSampler(stream, lanes, model);
+    }
+
+    /** commons-math RandomGenerator backed by a swappable SplittableRandom. */
+    private static final class Generator extends AbstractRandomGenerator {
+        private SplittableRandom random = new SplittableRandom(StreamSeeds.DEFAULT_SEED);
+
+        void use(SplittableRandom r) {
+            this.random = r;
+            clear();
+        }
+
+        @Override
+        public void setSeed(long seed) {
+            use(new SplittableRandom(seed));
+        }
+
+        @Override
+        public double nextDouble() {
+            return random.nextDouble();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package sim.service;
+
+/**
+ * How an arriving passenger picks one of the lines open to them (ticket counters that accept
+ * their flight, or any checkpoint).
+ */
+public enum RoutingPolicy {
+
+    /** Exact join-shortest-queue: fewest live passengers, ties to the lowest index. O(log lines) per pick. */
+    JOIN_SHORTEST_QUEUE,
+
+    /** Look at two of the candidate lines (picked from the passenger id) and join the shorter. O(1) per pick. */
+    POWER_OF_TWO_CHOICES;
+
+    /** @param groups candidate line sets, each sorted ascending and non-empty */
+    LineRouter newRouter(PassengerLines lines, int[][] groups) {
+        return (this == POWER_OF_TWO_CHOICES)
+                ? new LineRouter.TwoChoice(lines, groups)
+                : new LineRouter.ShortestQueue(lines, groups);
+    }
+}
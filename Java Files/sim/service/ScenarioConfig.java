@@ -0,0 +1,485 @@
+package sim.service;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.CheckpointConfig;
+import sim.model.Flight;
+import sim.model.HoldRoomConfig;
+import sim.model.TicketCounterConfig;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Everything needed to build a SimulationEngine, in the exact
+ * "airport-config.properties" format written by MainFrame (File > Save Config...).
+ *
+ * Kept free of Swing so the same file can be loaded by the UI and by headless batch runs.
+ */
+public class ScenarioConfig {
+
+    // Hold-room delay is not part of the saved file; MainFrame falls back to this value too.
+    public static final int DEFAULT_HOLD_DELAY_MINUTES = 5;
+
+    private double percentInPerson = 0.4;
+    private int arrivalSpanMinutes = 120;
+    private int transitDelayMinutes = 2;
+    private int intervalMinutes = 1;
+    private int sqftPerPassenger = 15;
+
+    private List<Flight> flights = new ArrayList<>();
+    private List<TicketCounterConfig> counters = new ArrayList<>();
+    private List<CheckpointConfig> checkpoints = new ArrayList<>();
+    private List<HoldRoomConfig> holdRooms = new ArrayList<>();
+    private ArrivalCurveConfig arrivalCurve = ArrivalCurveConfig.legacyDefault();
+
+    // ==========================================================
+    // Load / save
+    // ==========================================================
+
+    public static ScenarioConfig load(File file) throws IOException {
+        Properties p = new Properties();
+        try (FileInputStream in = new FileInputStream(file)) {
+            p.load(in);
+        }
+        return fromProperties(p);
+    }
+
+    public void save(File file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            toProperties().store(out, "Airport UI Configuration");
+        }
+    }
+
+    public static ScenarioConfig fromProperties(Properties p) {
+        ScenarioConfig c = new ScenarioConfig();
+
+        c.percentInPerson = parseDouble(p, "global.percentInPerson", 0.4);
+        c.arrivalSpanMinutes = parseInt(p, "global.arrivalSpanMinutes", 120);
+        c.transitDelayMinutes = parseInt(p, "global.transitDelayMinutes", 2);
+        c.sqftPerPassenger = parseInt(p, "global.sqftPerPassenger", 15);
+        // interval is forced to 1 by GlobalInputPanel; the saved value is informational only
+        c.intervalMinutes = 1;
+
+        int flightCount = parseInt(p, "flights.count", 0);
+        for (int i = 0; i < flightCount; i++) {
+            String number = p.getProperty("flights." + i + ".number", Integer.toString(i + 1));
+            LocalTime dep = parseTime(p.getProperty("flights." + i + ".depTime", "00:00"));
+            int seats = parseInt(p, "flights." + i + ".seats", 180);
+            double fill = parseDouble(p, "flights." + i + ".fillPercent", 0.85);
+            Flight.ShapeType shape = parseShape(p.getProperty("flights." + i + ".shape", "CIRCLE"));
+            c.flights.add(new Flight(number, dep, seats, fill, shape));
+        }
+
+        Map<String, Flight> flightByNumber = new HashMap<>();
+        for (Flight f : c.flights) {
+            if (f.getFlightNumber() != null) {
+                flightByNumber.put(f.getFlightNumber().trim(), f);
+            }
+        }
+
+        int counterCount = parseInt(p, "counters.count", 0);
+        for (int i = 0; i < counterCount; i++) {
+            double ratePerMinute = parseDouble(p, "counters." + i + ".ratePerMinute", 1.0);
+            String allowed = p.getProperty("counters." + i + ".allowedFlights", "*");
+            TicketCounterConfig cfg = new TicketCounterConfig(i + 1);
+            cfg.setRate(ratePerMinute);
+            cfg.setAllowedFlights(parseFlightSet(allowed, flightByNumber));
+            c.counters.add(cfg);
+        }
+
+        int checkpointCount = parseInt(p, "checkpoints.count", 0);
+        for (int i = 0; i < checkpointCount; i++) {
+            CheckpointConfig cfg = new CheckpointConfig(i + 1);
+            cfg.setRatePerHour(parseDouble(p, "checkpoints." + i + ".ratePerHour", 0.0));
+            c.checkpoints.add(cfg);
+        }
+
+        int holdCount = parseInt(p, "holdRooms.count", 0);
+        for (int i = 0; i < holdCount; i++) {
+            int walkMin = parseInt(p, "holdRooms." + i + ".walkMinutes", 0);
+            int walkSec = parseInt(p, "holdRooms." + i + ".walkSeconds", 0);
+            HoldRoomConfig cfg = new HoldRoomConfig(i + 1, walkMin * 60 + walkSec);
+            String allowed = p.getProperty("holdRooms." + i + ".allowedFlights", "*");
+            if (!isAllMarker(allowed)) {
+                cfg.setAllowedFlightNumbers(parseStringSet(allowed));
+            }
+            c.holdRooms.add(cfg);
+        }
+
+        ArrivalCurveConfig curveCfg = ArrivalCurveConfig.legacyDefault();
+        curveCfg.setLegacyMode(parseBoolean(p, "arrivalCurve.legacyMode", true));
+        curveCfg.setPeakMinutesBeforeDeparture(
+                parseInt(p, "arrivalCurve.peakMinutesBeforeDeparture", curveCfg.getPeakMinutesBeforeDeparture()));
+        curveCfg.setLeftSigmaMinutes(
+                parseInt(p, "arrivalCurve.leftSigmaMinutes", curveCfg.getLeftSigmaMinutes()));
+        curveCfg.setRightSigmaMinutes(
+                parseInt(p, "arrivalCurve.rightSigmaMinutes", curveCfg.getRightSigmaMinutes()));
+        curveCfg.setLateClampEnabled(parseBoolean(p, "arrivalCurve.lateClampEnabled", curveCfg.isLateClampEnabled()));
+        curveCfg.setLateClampMinutesBeforeDeparture(
+                parseInt(p, "arrivalCurve.lateClampMinutesBeforeDeparture",
+                        curveCfg.getLateClampMinutesBeforeDeparture()));
+        curveCfg.setWindowStartMinutesBeforeDeparture(
+                parseInt(p, "arrivalCurve.windowStartMinutesBeforeDeparture",
+                        curveCfg.getWindowStartMinutesBeforeDeparture()));
+        curveCfg.setBoardingCloseMinutesBeforeDeparture(
+                parseInt(p, "arrivalCurve.boardingCloseMinutesBeforeDeparture",
+                        curveCfg.getBoardingCloseMinutesBeforeDeparture()));
+        curveCfg.validateAndClamp();
+        c.arrivalCurve = curveCfg;
+
+        return c;
+    }
+
+    public Properties toProperties() {
+        Properties p = new Properties();
+
+        p.setProperty("global.percentInPerson", Double.toString(percentInPerson));
+        p.setProperty("global.arrivalSpanMinutes", Integer.toString(arrivalSpanMinutes));
+        p.setProperty("global.transitDelayMinutes", Integer.toString(transitDelayMinutes));
+        p.setProperty("global.intervalMinutes", Integer.toString(intervalMinutes));
+        p.setProperty("global.sqftPerPassenger", Integer.toString(sqftPerPassenger));
+
+        p.setProperty("flights.count", Integer.toString(flights.size()));
+        for (int i = 0; i < flights.size(); i++) {
+            Flight f = flights.get(i);
+            p.setProperty("flights." + i + ".number", safeString(f.getFlightNumber()));
+            p.setProperty("flights." + i + ".depTime", f.getDepartureTime().toString());
+            p.setProperty("flights." + i + ".seats", Integer.toString(f.getSeats()));
+            p.setProperty("flights." + i + ".fillPercent", Double.toString(f.getFillPercent()));
+            p.setProperty("flights." + i + ".shape", f.getShape().name());
+        }
+
+        p.setProperty("counters.count", Integer.toString(counters.size()));
+        for (int i = 0; i < counters.size(); i++) {
+            TicketCounterConfig cfg = counters.get(i);
+            p.setProperty("counters." + i + ".ratePerMinute", Double.toString(cfg.getRate()));
+            p.setProperty("counters." + i + ".allowedFlights", encodeFlightSet(cfg.getAllowedFlights()));
+        }
+
+        p.setProperty("checkpoints.count", Integer.toString(checkpoints.size()));
+        for (int i = 0; i < checkpoints.size(); i++) {
+            p.setProperty("checkpoints." + i + ".ratePerHour", Double.toString(checkpoints.get(i).getRatePerHour()));
+        }
+
+        p.setProperty("holdRooms.count", Integer.toString(holdRooms.size()));
+        for (int i = 0; i < holdRooms.size(); i++) {
+            HoldRoomConfig cfg = holdRooms.get(i);
+            p.setProperty("holdRooms." + i + ".walkMinutes", Integer.toString(cfg.getWalkMinutes()));
+            p.setProperty("holdRooms." + i + ".walkSeconds", Integer.toString(cfg.getWalkSecondsPart()));
+            p.setProperty("holdRooms." + i + ".allowedFlights", encodeStringSet(cfg.getAllowedFlightNumbers()));
+        }
+
+        ArrivalCurveConfig curveCfg = arrivalCurve;
+        p.setProperty("arrivalCurve.legacyMode", Boolean.toString(curveCfg.isLegacyMode()));
+        p.setProperty("arrivalCurve.peakMinutesBeforeDeparture", Integer.toString(curveCfg.getPeakMinutesBeforeDeparture()));
+        p.setProperty("arrivalCurve.leftSigmaMinutes", Integer.toString(curveCfg.getLeftSigmaMinutes()));
+        p.setProperty("arrivalCurve.rightSigmaMinutes", Integer.toString(curveCfg.getRightSigmaMinutes()));
+        p.setProperty("arrivalCurve.lateClampEnabled", Boolean.toString(curveCfg.isLateClampEnabled()));
+        p.setProperty("arrivalCurve.lateClampMinutesBeforeDeparture",
+                Integer.toString(curveCfg.getLateClampMinutesBeforeDeparture()));
+        p.setProperty("arrivalCurve.windowStartMinutesBeforeDeparture",
+                Integer.toString(curveCfg.getWindowStartMinutesBeforeDeparture()));
+        p.setProperty("arrivalCurve.boardingCloseMinutesBeforeDeparture",
+                Integer.toString(curveCfg.getBoardingCloseMinutesBeforeDeparture()));
+
+        return p;
+    }
+
+    /**
+     * The config an existing engine was built from (globals, flights, counters, checkpoints,
+     * hold rooms, arrival curve), for running more of the same headless.
+     * Config objects are shared with the engine, like setCounters() etc.; copy() before editing.
+     */
+    public static ScenarioConfig fromEngine(SimulationEngine engine) {
+        ScenarioConfig c = new ScenarioConfig();
+        c.percentInPerson = engine.getPercentInPerson();
+        c.arrivalSpanMinutes = engine.getArrivalSpan();
+        c.transitDelayMinutes = engine.getTransitDelayMinutes();
+        c.intervalMinutes = engine.getInterval();
+        c.sqftPerPassenger = engine.getSqftPerPassenger();
+        c.setFlights(engine.getFlights());
+        c.setCounters(engine.getCounterConfigs());
+        c.setCheckpoints(engine.getCheckpointConfigs());
+        c.setHoldRooms(engine.getHoldRoomConfigs());
+        c.arrivalCurve = engine.getArrivalCurveConfigCopy();
+        return c;
+    }
+
+    /**
+     * Copy that can be mutated independently (rates, curve, globals).
+     * Flight objects are shared: counters reference flights by identity and the engine only reads them.
+     */
+    public ScenarioConfig copy() {
+        ScenarioConfig c = new ScenarioConfig();
+        c.percentInPerson = percentInPerson;
+        c.arrivalSpanMinutes = arrivalSpanMinutes;
+        c.transitDelayMinutes = transitDelayMinutes;
+        c.intervalMinutes = intervalMinutes;
+        c.sqftPerPassenger = sqftPerPassenger;
+
+        c.flights = new ArrayList<>(flights);
+        for (TicketCounterConfig src : counters) {
+            c.counters.add(new TicketCounterConfig(src.getId(), src.getRate(), src.getAllowedFlights()));
+        }
+        for (CheckpointConfig src : checkpoints) {
+            CheckpointConfig cfg = new CheckpointConfig(src.getId());
+            cfg.setRatePerHour(src.getRatePerHour());
+            c.checkpoints.add(cfg);
+        }
+        for (HoldRoomConfig src : holdRooms) {
+            // the engine treats a null room as one that accepts no flight; keep its slot
+            if (src == null) {
+                c.holdRooms.add(null);
+                continue;
+            }
+            HoldRoomConfig cfg = new HoldRoomConfig(src.getId(), src.getWalkSecondsFromCheckpoint());
+            cfg.setAllowedFlightNumbers(src.getAllowedFlightNumbers());
+            c.holdRooms.add(cfg);
+        }
+        c.arrivalCurve = copyCurve(arrivalCurve);
+        return c;
+    }
+
+    // ==========================================================
+    // Engine construction (same rules as MainFrame.onStartSimulation)
+    // ==========================================================
+
+    /**
+     * Legacy mode keeps the 2h default window unless the base span is already larger;
+     * edited mode may start earlier via windowStart (up to 240).
+     */
+    public int getEffectiveArrivalSpanMinutes() {
+        ArrivalCurveConfig curveCfg = getArrivalCurve();
+        int curveStart = curveCfg.isLegacyMode()
+                ? ArrivalCurveConfig.DEFAULT_WINDOW_START
+                : curveCfg.getWindowStartMinutesBeforeDeparture();
+        return Math.max(arrivalSpanMinutes, curveStart);
+    }
+
+    public SimulationEngine createEngine() {
+        return createEngine(DEFAULT_HOLD_DELAY_MINUTES);
+    }
+
+    public SimulationEngine createEngine(int holdDelayMinutes) {
+        return createEngine(holdDelayMinutes, null);
+    }
+
+    /** Compiled flights + effective arrival span, for engines of this config to share. */
+    public CompiledSchedule compileSchedule() {
+        return CompiledSchedule.compile(flights, getEffectiveArrivalSpanMinutes());
+    }
+
+    /**
+     * Engine on a shared compiled schedule, if it was compiled from this config's flights and span
+     * (a copy() shares flights); otherwise this config's own schedule is compiled.
+     */
+    public SimulationEngine createEngine(int holdDelayMinutes, CompiledSchedule shared) {
+        CompiledSchedule schedule = (shared != null && shared.matches(flights, getEffectiveArrivalSpanMinutes()))
+                ? shared
+                : compileSchedule();
+        SimulationEngine engine = new SimulationEngine(
+                percentInPerson,
+                counters,
+                checkpoints,
+                schedule,
+                intervalMinutes,
+                transitDelayMinutes,
+                holdDelayMinutes,
+                holdRooms
+        );
+        engine.setArrivalCurveConfig(getArrivalCurve());
+        engine.setSqftPerPassenger(sqftPerPassenger);
+        return engine;
+    }
+
+    // ==========================================================
+    // Getters / setters
+    // ==========================================================
+
+    public double getPercentInPerson() { return percentInPerson; }
+    public void setPercentInPerson(double percentInPerson) { this.percentInPerson = percentInPerson; }
+
+    public int getArrivalSpanMinutes() { return arrivalSpanMinutes; }
+    public void setArrivalSpanMinutes(int arrivalSpanMinutes) { this.arrivalSpanMinutes = arrivalSpanMinutes; }
+
+    public int getTransitDelayMinutes() { return transitDelayMinutes; }
+    public void setTransitDelayMinutes(int transitDelayMinutes) { this.transitDelayMinutes = transitDelayMinutes; }
+
+    public int getIntervalMinutes() { return intervalMinutes; }
+    public void setIntervalMinutes(int intervalMinutes) { this.intervalMinutes = intervalMinutes; }
+
+    public int getSqftPerPassenger() { return sqftPerPassenger; }
+    public void setSqftPerPassenger(int sqftPerPassenger) { this.sqftPerPassenger = sqftPerPassenger; }
+
+    public List<Flight> getFlights() { return flights; }
+    public void setFlights(List<Flight> flights) {
+        this.flights = (flights == null) ? new ArrayList<>() : new ArrayList<>(flights);
+    }
+
+    public List<TicketCounterConfig> getCounters() { return counters; }
+    public void setCounters(List<TicketCounterConfig> counters) {
+        this.counters = (counters == null) ? new ArrayList<>() : new ArrayList<>(counters);
+    }
+
+    public List<CheckpointConfig> getCheckpoints() { return checkpoints; }
+    public void setCheckpoints(List<CheckpointConfig> checkpoints) {
+        this.checkpoints = (checkpoints == null) ? new ArrayList<>() : new ArrayList<>(checkpoints);
+    }
+
+    public List<HoldRoomConfig> getHoldRooms() { return holdRooms; }
+    public void setHoldRooms(List<HoldRoomConfig> holdRooms) {
+        this.holdRooms = (holdRooms == null) ? new ArrayList<>() : new ArrayList<>(holdRooms);
+    }
+
+    /** Returns a validated copy; the stored config is never handed out for mutation. */
+    public ArrivalCurveConfig getArrivalCurve() {
+        ArrivalCurveConfig c = copyCurve(arrivalCurve);
+        c.validateAndClamp();
+        return c;
+    }
+
+    public void setArrivalCurve(ArrivalCurveConfig arrivalCurve) {
+        this.arrivalCurve = copyCurve(arrivalCurve);
+    }
+
+    private static ArrivalCurveConfig copyCurve(ArrivalCurveConfig src) {
+        ArrivalCurveConfig c = ArrivalCurveConfig.legacyDefault();
+        if (src == null) return c;
+        c.setLegacyMode(src.isLegacyMode());
+        c.setPeakMinutesBeforeDeparture(src.getPeakMinutesBeforeDeparture());
+        c.setLeftSigmaMinutes(src.getLeftSigmaMinutes());
+        c.setRightSigmaMinutes(src.getRightSigmaMinutes());
+        c.setLateClampEnabled(src.isLateClampEnabled());
+        c.setLateClampMinutesBeforeDeparture(src.getLateClampMinutesBeforeDeparture());
+        c.setWindowStartMinutesBeforeDeparture(src.getWindowStartMinutesBeforeDeparture());
+        c.setBoardingCloseMinutesBeforeDeparture(src.getBoardingCloseMinutesBeforeDeparture());
+        return c;
+    }
+
+    // ==========================================================
+    // Encoding helpers
+    // ==========================================================
+
+    private static String safeString(String v) {
+        return v == null ? "" : v;
+    }
+
+    private static String encodeFlightSet(Set<Flight> flights) {
+        if (flights == null || flights.isEmpty()) return "*";
+        StringBuilder sb = new StringBuilder();
+        for (Flight f : flights) {
+            if (f == null || f.getFlightNumber() == null) continue;
+            if (sb.length() > 0) sb.append(",");
+            sb.append(f.getFlightNumber().trim());
+        }
+        return sb.length() == 0 ? "*" : sb.toString();
+    }
+
+    private static String encodeStringSet(Set<String> values) {
+        if (values == null || values.isEmpty()) return "*";
+        StringBuilder sb = new StringBuilder();
+        for (String v : values) {
+            if (v == null) continue;
+            String trimmed = v.trim();
+            if (trimmed.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(",");
+            sb.append(trimmed);
+        }
+        return sb.length() == 0 ? "*" : sb.toString();
+    }
+
+    private static boolean isAllMarker(String v) {
+        if (v == null) return true;
+        String t = v.trim();
+        return t.isEmpty() || "*".equals(t) || "ALL".equalsIgnoreCase(t);
+    }
+
+    private static Set<Flight> parseFlightSet(String value, Map<String, Flight> flightByNumber) {
+        Set<Flight> out = new HashSet<>();
+        if (isAllMarker(value)) return out;
+        for (String part : value.split(",")) {
+            String key = part.trim();
+            if (key.isEmpty()) continue;
+            Flight f = flightByNumber.get(key);
+            if (f != null) out.add(f);
+        }
+        return out;
+    }
+
+    private static Set<String> parseStringSet(String value) {
+        Set<String> out = new HashSet<>();
+        if (isAllMarker(value)) return out;
+        for (String part : value.split(",")) {
+            String key = part.trim();
+            if (!key.isEmpty()) out.add(key);
+        }
+        return out;
+    }
+
+    private static int parseInt(Properties p, String key, int fallback) {
+        String v = p.getProperty(key);
+        if (v == null) return fallback;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    private static double parseDouble(Properties p, String key, double fallback) {
+        String v = p.getProperty(key);
+        if (v == null) return fallback;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    private static boolean parseBoolean(Properties p, String key, boolean fallback) {
+        String v = p.getProperty(key);
+        if (v == null) return fallback;
+        return Boolean.parseBoolean(v.trim());
+    }
+
+    private static LocalTime parseTime(String value) {
+        if (value == null) return LocalTime.MIDNIGHT;
+        String v = value.trim();
+        if (v.isEmpty()) return LocalTime.MIDNIGHT;
+        try {
+            return LocalTime.parse(v);
+        } catch (Exception ignored) {
+        }
+        if (v.contains(".")) {
+            String[] parts = v.split("\\.");
+            if (parts.length == 2) {
+                try {
+                    int h = Integer.parseInt(parts[0]);
+                    int m = Integer.parseInt(parts[1]);
+                    return LocalTime.of(h, m);
+                } catch (Exception ignored) {
+                }
+            }
+        }
+        return LocalTime.MIDNIGHT;
+    }
+
+    private static Flight.ShapeType parseShape(String value) {
+        if (value == null) return Flight.ShapeType.CIRCLE;
+        try {
+            return Flight.ShapeType.valueOf(value.trim());
+        } catch (Exception e) {
+            return Flight.ShapeType.CIRCLE;
+        }
+    }
+}
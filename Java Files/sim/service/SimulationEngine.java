@@ -1,18 +1,18 @@
 package sim.service;
 
 import sim.model.ArrivalCurveConfig;
+import sim.model.CheckpointConfig;
 import sim.model.Flight;
+import sim.model.HoldRoomConfig;
 import sim.model.Passenger;
-import sim.service.arrivals.ArrivalCurveGenerator;
-import sim.service.arrivals.EditedSplitGaussianArrivalGenerator;
-import sim.ui.CheckpointConfig;
-import sim.ui.GridRenderer;
-import sim.ui.TicketCounterConfig;
-import sim.ui.HoldRoomConfig;
-
-import java.time.Duration;
+import sim.model.TicketCounterConfig;
+import sim.service.arrivals.ArrivalCurveCache;
+
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 public class SimulationEngine {
     private final List<Flight> flights;
@@ -22,32 +22,54 @@ public class SimulationEngine {
     // ============================
     private final List<HoldRoomConfig> holdRoomConfigs;
 
-    // Precomputed: exactly ONE chosen physical room per flight
-    private final Map<Flight, Integer> chosenHoldRoomIndexByFlight = new HashMap<>();
+    // Dense flight ids, minute offsets and the active-flight index; may be shared with other engines
+    private final CompiledSchedule schedule;
+
+    // Precomputed: exactly ONE chosen physical room per flight (index = flight id)
+    private final int[] chosenRoomByFlight;
 
-    // Existing held-ups series
-    private final Map<Integer, Integer> heldUpsByInterval = new LinkedHashMap<>();
+    // Existing held-ups series (index = interval; written from interval 1 on, index 0 is a placeholder)
+    private final IntTimeSeries heldUpsByInterval = new IntTimeSeries();
+    // Same indexing: the most held up at any tick boundary of the interval (sub-minute mode shows peaks)
+    private final IntTimeSeries peakHeldUpsByInterval = new IntTimeSeries();
 
     // NEW: queue totals series (waiting lines only)
-    private final Map<Integer, Integer> ticketQueuedByInterval = new LinkedHashMap<>();
-    private final Map<Integer, Integer> checkpointQueuedByInterval = new LinkedHashMap<>();
-    private final Map<Integer, Integer> holdRoomTotalByInterval = new LinkedHashMap<>();
+    private final IntTimeSeries ticketQueuedByInterval = new IntTimeSeries();
+    private final IntTimeSeries checkpointQueuedByInterval = new IntTimeSeries();
+    private final IntTimeSeries holdRoomTotalByInterval = new IntTimeSeries();
+
+    // After a rewind the series still hold the frontier values; only entries up to currentInterval are visible.
+    private final IntTimeSeries.View heldUpsView = heldUpsByInterval.view(() -> this.currentInterval + 1);
+    private final IntTimeSeries.View peakHeldUpsView = peakHeldUpsByInterval.view(() -> this.currentInterval + 1);
+    private final IntTimeSeries.View ticketQueuedView = ticketQueuedByInterval.view(() -> this.currentInterval + 1);
+    private final IntTimeSeries.View checkpointQueuedView = checkpointQueuedByInterval.view(() -> this.currentInterval + 1);
+    private final IntTimeSeries.View holdRoomTotalView = holdRoomTotalByInterval.view(() -> this.currentInterval + 1);
+
+    // Passengers still in a hold room when their flight departed (index = flight id; written once,
+    // at departure; NOT_DEPARTED before)
+    private final int[] boardedByFlight;
+    private static final int NOT_DEPARTED = -1;
 
     // ============================
     // Arrival curve support (Step 6)
     // ============================
     private ArrivalCurveConfig arrivalCurveConfig = ArrivalCurveConfig.legacyDefault();
 
-    // Legacy minute generator = EXACT existing logic (your current ArrivalGenerator)
-    private final ArrivalGenerator legacyMinuteGenerator;
+    // Used by DataTableModel/DataTableFrame. Arrays come from ArrivalCurveCache and are shared: read-only.
+    private final Map<Flight, int[]> minuteArrivalsMap = new HashMap<>();
 
-    // Edited curve generator (split Gaussian)
-    private final ArrivalCurveGenerator editedMinuteGenerator = new EditedSplitGaussianArrivalGenerator();
+    // Cache key each flight's arrivals were built from (index = flight); unchanged flights are skipped on rebuild
+    private ArrivalCurveCache.Key[] arrivalKeyByFlight;
 
-    // Used by DataTableModel/DataTableFrame
-    private final Map<Flight, int[]> minuteArrivalsMap = new HashMap<>();
+    // Below this many flights a rebuild is cheaper on the calling thread than split across the pool
+    private static final int PARALLEL_ARRIVALS_MIN_FLIGHTS = 64;
 
-    private final Map<Flight, Integer> holdRoomCellSize;
+    // Arrival timeline, rebuilt with the arrivals map: each flight's array by flight id (it starts at
+    // schedule.arrivalStartMinute), all flights' arrivals per minute since globalStart, and its prefix
+    // sums (cumulativeArrivals[m] = arrivals in minutes [0, m)). Makes every arrivals query O(1).
+    private int[][] minuteArrivalsByFlight = new int[0][];
+    private int[] totalArrivalsByMinute = new int[0];
+    private int[] cumulativeArrivals = new int[1];
 
     private final int arrivalSpanMinutes;
     private final int intervalMinutes;
@@ -58,9 +80,32 @@ public class SimulationEngine {
     // simulation clock (minutes since globalStart)
     private int currentInterval;
 
-    private final double percentInPerson;
+    private double percentInPerson;
     private int sqftPerPassenger = 15;
 
+    // false = batch/metrics-only run: no per-interval history lists and no rewind snapshots
+    private boolean recordingEnabled = true;
+
+    // true = next-event time advance: each minute only visits the flights with an event in it,
+    // and the clock runs straight through minutes with nothing queued, in service or due
+    private boolean eventDriven = false;
+    // built on first use; dropped whenever the arrivals map is rebuilt
+    private EventCalendar eventCalendar;
+    // event-driven: minutes before this one need no simulating, only recording (0 = unknown)
+    private int quietUntil;
+
+    // sub-minute time base: each minute runs as ticksPerMinute service/transfer ticks
+    // (the transfer wheels are keyed by absolute tick = minute * ticksPerMinute + t)
+    private int tickSeconds = 60;
+    private int ticksPerMinute = 1;
+    // flights with arrivals in the current minute and how many of each kind (spread over its ticks)
+    private final int[] arrivingFlights;
+    private final int[] arrivingInPerson;
+    private final int[] arrivingOnline;
+    private int arrivingCount;
+    // most held up at a tick boundary of the current minute
+    private int tickPeak;
+
     // Ticket counters:
     // IMPORTANT: TicketCounterConfig.getRate() is stored as passengers/minute (your table model converts hr<->min)
     private final List<TicketCounterConfig> counterConfigs;
@@ -75,12 +120,36 @@ public class SimulationEngine {
 
     private final LocalTime globalStart;
     private final List<Flight> justClosedFlights = new ArrayList<>();
-    private final Set<Passenger> ticketCompletedVisible = new HashSet<>();
 
-    private final List<LinkedList<Passenger>> ticketLines;
-    private final List<LinkedList<Passenger>> checkpointLines;
-    private final List<LinkedList<Passenger>> completedTicketLines;
-    private final List<LinkedList<Passenger>> completedCheckpointLines;
+    // Every passenger of the run lives in the store as an int id; lines, pending buckets and
+    // histories only hold ids. Passenger objects are materialized when the UI reads them.
+    private final PassengerStore store;
+
+    // every line is an id ring buffer: O(1) enqueue/dequeue and size, FIFO iteration order.
+    // Closed flights are deleted lazily (see PassengerLines), so boarding close never walks a queue.
+    private final PassengerLines ticketLines;
+    private final PassengerLines checkpointLines;
+    private final PassengerLines completedTicketLines;
+    private final PassengerLines completedCheckpointLines;
+    // the completedTicketLines entries that have not yet moved on to a checkpoint (what the UI draws)
+    private final PassengerLines visibleCompletedTicketLines;
+
+    private final IntPredicate isMissed;
+
+    // which counters / hold rooms accept which flight (compiled once from the configs)
+    private final EligibilityMatrix counterEligibility;
+    private final EligibilityMatrix holdRoomEligibility;
+
+    // Routing: ticketGroups[g] = counters one flight may join (ticketGroupByFlight[fi] = g; flights with
+    // the same eligible counters share a group). Every checkpoint is open to everyone (group 0).
+    private RoutingPolicy routingPolicy = RoutingPolicy.JOIN_SHORTEST_QUEUE;
+    private final int[][] ticketGroups;
+    private final int[] ticketGroupByFlight;
+    private LineRouter ticketRouter;
+    private LineRouter checkpointRouter;
+    // one flight's arrivals of one kind in one minute (ids, then their routed lines)
+    private int[] cohortIds = new int[16];
+    private int[] cohortLines = new int[16];
 
     // per-flight counts (kept)
     private final List<Map<Flight, Integer>> historyArrivals = new ArrayList<>();
@@ -94,76 +163,127 @@ public class SimulationEngine {
     private final List<List<List<Passenger>>> historyFromTicketArrivals = new ArrayList<>();
 
     // the hold-room queues (PHYSICAL ROOMS)
-    private final List<LinkedList<Passenger>> holdRoomLines;
+    private final PassengerLines holdRoomLines;
 
     // histories for the UI panels
-    private final List<List<List<Passenger>>> historyServedTicket = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyQueuedTicket = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyServedCheckpoint = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyQueuedCheckpoint = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyHoldRooms = new ArrayList<>();
-
-    private final Random rand = new Random();
+    // (enter/exit logs per line family; "who was in line i at step t" is answered on demand)
+    private final PassengerTimeline servedTicketTimeline;
+    private final PassengerTimeline queuedTicketTimeline;
+    private final PassengerTimeline servedCheckpointTimeline;
+    private final PassengerTimeline queuedCheckpointTimeline;
+    private final PassengerTimeline holdRoomTimeline;
+
+    private final List<List<List<Passenger>>> historyServedTicket;
+    private final List<List<List<Passenger>>> historyQueuedTicket;
+    private final List<List<List<Passenger>>> historyServedCheckpoint;
+    private final List<List<List<Passenger>>> historyQueuedCheckpoint;
+    private final List<List<List<Passenger>>> historyHoldRooms;
+
+    // null = deterministic (fractional service rates, arrivals exactly as the curve says)
+    private StochasticModel stochasticModel;
+    // seeds of every random draw of the run: the model's, or the default seed (hold-room ties only)
+    private StreamSeeds seeds = new StreamSeeds(StreamSeeds.DEFAULT_SEED);
+    // the stochastic draws; null while deterministic, which keeps commons-math off the classpath
+    private RandomStreams streams;
+    private RandomStreams.ServiceSampler counterSampler;
+    private RandomStreams.ServiceSampler checkpointSampler;
 
     private double[] counterProgress;
     private double[] checkpointProgress;
-    private final Map<Integer, List<Passenger>> pendingToCP;
-    private final Map<Integer, List<Passenger>> pendingToHold;
-    private Passenger[] counterServing;
-    private Passenger[] checkpointServing;
+    // the tick each accumulator has been advanced to; event-driven runs leave idle servers behind
+    // and catch them up (same additions, same rounding) when they next serve
+    private int[] counterProgressTick;
+    private int[] checkpointProgressTick;
+    private final TransferWheel pendingToCP;
+    private final TransferWheel pendingToHold;
+    // stochastic mode: passenger id being served, or NONE, and when that service ends
+    // (absolute, in intervals; a free server keeps the end of its last service)
+    private int[] counterServing;
+    private int[] checkpointServing;
+    private double[] counterBusyUntil;
+    private double[] checkpointBusyUntil;
+
+    private static final int NONE = -1;
 
     // ============================
     // PHASES 0-3: REWIND SUPPORT
     // ============================
 
-    private final List<EngineSnapshot> stateSnapshots = new ArrayList<>();
+    /** Default spacing (in intervals) between full rewind keyframes. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 16;
+
+    // Full state is only kept every keyframeInterval intervals; anything in between is rebuilt
+    // by replaying simulateInterval() from the nearest earlier keyframe.
+    private int keyframeInterval = DEFAULT_KEYFRAME_INTERVAL;
+    // rewind leaves passenger fields as of maxComputedInterval (like the old full snapshots) unless off
+    private boolean keepFrontierFields = true;
+    private final NavigableMap<Integer, EngineSnapshot> keyframes = new TreeMap<>();
     private int maxComputedInterval = 0;
 
+    // ids are handed out in creation order, so the passengers created while simulating minute i
+    // are exactly the ids firstArrivalIdByInterval[i] .. firstArrivalIdByInterval[i + 1] - 1
+    private final IntTimeSeries firstArrivalIdByInterval = new IntTimeSeries();
+
+    private boolean replaying = false;
+    private int replayNextId;
+
+    // the last rewind's target and, if it put the frontier's fields back, the fields its replay had
+    // computed (ids + store state): a branch from there restores them rather than replaying again
+    private int rewoundInterval = -1;
+    private int[] rewoundIds;
+    private int[] rewoundStates;
+
     private static final class EngineSnapshot {
         final int currentInterval;
 
-        final List<LinkedList<Passenger>> ticketLines;
-        final List<LinkedList<Passenger>> completedTicketLines;
-        final List<LinkedList<Passenger>> checkpointLines;
-        final List<LinkedList<Passenger>> completedCheckpointLines;
-        final List<LinkedList<Passenger>> holdRoomLines;
+        final int[][] ticketLines;
+        final int[][] completedTicketLines;
+        final int[][] checkpointLines;
+        final int[][] completedCheckpointLines;
+        final int[][] holdRoomLines;
 
         final double[] counterProgress;
         final double[] checkpointProgress;
+        final int[] counterProgressTick;
+        final int[] checkpointProgressTick;
 
-        final Map<Integer, List<Passenger>> pendingToCP;
-        final Map<Integer, List<Passenger>> pendingToHold;
+        final TransferWheel.Snapshot pendingToCP;
+        final TransferWheel.Snapshot pendingToHold;
 
-        final Passenger[] counterServing;
-        final Passenger[] checkpointServing;
+        final int[] counterServing;
+        final int[] checkpointServing;
+        final double[] counterBusyUntil;
+        final double[] checkpointBusyUntil;
 
-        final Set<Passenger> ticketCompletedVisible;
+        final int[][] visibleCompletedTicketLines;
         final List<Flight> justClosedFlights;
 
-        final LinkedHashMap<Integer, Integer> heldUpsByInterval;
-        final LinkedHashMap<Integer, Integer> ticketQueuedByInterval;
-        final LinkedHashMap<Integer, Integer> checkpointQueuedByInterval;
-        final LinkedHashMap<Integer, Integer> holdRoomTotalByInterval;
+        // mutable passenger fields as they were at this interval, for everyone still in the airport
+        // (PassengerStore.STATE_INTS ints per id)
+        final int[] passengers;
+        final int[] passengerStates;
 
         EngineSnapshot(
                 int currentInterval,
-                List<LinkedList<Passenger>> ticketLines,
-                List<LinkedList<Passenger>> completedTicketLines,
-                List<LinkedList<Passenger>> checkpointLines,
-                List<LinkedList<Passenger>> completedCheckpointLines,
-                List<LinkedList<Passenger>> holdRoomLines,
+                int[][] ticketLines,
+                int[][] completedTicketLines,
+                int[][] checkpointLines,
+                int[][] completedCheckpointLines,
+                int[][] holdRoomLines,
                 double[] counterProgress,
                 double[] checkpointProgress,
-                Map<Integer, List<Passenger>> pendingToCP,
-                Map<Integer, List<Passenger>> pendingToHold,
-                Passenger[] counterServing,
-                Passenger[] checkpointServing,
-                Set<Passenger> ticketCompletedVisible,
+                int[] counterProgressTick,
+                int[] checkpointProgressTick,
+                TransferWheel.Snapshot pendingToCP,
+                TransferWheel.Snapshot pendingToHold,
+                int[] counterServing,
+                int[] checkpointServing,
+                double[] counterBusyUntil,
+                double[] checkpointBusyUntil,
+                int[][] visibleCompletedTicketLines,
                 List<Flight> justClosedFlights,
-                LinkedHashMap<Integer, Integer> heldUpsByInterval,
-                LinkedHashMap<Integer, Integer> ticketQueuedByInterval,
-                LinkedHashMap<Integer, Integer> checkpointQueuedByInterval,
-                LinkedHashMap<Integer, Integer> holdRoomTotalByInterval
+                int[] passengers,
+                int[] passengerStates
         ) {
             this.currentInterval = currentInterval;
             this.ticketLines = ticketLines;
@@ -174,20 +294,22 @@ public class SimulationEngine {
 
             this.counterProgress = counterProgress;
             this.checkpointProgress = checkpointProgress;
+            this.counterProgressTick = counterProgressTick;
+            this.checkpointProgressTick = checkpointProgressTick;
 
             this.pendingToCP = pendingToCP;
             this.pendingToHold = pendingToHold;
 
             this.counterServing = counterServing;
             this.checkpointServing = checkpointServing;
+            this.counterBusyUntil = counterBusyUntil;
+            this.checkpointBusyUntil = checkpointBusyUntil;
 
-            this.ticketCompletedVisible = ticketCompletedVisible;
+            this.visibleCompletedTicketLines = visibleCompletedTicketLines;
             this.justClosedFlights = justClosedFlights;
 
-            this.heldUpsByInterval = heldUpsByInterval;
-            this.ticketQueuedByInterval = ticketQueuedByInterval;
-            this.checkpointQueuedByInterval = checkpointQueuedByInterval;
-            this.holdRoomTotalByInterval = holdRoomTotalByInterval;
+            this.passengers = passengers;
+            this.passengerStates = passengerStates;
         }
     }
 
@@ -236,10 +358,39 @@ public class SimulationEngine {
                             int holdDelayMinutes,
                             List<Flight> flights,
                             List<HoldRoomConfig> holdRoomConfigs) {
+        this(percentInPerson, counterConfigs, checkpointConfigs,
+                CompiledSchedule.compile(flights, arrivalSpanMinutes),
+                (flights == null) ? new ArrayList<>() : flights,
+                intervalMinutes, transitDelayMinutes, holdDelayMinutes, holdRoomConfigs);
+    }
+
+    /** Same, on an already compiled schedule (flights + arrival span), e.g. one shared by a sweep's engines. */
+    public SimulationEngine(double percentInPerson,
+                            List<TicketCounterConfig> counterConfigs,
+                            List<CheckpointConfig> checkpointConfigs,
+                            CompiledSchedule schedule,
+                            int intervalMinutes,
+                            int transitDelayMinutes,
+                            int holdDelayMinutes,
+                            List<HoldRoomConfig> holdRoomConfigs) {
+        this(percentInPerson, counterConfigs, checkpointConfigs, schedule, schedule.getFlights(),
+                intervalMinutes, transitDelayMinutes, holdDelayMinutes, holdRoomConfigs);
+    }
+
+    private SimulationEngine(double percentInPerson,
+                             List<TicketCounterConfig> counterConfigs,
+                             List<CheckpointConfig> checkpointConfigs,
+                             CompiledSchedule schedule,
+                             List<Flight> flights,
+                             int intervalMinutes,
+                             int transitDelayMinutes,
+                             int holdDelayMinutes,
+                             List<HoldRoomConfig> holdRoomConfigs) {
 
         this.percentInPerson = percentInPerson;
 
-        this.flights = (flights == null) ? new ArrayList<>() : flights;
+        this.schedule = schedule;
+        this.flights = flights;
 
         this.counterConfigs = (counterConfigs == null) ? new ArrayList<>() : counterConfigs;
 
@@ -257,7 +408,7 @@ public class SimulationEngine {
                 ? 0.0
                 : this.checkpointConfigs.get(0).getRatePerHour();
 
-        this.arrivalSpanMinutes = arrivalSpanMinutes;
+        this.arrivalSpanMinutes = schedule.getArrivalSpanMinutes();
         this.intervalMinutes = intervalMinutes;
         this.transitDelayMinutes = transitDelayMinutes;
         this.holdDelayMinutes = holdDelayMinutes;
@@ -275,72 +426,117 @@ public class SimulationEngine {
             this.holdRoomConfigs.add(cfg);
         }
 
-        // compute global start time based on earliest departure
-        LocalTime firstDep = this.flights.stream()
-                .map(Flight::getDepartureTime)
-                .min(LocalTime::compareTo)
-                .orElse(LocalTime.MIDNIGHT);
-        this.globalStart = firstDep.minusMinutes(arrivalSpanMinutes);
-
-        long maxDeparture = this.flights.stream()
-                .mapToLong(f -> Duration.between(globalStart, f.getDepartureTime()).toMinutes())
-                .max().orElse(0);
-        this.totalIntervals = (int) maxDeparture + 1;
-        // Step 6: legacy generator is your existing ArrivalGenerator
-        this.legacyMinuteGenerator = new ArrivalGenerator(arrivalSpanMinutes, 1);
+        // global start (earliest departure - span) and the day's length come with the schedule
+        this.globalStart = schedule.getGlobalStart();
+        this.totalIntervals = schedule.getTotalIntervals();
+
+        int flightCount = schedule.getFlightCount();
+        this.chosenRoomByFlight = new int[flightCount];
+        this.arrivingFlights = new int[flightCount];
+        this.arrivingInPerson = new int[flightCount];
+        this.arrivingOnline = new int[flightCount];
+        this.boardedByFlight = new int[flightCount];
+        Arrays.fill(boardedByFlight, NOT_DEPARTED);
+        int[] closeEpochs = new int[flightCount];
+        int[] departureEpochs = new int[flightCount];
+        for (int i = 0; i < flightCount; i++) {
+            // a close before minute 0 is never simulated, so that flight never closes
+            closeEpochs[i] = (schedule.closeMinute(i) >= 0) ? schedule.closeMinute(i) : PassengerStore.NEVER;
+            departureEpochs[i] = schedule.departureMinute(i);
+        }
+        this.store = new PassengerStore(this.flights, closeEpochs, departureEpochs);
+        this.isMissed = store::isMissed;
         // Step 6: build arrivals map using legacy defaults (behavior unchanged)
         setArrivalCurveConfig(ArrivalCurveConfig.legacyDefault());
 
+        counterEligibility = EligibilityMatrix.compile(this.flights, this.counterConfigs, TicketCounterConfig::accepts);
+        holdRoomEligibility = EligibilityMatrix.compile(this.flights, this.holdRoomConfigs, HoldRoomConfig::accepts);
         computeChosenHoldRooms();
 
-        holdRoomCellSize = new HashMap<>();
-        for (Flight f : this.flights) {
-            int total = (int) Math.round(f.getSeats() * f.getFillPercent());
-            int bestCell = GridRenderer.MIN_CELL_SIZE;
-            for (int rows = 1; rows <= Math.max(1, total); rows++) {
-                int cols = (total + rows - 1) / rows;
-                int cellByRows = GridRenderer.HOLD_BOX_SIZE / rows;
-                int cellByCols = GridRenderer.HOLD_BOX_SIZE / cols;
-                int cell = Math.min(cellByRows, cellByCols);
-                bestCell = Math.max(bestCell, cell);
-            }
-            holdRoomCellSize.put(f, bestCell);
-        }
-
         this.currentInterval = 0;
 
-        // ticket lines
-        ticketLines = new ArrayList<>();
-        completedTicketLines = new ArrayList<>();
-        for (int i = 0; i < this.counterConfigs.size(); i++) {
-            ticketLines.add(new LinkedList<>());
-            completedTicketLines.add(new LinkedList<>());
-        }
-
-        // checkpoint lines
-        checkpointLines = new ArrayList<>();
-        completedCheckpointLines = new ArrayList<>();
-        for (int i = 0; i < this.numCheckpoints; i++) {
-            checkpointLines.add(new LinkedList<>());
-            completedCheckpointLines.add(new LinkedList<>());
-        }
-
-        // hold-room lines (PHYSICAL rooms)
-        holdRoomLines = new ArrayList<>();
-        for (int i = 0; i < this.holdRoomConfigs.size(); i++) {
-            holdRoomLines.add(new LinkedList<>());
-        }
+        int numFlights = this.flights.size();
+        ticketLines = new PassengerLines(this.counterConfigs.size(), numFlights, store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        completedTicketLines = new PassengerLines(this.counterConfigs.size(), numFlights, store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        checkpointLines = new PassengerLines(this.numCheckpoints, numFlights, store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        // these two are left from the middle (moving on to a hold room / a checkpoint): removal goes through handles
+        completedCheckpointLines = new PassengerLines(this.numCheckpoints, numFlights, store, PassengerLines.ClearedBy.BOARDING_CLOSE, true);
+        visibleCompletedTicketLines = new PassengerLines(this.counterConfigs.size(), numFlights, store, PassengerLines.ClearedBy.BOARDING_CLOSE, true);
+        // hold-room lines (PHYSICAL rooms); emptied at departure, never by close
+        holdRoomLines = new PassengerLines(this.holdRoomConfigs.size(), numFlights, store, PassengerLines.ClearedBy.DEPARTURE);
+
+        servedTicketTimeline = new PassengerTimeline(completedTicketLines.lineCount(), store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        queuedTicketTimeline = new PassengerTimeline(ticketLines.lineCount(), store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        servedCheckpointTimeline = new PassengerTimeline(completedCheckpointLines.lineCount(), store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        queuedCheckpointTimeline = new PassengerTimeline(checkpointLines.lineCount(), store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        holdRoomTimeline = new PassengerTimeline(holdRoomLines.lineCount(), store, PassengerLines.ClearedBy.DEPARTURE);
+        historyServedTicket = servedTicketTimeline.asHistory();
+        historyQueuedTicket = queuedTicketTimeline.asHistory();
+        historyServedCheckpoint = servedCheckpointTimeline.asHistory();
+        historyQueuedCheckpoint = queuedCheckpointTimeline.asHistory();
+        historyHoldRooms = holdRoomTimeline.asHistory();
 
         counterProgress = new double[this.counterConfigs.size()];
         checkpointProgress = new double[this.numCheckpoints];
-        pendingToCP = new HashMap<>();
-        pendingToHold = new HashMap<>();
-        counterServing = new Passenger[this.counterConfigs.size()];
-        checkpointServing = new Passenger[this.numCheckpoints];
+        counterProgressTick = new int[this.counterConfigs.size()];
+        checkpointProgressTick = new int[this.numCheckpoints];
+        pendingToCP = new TransferWheel();
+        pendingToHold = new TransferWheel();
+        counterServing = new int[this.counterConfigs.size()];
+        checkpointServing = new int[this.numCheckpoints];
+        Arrays.fill(counterServing, NONE);
+        Arrays.fill(checkpointServing, NONE);
+        counterBusyUntil = new double[this.counterConfigs.size()];
+        checkpointBusyUntil = new double[this.numCheckpoints];
+
+        ticketGroupByFlight = new int[numFlights];
+        ticketGroups = buildTicketGroups(ticketGroupByFlight);
+        buildRouters();
 
         captureSnapshot0();
     }
 
+    /** Counters accepting each flight (all counters if none does), deduplicated into groups. */
+    private int[][] buildTicketGroups(int[] groupByFlight) {
+        if (counterConfigs.isEmpty()) return new int[0][];
+        Map<BitSet, Integer> groupIds = new HashMap<>();
+        List<int[]> groups = new ArrayList<>();
+        for (int fi = 0; fi < flights.size(); fi++) {
+            BitSet key = counterEligibility.rowKey(fi);
+            Integer g = groupIds.get(key);
+            if (g == null) {
+                g = groups.size();
+                groupIds.put(key, g);
+                int[] allowed = counterEligibility.members(fi);
+                if (allowed.length == 0) {
+                    allowed = new int[counterConfigs.size()];
+                    for (int j = 0; j < allowed.length; j++) allowed[j] = j;
+                }
+                groups.add(allowed);
+            }
+            groupByFlight[fi] = g;
+        }
+        return groups.toArray(new int[0][]);
+    }
+
+    private void buildRouters() {
+        int[] allCheckpoints = new int[numCheckpoints];
+        for (int j = 0; j < numCheckpoints; j++) allCheckpoints[j] = j;
+        ticketRouter = routingPolicy.newRouter(ticketLines, ticketGroups);
+        checkpointRouter = routingPolicy.newRouter(checkpointLines, new int[][]{allCheckpoints});
+    }
+
+    /**
+     * Default JOIN_SHORTEST_QUEUE reproduces the original linear scan exactly.
+     * Takes effect for arrivals simulated after the call (normally: set, then reset()).
+     */
+    public void setRoutingPolicy(RoutingPolicy policy) {
+        this.routingPolicy = (policy == null) ? RoutingPolicy.JOIN_SHORTEST_QUEUE : policy;
+        buildRouters();
+    }
+
+    public RoutingPolicy getRoutingPolicy() { return routingPolicy; }
+
     // ==========================================================
     // Step 6 public API: set arrivals config
     // ==========================================================
@@ -368,6 +564,25 @@ public class SimulationEngine {
         return copyCfg(this.arrivalCurveConfig);
     }
 
+    /**
+     * Take over another engine's curve and per-minute arrivals instead of generating them again.
+     * Both engines must be built from the same flights and arrival span (staffing may differ).
+     * The arrays are shared; neither engine writes to them after they are built.
+     * Like setArrivalCurveConfig, call it BEFORE the simulation runs.
+     */
+    public void shareArrivalsFrom(SimulationEngine other) {
+        if (other == null) throw new IllegalArgumentException("source engine is required");
+        if (!other.flights.equals(flights) || other.arrivalSpanMinutes != arrivalSpanMinutes) {
+            throw new IllegalArgumentException("arrivals can only be shared between engines with the same flights and span");
+        }
+        this.arrivalCurveConfig = copyCfg(other.arrivalCurveConfig);
+        minuteArrivalsMap.clear();
+        minuteArrivalsMap.putAll(other.minuteArrivalsMap);
+        arrivalKeyByFlight = (other.arrivalKeyByFlight == null) ? null : other.arrivalKeyByFlight.clone();
+        eventCalendar = null;
+        rebuildArrivalTimeline();
+    }
+
     private static ArrivalCurveConfig copyCfg(ArrivalCurveConfig src) {
         if (src == null) return ArrivalCurveConfig.legacyDefault();
 
@@ -388,28 +603,64 @@ public class SimulationEngine {
         return c;
     }
 
+    /**
+     * Legacy mode = the existing ArrivalGenerator curve, edited mode = split Gaussian + windowStart + clamp;
+     * both through ArrivalCurveCache. Flights whose curve, span and passenger count are unchanged keep
+     * their array; the rest are looked up in parallel when the schedule is large.
+     */
     private void rebuildMinuteArrivalsMap() {
+        eventCalendar = null;
+
+        int n = flights.size();
+        ArrivalCurveCache cache = ArrivalCurveCache.shared();
+        ArrivalCurveCache.Key[] keys = new ArrivalCurveCache.Key[n];
+        for (int fi = 0; fi < n; fi++) {
+            keys[fi] = ArrivalCurveCache.key(arrivalCurveConfig, arrivalSpanMinutes, schedule.passengers(fi));
+        }
+
+        ArrivalCurveCache.Key[] previous = arrivalKeyByFlight;
+        int[][] perMin = new int[n][];
+        IntConsumer build = fi -> {
+            int[] kept = (previous != null && fi < previous.length && keys[fi].equals(previous[fi]))
+                    ? minuteArrivalsMap.get(flights.get(fi))
+                    : null;
+            perMin[fi] = (kept != null) ? kept : cache.get(keys[fi]);
+        };
+        IntStream range = IntStream.range(0, n);
+        if (n >= PARALLEL_ARRIVALS_MIN_FLIGHTS) range = range.parallel();
+        range.forEach(build);
+
         minuteArrivalsMap.clear();
+        for (int fi = 0; fi < n; fi++) minuteArrivalsMap.put(flights.get(fi), perMin[fi]);
+        arrivalKeyByFlight = keys;
+        rebuildArrivalTimeline();
+    }
 
-        for (Flight f : flights) {
-            int totalPassengers = (int) Math.round(f.getSeats() * f.getFillPercent());
+    private void rebuildArrivalTimeline() {
+        int n = flights.size();
+        int[][] byFlight = new int[n][];
+        int length = 0;
+        for (int fi = 0; fi < n; fi++) {
+            int[] perMin = minuteArrivalsMap.get(flights.get(fi));
+            byFlight[fi] = (perMin == null) ? new int[0] : perMin;
+            length = Math.max(length, schedule.arrivalStartMinute(fi) + byFlight[fi].length);
+        }
 
-            int[] perMin;
-            if (arrivalCurveConfig == null || arrivalCurveConfig.isLegacyMode()) {
-                // EXACT existing behavior (your current ArrivalGenerator logic)
-                perMin = legacyMinuteGenerator.generateArrivals(f); // interval=1 => per-minute
-            } else {
-                // Edited behavior (split Gaussian + windowStart + clamp)
-                perMin = editedMinuteGenerator.buildArrivalsPerMinute(
-                        f,
-                        totalPassengers,
-                        arrivalCurveConfig,
-                        arrivalSpanMinutes
-                );
+        int[] perMinute = new int[length];
+        for (int fi = 0; fi < n; fi++) {
+            int offset = schedule.arrivalStartMinute(fi);
+            int[] perMin = byFlight[fi];
+            // minutes before globalStart are never simulated
+            for (int idx = Math.max(0, -offset); idx < perMin.length; idx++) {
+                perMinute[offset + idx] += perMin[idx];
             }
-
-            minuteArrivalsMap.put(f, (perMin == null) ? new int[0] : perMin);
         }
+        int[] cumulative = new int[length + 1];
+        for (int m = 0; m < length; m++) cumulative[m + 1] = cumulative[m] + perMinute[m];
+
+        minuteArrivalsByFlight = byFlight;
+        totalArrivalsByMinute = perMinute;
+        cumulativeArrivals = cumulative;
     }
 
     private static List<CheckpointConfig> buildDefaultCheckpointConfigs(int numCheckpoints, double checkpointRatePerHour) {
@@ -474,20 +725,18 @@ public class SimulationEngine {
     }
 
     private void computeChosenHoldRooms() {
-        chosenHoldRoomIndexByFlight.clear();
+        Arrays.fill(chosenRoomByFlight, 0);
 
         int roomCount = holdRoomConfigs.size();
         if (roomCount <= 0) return;
 
-        for (Flight f : flights) {
+        for (int fi = 0; fi < flights.size(); fi++) {
             List<Integer> candidates = new ArrayList<>();
             int bestSeconds = Integer.MAX_VALUE;
 
             for (int r = 0; r < roomCount; r++) {
+                if (!holdRoomEligibility.get(fi, r)) continue;
                 HoldRoomConfig cfg = holdRoomConfigs.get(r);
-                if (cfg == null) continue;
-
-                if (!cfg.accepts(f)) continue;
 
                 int ws = safeWalkSeconds(cfg);
                 if (ws < bestSeconds) {
@@ -501,7 +750,7 @@ public class SimulationEngine {
 
             int chosen;
             if (!candidates.isEmpty()) {
-                chosen = candidates.get(rand.nextInt(candidates.size()));
+                chosen = candidates.get(seeds.at(StreamSeeds.HOLD_ROOM_TIES, fi, 0).nextInt(candidates.size()));
             } else {
                 int acceptAll = -1;
                 for (int r = 0; r < roomCount; r++) {
@@ -514,7 +763,7 @@ public class SimulationEngine {
                 chosen = (acceptAll >= 0) ? acceptAll : 0;
             }
 
-            chosenHoldRoomIndexByFlight.put(f, clamp(chosen, 0, roomCount - 1));
+            chosenRoomByFlight[fi] = clamp(chosen, 0, roomCount - 1);
         }
     }
 
@@ -523,24 +772,9 @@ public class SimulationEngine {
         return Math.max(0, cfg.getWalkSecondsFromCheckpoint());
     }
 
-    // NOTE: still uses 20 minutes (this matches your existing program rules)
-    private int getBoardingCloseIdx(Flight f) {
-        return (int) Duration.between(
-                globalStart,
-                f.getDepartureTime().minusMinutes(ArrivalCurveConfig.DEFAULT_BOARDING_CLOSE)
-        ).toMinutes();
-    }
-
-    private int getDepartureIdx(Flight f) {
-        return (int) Duration.between(
-                globalStart,
-                f.getDepartureTime()
-        ).toMinutes();
-    }
-
-    private int ceilMinutesFromSeconds(int seconds) {
+    private int ceilTicksFromSeconds(int seconds) {
         int s = Math.max(0, seconds);
-        return (s / 60) + ((s % 60) > 0 ? 1 : 0);
+        return (s / tickSeconds) + ((s % tickSeconds) > 0 ? 1 : 0);
     }
 
     // ============================
@@ -548,72 +782,184 @@ public class SimulationEngine {
     // ============================
 
     private void captureSnapshot0() {
-        stateSnapshots.clear();
+        keyframes.clear();
+        firstArrivalIdByInterval.clear();
 
         heldUpsByInterval.clear();
+        peakHeldUpsByInterval.clear();
         ticketQueuedByInterval.clear();
         checkpointQueuedByInterval.clear();
         holdRoomTotalByInterval.clear();
 
         justClosedFlights.clear();
-        ticketCompletedVisible.clear();
+        visibleCompletedTicketLines.clear();
+        Arrays.fill(boardedByFlight, NOT_DEPARTED);
 
         recordQueueTotalsForCurrentInterval();
 
-        EngineSnapshot s0 = makeSnapshot();
-        stateSnapshots.add(s0);
+        keyframes.put(0, makeSnapshot());
         maxComputedInterval = 0;
     }
 
     private EngineSnapshot makeSnapshot() {
+        // every id still referenced anywhere, each once
+        BitSet live = new BitSet(store.size());
+        ticketLines.collectIds(live);
+        completedTicketLines.collectIds(live);
+        checkpointLines.collectIds(live);
+        completedCheckpointLines.collectIds(live);
+        holdRoomLines.collectIds(live);
+        pendingToCP.collectIds(live);
+        pendingToHold.collectIds(live);
+        visibleCompletedTicketLines.collectIds(live);
+        for (int id : counterServing) if (id != NONE) live.set(id);
+        for (int id : checkpointServing) if (id != NONE) live.set(id);
+
+        int[] passengers = live.stream().toArray();
+
         return new EngineSnapshot(
                 currentInterval,
-                deepCopyLinkedLists(ticketLines),
-                deepCopyLinkedLists(completedTicketLines),
-                deepCopyLinkedLists(checkpointLines),
-                deepCopyLinkedLists(completedCheckpointLines),
-                deepCopyLinkedLists(holdRoomLines),
+                ticketLines.copyLines(),
+                completedTicketLines.copyLines(),
+                checkpointLines.copyLines(),
+                completedCheckpointLines.copyLines(),
+                holdRoomLines.copyLines(),
                 Arrays.copyOf(counterProgress, counterProgress.length),
                 Arrays.copyOf(checkpointProgress, checkpointProgress.length),
-                deepCopyPendingMap(pendingToCP),
-                deepCopyPendingMap(pendingToHold),
+                Arrays.copyOf(counterProgressTick, counterProgressTick.length),
+                Arrays.copyOf(checkpointProgressTick, checkpointProgressTick.length),
+                pendingToCP.snapshot(),
+                pendingToHold.snapshot(),
                 Arrays.copyOf(counterServing, counterServing.length),
                 Arrays.copyOf(checkpointServing, checkpointServing.length),
-                new HashSet<>(ticketCompletedVisible),
+                Arrays.copyOf(counterBusyUntil, counterBusyUntil.length),
+                Arrays.copyOf(checkpointBusyUntil, checkpointBusyUntil.length),
+                visibleCompletedTicketLines.copyLines(),
                 new ArrayList<>(justClosedFlights),
-                new LinkedHashMap<>(heldUpsByInterval),
-                new LinkedHashMap<>(ticketQueuedByInterval),
-                new LinkedHashMap<>(checkpointQueuedByInterval),
-                new LinkedHashMap<>(holdRoomTotalByInterval)
+                passengers,
+                store.saveState(passengers, passengers.length)
         );
     }
 
     private void appendSnapshotAfterInterval() {
-        EngineSnapshot snap = makeSnapshot();
+        if (recordingEnabled) {
+            // currentInterval was already advanced; this closes the id range of the previous minute
+            firstArrivalIdByInterval.set(currentInterval, store.size());
 
-        if (currentInterval < stateSnapshots.size()) {
-            stateSnapshots.set(currentInterval, snap);
-        } else {
-            stateSnapshots.add(snap);
+            if (currentInterval % keyframeInterval == 0) {
+                keyframes.put(currentInterval, makeSnapshot());
+            }
         }
         maxComputedInterval = Math.max(maxComputedInterval, currentInterval);
     }
 
+    /**
+     * simulateInterval() was called on a rewound state (not via computeNextInterval):
+     * everything recorded after this point is about to be rewritten, so forget it.
+     * Passengers are put back to their field values as of this interval first, since the
+     * new branch must not see missed flags etc. from the old future.
+     */
+    private void discardRecordedAfterCurrent() {
+        if (recordingEnabled && rewoundInterval == currentInterval) {
+            // the rewind already rebuilt this interval: only its passenger fields may be the frontier's.
+            // Replaying again would read rates the caller may have changed since, for the minutes before
+            if (rewoundStates != null) {
+                store.restoreState(rewoundIds, rewoundIds.length, rewoundStates);
+                store.setBoardingClosedThrough(currentInterval - 1);
+            }
+        } else if (recordingEnabled) {
+            restoreSnapshot(currentInterval, false);
+        }
+        forgetRewind();
+
+        keyframes.tailMap(currentInterval, false).clear();
+        // passengers created after this interval belong to the old future
+        store.truncate(firstArrivalIdByInterval.get(currentInterval));
+        firstArrivalIdByInterval.truncate(currentInterval + 1);
+        maxComputedInterval = currentInterval;
+        for (int fi = 0; fi < boardedByFlight.length; fi++) {
+            if (schedule.departureMinute(fi) >= currentInterval) boardedByFlight[fi] = NOT_DEPARTED;
+        }
+
+        servedTicketTimeline.truncate(currentInterval, completedTicketLines);
+        queuedTicketTimeline.truncate(currentInterval, ticketLines);
+        servedCheckpointTimeline.truncate(currentInterval, completedCheckpointLines);
+        queuedCheckpointTimeline.truncate(currentInterval, checkpointLines);
+        holdRoomTimeline.truncate(currentInterval, holdRoomLines);
+
+        heldUpsByInterval.truncate(currentInterval + 1);
+        peakHeldUpsByInterval.truncate(currentInterval + 1);
+        ticketQueuedByInterval.truncate(currentInterval + 1);
+        checkpointQueuedByInterval.truncate(currentInterval + 1);
+        holdRoomTotalByInterval.truncate(currentInterval + 1);
+    }
+
     // ============================
     // Restore snapshots
     // ============================
 
+    /**
+     * Rebuild the state after targetInterval: restore the nearest keyframe at or before it,
+     * then replay the intervals in between. Replay hands out the same passenger ids again and
+     * does not touch the history lists or metrics (metric getters only expose
+     * entries up to currentInterval, which is what a full snapshot used to hold).
+     *
+     * Passengers keep the field values they had at the frontier (maxComputedInterval), exactly as
+     * with full per-interval snapshots, so fields are stashed before replay and put back afterwards.
+     */
     private void restoreSnapshot(int targetInterval) {
+        restoreSnapshot(targetInterval, keepFrontierFields);
+    }
+
+    private void restoreSnapshot(int targetInterval, boolean keepFrontierFields) {
         int t = clamp(targetInterval, 0, maxComputedInterval);
-        EngineSnapshot s = stateSnapshots.get(t);
+        EngineSnapshot s = keyframes.floorEntry(t).getValue();
+
+        // keyframe passengers + the id range created while replaying (k, t]
+        int firstNew = firstArrivalIdByInterval.get(s.currentInterval);
+        int lastNew = firstArrivalIdByInterval.get(t);
+        int[] touched = Arrays.copyOf(s.passengers, s.passengers.length + (lastNew - firstNew));
+        for (int id = firstNew, i = s.passengers.length; id < lastNew; id++, i++) touched[i] = id;
+        int[] frontierStates = keepFrontierFields ? store.saveState(touched, touched.length) : null;
+
+        applyKeyframe(s);
+
+        replaying = true;
+        try {
+            while (currentInterval < t) simulateInterval();
+        } finally {
+            replaying = false;
+            rewoundInterval = t;
+            rewoundIds = keepFrontierFields ? touched : null;
+            rewoundStates = keepFrontierFields ? store.saveState(touched, touched.length) : null;
+            if (keepFrontierFields) {
+                store.restoreState(touched, touched.length, frontierStates);
+                // missed follows the frontier too, like the other fields
+                store.setBoardingClosedThrough(maxComputedInterval - 1);
+            }
+        }
+    }
+
+    private void forgetRewind() {
+        rewoundInterval = -1;
+        rewoundIds = null;
+        rewoundStates = null;
+    }
 
+    private void applyKeyframe(EngineSnapshot s) {
         this.currentInterval = s.currentInterval;
 
-        restoreLinkedListsInPlace(ticketLines, s.ticketLines);
-        restoreLinkedListsInPlace(completedTicketLines, s.completedTicketLines);
-        restoreLinkedListsInPlace(checkpointLines, s.checkpointLines);
-        restoreLinkedListsInPlace(completedCheckpointLines, s.completedCheckpointLines);
-        restoreLinkedListsInPlace(holdRoomLines, s.holdRoomLines);
+        // close epochs as of the end of the previous minute (the lines recount their dead entries from it)
+        store.setBoardingClosedThrough(s.currentInterval - 1);
+        store.setClearedThrough(s.currentInterval - 1);
+        store.setDepartedThrough(s.currentInterval - 1);
+
+        ticketLines.restore(s.ticketLines);
+        completedTicketLines.restore(s.completedTicketLines);
+        checkpointLines.restore(s.checkpointLines);
+        completedCheckpointLines.restore(s.completedCheckpointLines);
+        visibleCompletedTicketLines.restore(s.visibleCompletedTicketLines);
+        holdRoomLines.restore(s.holdRoomLines);
 
         if (this.counterProgress == null || this.counterProgress.length != s.counterProgress.length) {
             this.counterProgress = Arrays.copyOf(s.counterProgress, s.counterProgress.length);
@@ -626,12 +972,12 @@ public class SimulationEngine {
         } else {
             System.arraycopy(s.checkpointProgress, 0, this.checkpointProgress, 0, s.checkpointProgress.length);
         }
+        System.arraycopy(s.counterProgressTick, 0, this.counterProgressTick, 0, s.counterProgressTick.length);
+        System.arraycopy(s.checkpointProgressTick, 0, this.checkpointProgressTick, 0, s.checkpointProgressTick.length);
+        this.quietUntil = 0;
 
-        this.pendingToCP.clear();
-        this.pendingToCP.putAll(deepCopyPendingMap(s.pendingToCP));
-
-        this.pendingToHold.clear();
-        this.pendingToHold.putAll(deepCopyPendingMap(s.pendingToHold));
+        pendingToCP.restore(s.pendingToCP);
+        pendingToHold.restore(s.pendingToHold);
 
         if (this.counterServing == null || this.counterServing.length != s.counterServing.length) {
             this.counterServing = Arrays.copyOf(s.counterServing, s.counterServing.length);
@@ -644,24 +990,15 @@ public class SimulationEngine {
         } else {
             System.arraycopy(s.checkpointServing, 0, this.checkpointServing, 0, s.checkpointServing.length);
         }
-
-        this.ticketCompletedVisible.clear();
-        this.ticketCompletedVisible.addAll(s.ticketCompletedVisible);
+        System.arraycopy(s.counterBusyUntil, 0, this.counterBusyUntil, 0, s.counterBusyUntil.length);
+        System.arraycopy(s.checkpointBusyUntil, 0, this.checkpointBusyUntil, 0, s.checkpointBusyUntil.length);
+        // the replayed minutes must draw their service times afresh
+        forgetSamplerMinutes();
 
         this.justClosedFlights.clear();
         this.justClosedFlights.addAll(s.justClosedFlights);
 
-        this.heldUpsByInterval.clear();
-        this.heldUpsByInterval.putAll(s.heldUpsByInterval);
-
-        this.ticketQueuedByInterval.clear();
-        this.ticketQueuedByInterval.putAll(s.ticketQueuedByInterval);
-
-        this.checkpointQueuedByInterval.clear();
-        this.checkpointQueuedByInterval.putAll(s.checkpointQueuedByInterval);
-
-        this.holdRoomTotalByInterval.clear();
-        this.holdRoomTotalByInterval.putAll(s.holdRoomTotalByInterval);
+        store.restoreState(s.passengers, s.passengers.length, s.passengerStates);
     }
 
     private static int clamp(int v, int lo, int hi) {
@@ -672,11 +1009,11 @@ public class SimulationEngine {
     // Rewind API
     // ============================
 
-    public boolean canRewind() { return currentInterval > 0; }
-    public boolean canFastForward() { return currentInterval < maxComputedInterval; }
+    public boolean canRewind() { return recordingEnabled && currentInterval > 0; }
+    public boolean canFastForward() { return recordingEnabled && currentInterval < maxComputedInterval; }
     public int getMaxComputedInterval() { return maxComputedInterval; }
 
-    public void goToInterval(int targetInterval) { restoreSnapshot(targetInterval); }
+    public void goToInterval(int targetInterval) { if (recordingEnabled) restoreSnapshot(targetInterval); }
     public void rewindOneInterval() { if (canRewind()) restoreSnapshot(currentInterval - 1); }
 
     public void fastForwardOneInterval() {
@@ -703,130 +1040,208 @@ public class SimulationEngine {
     }
 
     public void runAllIntervals() {
+        reset();
+
+        while (currentInterval < totalIntervals) {
+            simulateInterval();
+        }
+    }
+
+    /**
+     * Put the engine back to interval 0 without re-running the constructor.
+     * Flights, configs and the arrivals map are kept; passengers, queues, histories and metrics are dropped.
+     * Counter/checkpoint rates are read live from their configs, so callers may change them before reset().
+     */
+    public void reset() {
         currentInterval = 0;
+        eventCalendar = null;
+        quietUntil = 0;
+        forgetRewind();
 
         clearHistory();
 
         heldUpsByInterval.clear();
+        peakHeldUpsByInterval.clear();
         ticketQueuedByInterval.clear();
         checkpointQueuedByInterval.clear();
         holdRoomTotalByInterval.clear();
 
         justClosedFlights.clear();
-        ticketCompletedVisible.clear();
-        ticketLines.forEach(LinkedList::clear);
-        completedTicketLines.forEach(LinkedList::clear);
-        checkpointLines.forEach(LinkedList::clear);
-        completedCheckpointLines.forEach(LinkedList::clear);
-        holdRoomLines.forEach(LinkedList::clear);
+        visibleCompletedTicketLines.clear();
+        ticketLines.clear();
+        completedTicketLines.clear();
+        checkpointLines.clear();
+        completedCheckpointLines.clear();
+        holdRoomLines.clear();
         Arrays.fill(counterProgress, 0);
         Arrays.fill(checkpointProgress, 0);
+        Arrays.fill(counterProgressTick, 0);
+        Arrays.fill(checkpointProgressTick, 0);
         pendingToCP.clear();
         pendingToHold.clear();
-        Arrays.fill(counterServing, null);
-        Arrays.fill(checkpointServing, null);
+        Arrays.fill(counterServing, NONE);
+        Arrays.fill(checkpointServing, NONE);
+        Arrays.fill(counterBusyUntil, 0);
+        Arrays.fill(checkpointBusyUntil, 0);
+        forgetSamplerMinutes();
+        store.clear();
 
         captureSnapshot0();
+    }
 
-        while (currentInterval < totalIntervals) {
-            simulateInterval();
-        }
+    /**
+     * Batch runs that only need the metrics series can switch off the per-interval
+     * history lists and rewind snapshots. Rewind/goToInterval are unavailable while disabled.
+     * Switch it before reset()/runAllIntervals(); toggling mid-run leaves gaps in the history.
+     */
+    public void setRecordingEnabled(boolean enabled) {
+        this.recordingEnabled = enabled;
     }
 
-    // ============================
-    // Boarding close MARK
-    // ============================
+    public boolean isRecordingEnabled() { return recordingEnabled; }
 
-    private void handleBoardingCloseMarkMissed(Flight f) {
-        justClosedFlights.add(f);
+    /**
+     * Rewind keeps a full state copy every k intervals and replays the rest on demand.
+     * Smaller k = faster scrubbing, more memory; k = 1 stores every interval like the old snapshots.
+     * Takes effect for keyframes captured from now on; existing ones stay valid.
+     */
+    public void setKeyframeInterval(int k) {
+        this.keyframeInterval = Math.max(1, k);
+    }
 
-        int chosenRoom = chosenHoldRoomIndexByFlight.getOrDefault(f, 0);
-        chosenRoom = clamp(chosenRoom, 0, holdRoomLines.size() - 1);
+    public int getKeyframeInterval() { return keyframeInterval; }
 
-        Set<Passenger> inChosen = new HashSet<>();
-        for (Passenger p : holdRoomLines.get(chosenRoom)) {
-            if (p != null && p.getFlight() == f) inChosen.add(p);
-        }
+    /**
+     * By default rewind/goToInterval leave every passenger's fields (completion minutes, missed,
+     * hold room) as of the furthest computed interval, as the old full snapshots did. Views that
+     * walk a day computed ahead of time switch this off, so each interval shows the passengers
+     * exactly as a live run had them at that point.
+     */
+    public void setKeepFrontierFields(boolean keep) {
+        this.keepFrontierFields = keep;
+    }
 
-        markMissedNotInChosen(ticketLines, f, inChosen);
-        markMissedNotInChosen(completedTicketLines, f, inChosen);
-        markMissedNotInChosen(checkpointLines, f, inChosen);
-        markMissedNotInChosen(completedCheckpointLines, f, inChosen);
+    public boolean isKeepFrontierFields() { return keepFrontierFields; }
 
-        purgeFromPendingMap(pendingToCP, f, inChosen);
-        purgeFromPendingMap(pendingToHold, f, inChosen);
+    /**
+     * Discrete-event mode: instead of scanning every flight every minute, the engine walks an
+     * event calendar (arrival batches, boarding closes, departures) and the transfer wheels.
+     * Once nobody is queued or in service, the clock runs straight to the next calendar event or
+     * transfer due: the minutes in between are only recorded, and each server's progress is
+     * caught up over them (the stepper's own additions, so the same rounding) when it next
+     * serves. Every per-interval result
+     * is identical to the minute stepper; only the cost of idle stretches changes. Safe to switch
+     * at any point.
+     */
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+        this.quietUntil = 0;
+    }
 
-        for (int i = 0; i < counterServing.length; i++) {
-            Passenger p = counterServing[i];
-            if (p != null && p.getFlight() == f && !inChosen.contains(p)) p.setMissed(true);
-        }
-        for (int i = 0; i < checkpointServing.length; i++) {
-            Passenger p = checkpointServing[i];
-            if (p != null && p.getFlight() == f && !inChosen.contains(p)) p.setMissed(true);
+    public boolean isEventDriven() { return eventDriven; }
+
+    /**
+     * Sub-minute time base (must divide 60: e.g. 5 or 1 second ticks). Each minute's arrivals are
+     * spread evenly over its ticks, service rates are split per tick, and hold-room walks round up
+     * to ticks instead of whole minutes. Everything recorded stays per minute (histories, series,
+     * completion minutes); getPeakHeldUpSeries() keeps the within-minute peak the minute view hides.
+     * In event-driven mode only the ticks where something arrives, finishes or is due are run, so
+     * shorter ticks cost little more. 60 = the minute stepper. Switch it before reset()/runAllIntervals().
+     */
+    public void setTickSeconds(int seconds) {
+        if (seconds <= 0 || seconds > 60 || 60 % seconds != 0) {
+            throw new IllegalArgumentException("tick seconds must divide 60: " + seconds);
         }
+        this.tickSeconds = seconds;
+        this.ticksPerMinute = 60 / seconds;
+        this.quietUntil = 0;
     }
 
-    private void markMissedNotInChosen(List<LinkedList<Passenger>> lists, Flight f, Set<Passenger> inChosen) {
-        for (LinkedList<Passenger> line : lists) {
-            for (Passenger p : line) {
-                if (p != null && p.getFlight() == f && !inChosen.contains(p)) p.setMissed(true);
-            }
+    public int getTickSeconds() { return tickSeconds; }
+
+    /**
+     * Stochastic mode (null = deterministic). Each counter and checkpoint becomes a single server
+     * with random service times around its configured rate; arrivals per flight-minute and the
+     * in-person split can be drawn too (see StochasticModel). All draws come from the model's
+     * seed: same seed, same run (rewinds included). The seed also breaks hold-room ties, so the
+     * chosen rooms are recomputed. Takes effect for intervals simulated after the call
+     * (normally: set, then reset()).
+     */
+    public void setStochasticModel(StochasticModel model) {
+        this.stochasticModel = model;
+        this.seeds = new StreamSeeds((model == null) ? StreamSeeds.DEFAULT_SEED : model.getSeed());
+        if (model == null) {
+            streams = null;
+            counterSampler = null;
+            checkpointSampler = null;
+        } else {
+            streams = new RandomStreams(seeds);
+            counterSampler = streams.serviceSampler(StreamSeeds.COUNTER_SERVICE, counterConfigs.size(), model);
+            checkpointSampler = streams.serviceSampler(StreamSeeds.CHECKPOINT_SERVICE, numCheckpoints, model);
         }
+        quietUntil = 0;
+        computeChosenHoldRooms();
     }
 
-    private void purgeFromPendingMap(Map<Integer, List<Passenger>> pending, Flight f, Set<Passenger> inChosen) {
-        Iterator<Map.Entry<Integer, List<Passenger>>> it = pending.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<Integer, List<Passenger>> e = it.next();
-            List<Passenger> list = e.getValue();
-            if (list == null) continue;
+    public StochasticModel getStochasticModel() { return stochasticModel; }
 
-            list.removeIf(p -> {
-                if (p != null && p.getFlight() == f && !inChosen.contains(p)) {
-                    p.setMissed(true);
-                    return true;
-                }
-                return false;
-            });
+    private void forgetSamplerMinutes() {
+        if (counterSampler != null) counterSampler.forget();
+        if (checkpointSampler != null) checkpointSampler.forget();
+    }
 
-            if (list.isEmpty()) it.remove();
+    private boolean anyServing() {
+        if (stochasticModel == null) return false;
+        for (int id : counterServing) if (id != NONE) return true;
+        for (int id : checkpointServing) if (id != NONE) return true;
+        return false;
+    }
+
+    private EventCalendar eventCalendar() {
+        if (eventCalendar != null) return eventCalendar;
+        EventCalendar cal = new EventCalendar();
+        for (int fi = 0; fi < flights.size(); fi++) {
+            cal.add(schedule.departureMinute(fi), fi, EventCalendar.DEPARTURE);
+            cal.add(schedule.closeMinute(fi), fi, EventCalendar.BOARDING_CLOSE);
+            int[] perMin = minuteArrivalsByFlight[fi];
+            int offset = schedule.arrivalStartMinute(fi);
+            for (int idx = 0; idx < perMin.length; idx++) {
+                if (perMin[idx] != 0) cal.add(offset + idx, fi, EventCalendar.ARRIVALS);
+            }
         }
+        eventCalendar = cal.sorted();
+        return eventCalendar;
+    }
+
+    // ============================
+    // Boarding close MARK
+    // ============================
+
+    private void handleBoardingCloseMarkMissed(Flight f) {
+        // Nothing to walk: the store's close epoch for f is reached (boardingClosedThrough was moved
+        // to this minute), so every passenger of f outside a hold room already reports missed.
+        // Missed entries are skipped by service, and by the pending buckets when their minute comes.
+        justClosedFlights.add(f);
     }
 
     // ============================
     // CLOSE CLEAR (non-hold areas)
     // ============================
 
+    /** store.clearedThrough already covers f: its entries turn into dead entries, O(lines). */
     private void clearFlightFromNonHoldAreas(Flight f) {
-        for (LinkedList<Passenger> line : ticketLines) line.removeIf(p -> p != null && p.getFlight() == f);
-        for (LinkedList<Passenger> line : completedTicketLines) line.removeIf(p -> p != null && p.getFlight() == f);
-        for (LinkedList<Passenger> line : checkpointLines) line.removeIf(p -> p != null && p.getFlight() == f);
-        for (LinkedList<Passenger> line : completedCheckpointLines) line.removeIf(p -> p != null && p.getFlight() == f);
-
-        purgeAllFromPendingMap(pendingToCP, f);
-        purgeAllFromPendingMap(pendingToHold, f);
+        int fi = schedule.indexOf(f);
+        ticketLines.clearFlight(fi, exitTo(queuedTicketTimeline));
+        completedTicketLines.clearFlight(fi, exitTo(servedTicketTimeline));
+        visibleCompletedTicketLines.clearFlight(fi, null);
+        checkpointLines.clearFlight(fi, exitTo(queuedCheckpointTimeline));
+        completedCheckpointLines.clearFlight(fi, exitTo(servedCheckpointTimeline));
 
         for (int i = 0; i < counterServing.length; i++) {
-            Passenger p = counterServing[i];
-            if (p != null && p.getFlight() == f) counterServing[i] = null;
+            if (counterServing[i] != NONE && store.flightIndex(counterServing[i]) == fi) counterServing[i] = NONE;
         }
         for (int i = 0; i < checkpointServing.length; i++) {
-            Passenger p = checkpointServing[i];
-            if (p != null && p.getFlight() == f) checkpointServing[i] = null;
-        }
-
-        ticketCompletedVisible.removeIf(p -> p != null && p.getFlight() == f);
-    }
-
-    private void purgeAllFromPendingMap(Map<Integer, List<Passenger>> pending, Flight f) {
-        Iterator<Map.Entry<Integer, List<Passenger>>> it = pending.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<Integer, List<Passenger>> e = it.next();
-            List<Passenger> list = e.getValue();
-            if (list == null) continue;
-
-            list.removeIf(p -> p != null && p.getFlight() == f);
-            if (list.isEmpty()) it.remove();
+            if (checkpointServing[i] != NONE && store.flightIndex(checkpointServing[i]) == fi) checkpointServing[i] = NONE;
         }
     }
 
@@ -834,253 +1249,526 @@ public class SimulationEngine {
     // DEPARTURE CLEAR (hold rooms)
     // ============================
 
+    /** store.departedThrough already covers f: boarded = its per-room counts, then its entries turn dead, O(rooms). */
     private void clearFlightFromHoldRooms(Flight f) {
-        for (LinkedList<Passenger> room : holdRoomLines) {
-            room.removeIf(p -> p != null && p.getFlight() == f);
-        }
+        int fi = schedule.indexOf(f);
+        boardedByFlight[fi] = holdRoomLines.count(fi);
+        holdRoomLines.clearFlight(fi, exitTo(holdRoomTimeline));
     }
 
     // ============================
     // Queue helpers
     // ============================
 
-    private Passenger takeFirstNotMissed(LinkedList<Passenger> q) {
-        if (q == null || q.isEmpty()) return null;
-        Iterator<Passenger> it = q.iterator();
-        while (it.hasNext()) {
-            Passenger p = it.next();
-            if (p != null && !p.isMissed()) {
-                it.remove();
-                return p;
-            }
-        }
-        return null;
+    /** O(1) through the passenger's handle (line + slot). */
+    private void removeFromCompletedCheckpointLines(int id) {
+        int c = completedCheckpointLines.removeTracked(id, exitTo(servedCheckpointTimeline));
+        if (c != NONE) logExit(servedCheckpointTimeline, c, id);
     }
 
-    private void removeFromCompletedCheckpointLines(Passenger p) {
-        if (p == null) return;
-        for (LinkedList<Passenger> line : completedCheckpointLines) {
-            Iterator<Passenger> it = line.iterator();
-            while (it.hasNext()) {
-                if (it.next() == p) {
-                    it.remove();
-                    return;
-                }
-            }
+    /** cohortIds[0 .. n) join the checkpoint lines in that order. */
+    private void routeToCheckpoints(int n) {
+        if (n == 0) return;
+        checkpointRouter.routeBatch(0, cohortIds, n, cohortLines);
+        for (int i = 0; i < n; i++) {
+            addLogged(checkpointLines, queuedCheckpointTimeline, cohortLines[i], cohortIds[i]);
         }
     }
 
+    private void ensureCohortCapacity(int n) {
+        if (n <= cohortIds.length) return;
+        int cap = Math.max(n, cohortIds.length * 2);
+        cohortIds = new int[cap];
+        cohortLines = new int[cap];
+    }
+
+    // ============================
+    // History timeline hooks (frontier only: replay must not rewrite history)
+    // ============================
+
+    private boolean isLoggingHistory() {
+        return recordingEnabled && !replaying;
+    }
+
+    private void addLogged(PassengerLines lines, PassengerTimeline timeline, int idx, int id) {
+        lines.add(idx, id);
+        if (isLoggingHistory()) timeline.enter(idx, id);
+    }
+
+    private void logExit(PassengerTimeline timeline, int idx, int id) {
+        if (isLoggingHistory()) timeline.exit(idx, id);
+    }
+
+    private PassengerLines.ExitListener exitTo(PassengerTimeline timeline) {
+        return (line, id) -> logExit(timeline, line, id);
+    }
+
     // ============================
     // MAIN SIMULATION STEP
     // ============================
 
     public void simulateInterval() {
+        if (!replaying && currentInterval < maxComputedInterval) discardRecordedAfterCurrent();
+
         justClosedFlights.clear();
 
         int minute = currentInterval;
+        // flights closing this minute count as closed from step 1 on
+        store.setBoardingClosedThrough(minute);
+        if (replaying) replayNextId = firstArrivalIdByInterval.get(minute);
+
+        if (eventDriven && minute < quietUntil) {
+            // nobody queued, in service or due, and no calendar event: nothing to simulate
+            tickPeak = 0;
+            finishInterval(minute, Collections.emptyList());
+            return;
+        }
         List<Flight> flightsDepartingThisMinute = new ArrayList<>();
 
         // 1) arrivals + detect boarding-close (mark missed only)
-        for (Flight f : flights) {
-            if (minute == getDepartureIdx(f)) flightsDepartingThisMinute.add(f);
+        arrivingCount = 0;
+        if (eventDriven) {
+            EventCalendar cal = eventCalendar();
+            int end = cal.first(minute + 1);
+            for (int e = cal.first(minute); e < end; e++) {
+                int fi = cal.flight(e);
+                switch (cal.type(e)) {
+                    case EventCalendar.DEPARTURE:
+                        flightsDepartingThisMinute.add(flights.get(fi));
+                        break;
+                    case EventCalendar.ARRIVALS:
+                        arriving(fi, minute, arrivalsAt(fi, minute));
+                        break;
+                    default:
+                        handleBoardingCloseMarkMissed(flights.get(fi));
+                        break;
+                }
+            }
+        } else {
+            // only flights whose window (arrival start .. departure) contains this minute can act
+            for (int k = schedule.activeFrom(minute), end = schedule.activeTo(minute); k < end; k++) {
+                int fi = schedule.activeFlight(k);
+                Flight f = flights.get(fi);
+                if (minute == schedule.departureMinute(fi)) flightsDepartingThisMinute.add(f);
+                int n = arrivalsAt(fi, minute);
+                if (n > 0) arriving(fi, minute, n);
+                if (minute == schedule.closeMinute(fi)) handleBoardingCloseMarkMissed(f);
+            }
+        }
 
-            int[] perMin = minuteArrivalsMap.get(f);
-            long offset = Duration.between(globalStart,
-                            f.getDepartureTime().minusMinutes(arrivalSpanMinutes))
-                    .toMinutes();
-            int idx = minute - (int) offset;
+        // 2-5, once per tick (a single tick in the minute stepper)
+        tickPeak = 0;
+        int firstTick = minute * ticksPerMinute;
+        for (int t = 0; t < ticksPerMinute; t++) {
+            if (eventDriven && t > 0) {
+                // ticks where nothing arrives, finishes or is due would only move the accumulators
+                t = nextBusyTick(firstTick, t);
+                if (t == ticksPerMinute) break;
+            }
+            int tick = firstTick + t;
+            for (int k = 0; k < arrivingCount; k++) {
+                arrive(arrivingFlights[k], arrivingInPerson[k], arrivingOnline[k], minute, t);
+            }
+            if (eventDriven && ticketLines.isEmpty() && checkpointLines.isEmpty()
+                    && !pendingToCP.hasDue(tick) && !pendingToHold.hasDue(tick) && !anyServing()) {
+                // steps 2-5 would only move the service accumulators: left for the next service tick
+                continue;
+            }
+            serviceAndTransfers(minute, tick);
+            if (ticksPerMinute > 1) {
+                tickPeak = Math.max(tickPeak, ticketLines.totalSize() + checkpointLines.totalSize());
+            }
+        }
+        finishInterval(minute, flightsDepartingThisMinute);
+        if (eventDriven) quietUntil = nextBusyMinute();
+    }
 
-            if (perMin != null && idx >= 0 && idx < perMin.length) {
-                int totalHere = perMin[idx];
+    /**
+     * Event-driven: the first minute from currentInterval on that needs simulating. While lines
+     * are empty and no server is busy, that is the next calendar event or transfer due; the
+     * minutes before it change nothing but the clock.
+     */
+    private int nextBusyMinute() {
+        int from = currentInterval;
+        if (!ticketLines.isEmpty() || !checkpointLines.isEmpty() || anyServing()) return from;
+        EventCalendar cal = eventCalendar();
+        int e = cal.first(from);
+        int next = (e < cal.size()) ? cal.minute(e) : Integer.MAX_VALUE;
+        next = Math.min(next, pendingToCP.nextDue() / ticksPerMinute);
+        next = Math.min(next, pendingToHold.nextDue() / ticksPerMinute);
+        return next;
+    }
 
-                int inPerson = (int) Math.round(totalHere * percentInPerson);
-                int online = totalHere - inPerson;
+    /**
+     * Flight fi has n arrivals on its curve this minute: fix how many actually come and how they
+     * split (drawn in stochastic mode), for the tick loop to spread.
+     */
+    private void arriving(int fi, int minute, int n) {
+        if (stochasticModel != null && stochasticModel.isPoissonArrivals()) n = streams.poisson(fi, minute, n);
+        if (n <= 0) return;
+
+        int inPerson = (stochasticModel != null && stochasticModel.isBinomialSplit())
+                ? streams.binomial(fi, minute, n, percentInPerson)
+                : (int) Math.round(n * percentInPerson);
+        int online = n - inPerson;
+
+        // Safety: if there are 0 ticket counters, treat everyone as "online"
+        if (counterConfigs.isEmpty()) {
+            online += inPerson;
+            inPerson = 0;
+        }
 
-                // Safety: if there are 0 ticket counters, treat everyone as "online"
-                if (counterConfigs.isEmpty()) {
-                    online += inPerson;
-                    inPerson = 0;
-                }
+        arrivingFlights[arrivingCount] = fi;
+        arrivingInPerson[arrivingCount] = inPerson;
+        arrivingOnline[arrivingCount++] = online;
+    }
 
-                List<Integer> allowed = new ArrayList<>();
-                for (int j = 0; j < counterConfigs.size(); j++) {
-                    if (counterConfigs.get(j).accepts(f)) allowed.add(j);
-                }
-                if (allowed.isEmpty() && !counterConfigs.isEmpty()) {
-                    for (int j = 0; j < counterConfigs.size(); j++) allowed.add(j);
-                }
+    /** Passengers of flight fi arriving in minute (0 outside its arrival window). */
+    private int arrivalsAt(int fi, int minute) {
+        int[] perMin = minuteArrivalsByFlight[fi];
+        int idx = minute - schedule.arrivalStartMinute(fi);
+        return (idx >= 0 && idx < perMin.length) ? perMin[idx] : 0;
+    }
 
-                // enqueue in-person to ticket counters
-                for (int i = 0; i < inPerson; i++) {
-                    Passenger p = new Passenger(f, minute, true);
-                    int best = allowed.get(0);
-                    for (int ci : allowed) {
-                        if (ticketLines.get(ci).size() < ticketLines.get(best).size()) best = ci;
-                    }
-                    ticketLines.get(best).add(p);
-                }
-                // online -> checkpoint
-                for (int i = 0; i < online; i++) {
-                    Passenger p = new Passenger(f, minute, false);
-                    p.setCheckpointEntryMinute(minute);
-
-                    int bestC = 0;
-                    for (int j = 1; j < numCheckpoints; j++) {
-                        if (checkpointLines.get(j).size() < checkpointLines.get(bestC).size()) bestC = j;
-                    }
-                    checkpointLines.get(bestC).add(p);
-                }
+    /** First of n arrivals that falls in tick t of the minute (n spread evenly, earliest ticks first). */
+    private int tickShare(int n, int t) {
+        return (int) (((long) n * t + ticksPerMinute - 1) / ticksPerMinute);
+    }
+
+    /** First tick from t on that gets one of n arrivals spread by tickShare (ticksPerMinute if none left). */
+    private int nextArrivalTick(int n, int t) {
+        int s = tickShare(n, t);
+        return (s < n) ? (int) ((long) s * ticksPerMinute / n) : ticksPerMinute;
+    }
+
+    /**
+     * Event-driven tick mode: the first tick of the minute from `from` on where something happens
+     * (arrivals, a transfer due, a counter or checkpoint finishing someone), or ticksPerMinute.
+     * The ticks before it only move the service accumulators, which are stepped over them with the
+     * stepper's own additions, so a busy minute costs its events rather than its full set of ticks.
+     */
+    private int nextBusyTick(int firstTick, int from) {
+        int next = ticksPerMinute;
+        for (int k = 0; k < arrivingCount && next > from; k++) {
+            next = Math.min(next, nextArrivalTick(arrivingInPerson[k], from));
+            next = Math.min(next, nextArrivalTick(arrivingOnline[k], from));
+        }
+        next = (int) Math.min(next, (long) pendingToCP.nextDue() - firstTick);
+        next = (int) Math.min(next, (long) pendingToHold.nextDue() - firstTick);
+        for (int c = 0; c < counterConfigs.size() && next > from; c++) {
+            next = nextServiceTick(true, c, firstTick, from, next);
+        }
+        for (int c = 0; c < numCheckpoints && next > from; c++) {
+            next = nextServiceTick(false, c, firstTick, from, next);
+        }
+        return next;
+    }
+
+    /** First tick in [from, limit) of the minute where server c would finish someone, else limit. */
+    private int nextServiceTick(boolean counter, int c, int firstTick, int from, int limit) {
+        PassengerLines lines = counter ? ticketLines : checkpointLines;
+        double rate = counter ? getTicketCounterRatePerInterval(c) : getCheckpointRatePerInterval(c);
+
+        if (stochasticModel != null) {
+            int[] serving = counter ? counterServing : checkpointServing;
+            if (serving[c] == NONE) {
+                // an idle server with anyone in line starts on them right away
+                return (rate > 0 && !lines.raw(c).isEmpty()) ? from : limit;
+            }
+            double busyUntil = (counter ? counterBusyUntil : checkpointBusyUntil)[c];
+            // serveStochastic finishes in the first tick whose end reaches busyUntil
+            int t = (int) Math.max(from, Math.min(limit, Math.ceil(busyUntil * ticksPerMinute) - 1 - firstTick));
+            while (t > from && busyUntil <= (double) (firstTick + t) / ticksPerMinute) t--;
+            while (t < limit && busyUntil > (double) (firstTick + t + 1) / ticksPerMinute) t++;
+            return t;
+        }
+
+        if (rate <= 0 || lines.raw(c).isEmpty()) return limit;
+        // step the accumulator ahead over the ticks where it stays short of a whole passenger; those
+        // steps are committed, and serviceAndTransfers skips the server until it catches up
+        double ratePerTick = rate / ticksPerMinute;
+        double[] progress = counter ? counterProgress : checkpointProgress;
+        int[] progressTick = counter ? counterProgressTick : checkpointProgressTick;
+        catchUp(progress, progressTick, c, ratePerTick, firstTick + from);
+        int t = Math.max(from, progressTick[c] - firstTick);
+        double p = progress[c];
+        while (t < limit && (int) Math.floor(p + ratePerTick) < 1) {
+            p += ratePerTick;
+            t++;
+        }
+        if (firstTick + t > progressTick[c]) {
+            progress[c] = p;
+            progressTick[c] = firstTick + t;
+        }
+        return Math.min(t, limit);
+    }
+
+    /**
+     * Step 1 for one flight and one tick: its share of this minute's arrivals, in-person to the
+     * counters, online to the checkpoints.
+     */
+    private void arrive(int fi, int inPersonHere, int onlineHere, int minute, int t) {
+        int inPerson = tickShare(inPersonHere, t + 1) - tickShare(inPersonHere, t);
+        int online = tickShare(onlineHere, t + 1) - tickShare(onlineHere, t);
+
+        // enqueue in-person to the ticket counters accepting the flight
+        if (inPerson > 0) {
+            ensureCohortCapacity(inPerson);
+            for (int i = 0; i < inPerson; i++) cohortIds[i] = newPassenger(fi, minute, true);
+            ticketRouter.routeBatch(ticketGroupByFlight[fi], cohortIds, inPerson, cohortLines);
+            for (int i = 0; i < inPerson; i++) {
+                addLogged(ticketLines, queuedTicketTimeline, cohortLines[i], cohortIds[i]);
+            }
+        }
+        // online -> checkpoint
+        if (online > 0) {
+            ensureCohortCapacity(online);
+            for (int i = 0; i < online; i++) {
+                cohortIds[i] = newPassenger(fi, minute, false);
+                store.setCheckpointEntryMinute(cohortIds[i], minute);
             }
+            routeToCheckpoints(online);
+        }
+    }
 
-            int closeIdx = getBoardingCloseIdx(f);
-            if (minute == closeIdx) handleBoardingCloseMarkMissed(f);
+    /**
+     * Bring server c's accumulator up to the start of tick. The ticks it was left behind had nobody
+     * to serve, so each is replayed as steps 2 and 4 would run it with an empty line: add the rate,
+     * drop the whole passengers. Repeating the additions (rather than one multiply) keeps the
+     * double rounding identical to the stepper's.
+     */
+    private static void catchUp(double[] progress, int[] progressTick, int c, double ratePerTick, int tick) {
+        double p = progress[c];
+        for (int t = progressTick[c]; t < tick; t++) {
+            p += ratePerTick;
+            p -= (int) Math.floor(p);
         }
+        progress[c] = p;
+        progressTick[c] = Math.max(progressTick[c], tick);
+    }
 
+    /**
+     * Steps 2-5 for one tick of minute: counter service, transfer to the checkpoints, checkpoint
+     * service, transfer to the hold rooms. Rates are split per tick; times recorded on passengers
+     * stay in minutes.
+     */
+    private void serviceAndTransfers(int minute, int tick) {
         // 2) ticket-counter service (TicketCounterConfig rate is passengers/minute)
         for (int c = 0; c < counterConfigs.size(); c++) {
-            double ratePerInterval = getTicketCounterRatePerInterval(c);
-            counterProgress[c] += ratePerInterval;
+            if (stochasticModel != null) {
+                serveStochastic(true, c, minute, tick);
+                continue;
+            }
+            // already stepped past this tick by nextServiceTick, finishing nobody
+            if (counterProgressTick[c] > tick) continue;
+            double ratePerTick = getTicketCounterRatePerInterval(c) / ticksPerMinute;
+            catchUp(counterProgress, counterProgressTick, c, ratePerTick, tick);
+            counterProgress[c] += ratePerTick;
+            counterProgressTick[c] = tick + 1;
 
             int toComplete = (int) Math.floor(counterProgress[c]);
             counterProgress[c] -= toComplete;
 
             for (int k = 0; k < toComplete; k++) {
-                Passenger next = takeFirstNotMissed(ticketLines.get(c));
-                if (next == null) break;
-
-                next.setTicketCompletionMinute(minute);
-                completedTicketLines.get(c).add(next);
-                ticketCompletedVisible.add(next);
-
-                if (!next.isMissed()) {
-                    pendingToCP.computeIfAbsent(minute + transitDelayMinutes, x -> new ArrayList<>())
-                            .add(next);
-                }
+                int next = ticketLines.takeFirst(c, isMissed, exitTo(queuedTicketTimeline));
+                if (next == NONE) break;
+                logExit(queuedTicketTimeline, c, next);
+                completeTicket(c, next, minute, tick);
             }
         }
         // 3) move from ticket -> checkpoint
-        List<Passenger> toMove = pendingToCP.remove(minute);
-        if (toMove != null) {
-            for (Passenger p : toMove) {
-                if (p == null || p.isMissed()) continue;
-                ticketCompletedVisible.remove(p);
-                p.setCheckpointEntryMinute(minute);
-
-                int bestC = 0;
-                for (int j = 1; j < numCheckpoints; j++) {
-                    if (checkpointLines.get(j).size() < checkpointLines.get(bestC).size()) bestC = j;
-                }
-                checkpointLines.get(bestC).add(p);
+        IntQueue toMove = pendingToCP.poll(tick);
+        if (!toMove.isEmpty()) {
+            ensureCohortCapacity(toMove.size());
+            int n = 0;
+            for (int i = 0; i < toMove.size(); i++) {
+                int id = toMove.get(i);
+                if (store.isMissed(id)) continue;
+                visibleCompletedTicketLines.removeTracked(id, null);
+                store.setCheckpointEntryMinute(id, minute);
+                cohortIds[n++] = id;
             }
+            routeToCheckpoints(n);
         }
 
         // 4) checkpoint service (per-checkpoint passengers/hour -> per interval)
         for (int c = 0; c < numCheckpoints; c++) {
-            double ratePerInterval = getCheckpointRatePerInterval(c);
-            checkpointProgress[c] += ratePerInterval;
+            if (stochasticModel != null) {
+                serveStochastic(false, c, minute, tick);
+                continue;
+            }
+            // already stepped past this tick by nextServiceTick, finishing nobody
+            if (checkpointProgressTick[c] > tick) continue;
+            double ratePerTick = getCheckpointRatePerInterval(c) / ticksPerMinute;
+            catchUp(checkpointProgress, checkpointProgressTick, c, ratePerTick, tick);
+            checkpointProgress[c] += ratePerTick;
+            checkpointProgressTick[c] = tick + 1;
 
             int toComplete = (int) Math.floor(checkpointProgress[c]);
             checkpointProgress[c] -= toComplete;
 
             for (int k = 0; k < toComplete; k++) {
-                Passenger next = takeFirstNotMissed(checkpointLines.get(c));
-                if (next == null) break;
-
-                next.setCheckpointCompletionMinute(minute);
-                completedCheckpointLines.get(c).add(next);
-
-                if (!next.isMissed()) {
-                    Flight f = next.getFlight();
-                    int targetRoom = chosenHoldRoomIndexByFlight.getOrDefault(f, 0);
-                    targetRoom = clamp(targetRoom, 0, holdRoomConfigs.size() - 1);
-
-                    next.setAssignedHoldRoomIndex(targetRoom);
+                int next = checkpointLines.takeFirst(c, isMissed, exitTo(queuedCheckpointTimeline));
+                if (next == NONE) break;
+                logExit(queuedCheckpointTimeline, c, next);
+                completeCheckpoint(c, next, minute, tick);
+            }
+        }
+        // 5) move from checkpoint -> hold-room
+        IntQueue toHold = pendingToHold.poll(tick);
+        if (!toHold.isEmpty()) {
+            for (int i = 0; i < toHold.size(); i++) {
+                int id = toHold.get(i);
+                if (store.isMissed(id)) continue;
+
+                int fi = store.flightIndex(id);
+                if (minute < schedule.closeMinute(fi)) {
+                    int roomIdx = store.assignedHoldRoomIndex(id);
+                    if (roomIdx < 0) {
+                        roomIdx = chosenRoomByFlight[fi];
+                        store.setAssignedHoldRoomIndex(id, roomIdx);
+                    }
+                    roomIdx = clamp(roomIdx, 0, holdRoomLines.lineCount() - 1);
 
-                    int walkSeconds = safeWalkSeconds(holdRoomConfigs.get(targetRoom));
-                    int delayMin = ceilMinutesFromSeconds(walkSeconds);
+                    removeFromCompletedCheckpointLines(id);
 
-                    int arriveMinute = minute + delayMin;
-                    pendingToHold.computeIfAbsent(arriveMinute, x -> new ArrayList<>())
-                            .add(next);
+                    store.setHoldRoomEntryMinute(id, minute);
+                    store.setHoldRoomSequence(id, holdRoomLines.size(roomIdx) + 1);
+                    addLogged(holdRoomLines, holdRoomTimeline, roomIdx, id);
                 }
+                // else: too late, the flight has closed and the store already reports this passenger missed
             }
         }
-        // 5) move from checkpoint -> hold-room
-        List<Passenger> toHold = pendingToHold.remove(minute);
-        if (toHold != null) {
-            for (Passenger p : toHold) {
-                if (p == null || p.isMissed()) continue;
+    }
 
-                Flight f = p.getFlight();
-                int closeIdx = getBoardingCloseIdx(f);
+    /** Counter c has finished with id: to the served line, and on its way to a checkpoint. */
+    private void completeTicket(int c, int id, int minute, int tick) {
+        store.setTicketCompletionMinute(id, minute);
+        addLogged(completedTicketLines, servedTicketTimeline, c, id);
+        visibleCompletedTicketLines.add(c, id);
 
-                if (minute < closeIdx) {
-                    int roomIdx = p.getAssignedHoldRoomIndex();
-                    if (roomIdx < 0) {
-                        roomIdx = chosenHoldRoomIndexByFlight.getOrDefault(f, 0);
-                        p.setAssignedHoldRoomIndex(roomIdx);
-                    }
-                    roomIdx = clamp(roomIdx, 0, holdRoomLines.size() - 1);
+        if (!store.isMissed(id)) {
+            pendingToCP.schedule(tick + transitDelayMinutes * ticksPerMinute, id);
+        }
+    }
 
-                    removeFromCompletedCheckpointLines(p);
+    /** Checkpoint c has finished with id: to the served line, and walking to its hold room. */
+    private void completeCheckpoint(int c, int id, int minute, int tick) {
+        store.setCheckpointCompletionMinute(id, minute);
+        addLogged(completedCheckpointLines, servedCheckpointTimeline, c, id);
 
-                    p.setHoldRoomEntryMinute(minute);
-                    int seq = holdRoomLines.get(roomIdx).size() + 1;
-                    p.setHoldRoomSequence(seq);
-                    holdRoomLines.get(roomIdx).add(p);
-                } else {
-                    p.setMissed(true);
-                }
+        if (!store.isMissed(id)) {
+            int targetRoom = clamp(chosenRoomByFlight[store.flightIndex(id)], 0, holdRoomConfigs.size() - 1);
+            store.setAssignedHoldRoomIndex(id, targetRoom);
+
+            int walkSeconds = safeWalkSeconds(holdRoomConfigs.get(targetRoom));
+            pendingToHold.schedule(tick + ceilTicksFromSeconds(walkSeconds), id);
+        }
+    }
+
+    /**
+     * Stochastic service of one server (counter or checkpoint c) over one tick. The passenger in
+     * service leaves the line when service starts and is done at busyUntil; the next one starts
+     * right then (or at the start of the tick if the server sat idle) with a fresh service time,
+     * so a tick can finish several short services or none.
+     */
+    private void serveStochastic(boolean counter, int c, int minute, int tick) {
+        PassengerLines lines = counter ? ticketLines : checkpointLines;
+        PassengerTimeline queued = counter ? queuedTicketTimeline : queuedCheckpointTimeline;
+        int[] serving = counter ? counterServing : checkpointServing;
+        double[] busyUntil = counter ? counterBusyUntil : checkpointBusyUntil;
+        RandomStreams.ServiceSampler sampler = counter ? counterSampler : checkpointSampler;
+        double rate = counter ? getTicketCounterRatePerInterval(c) : getCheckpointRatePerInterval(c);
+
+        double tickStart = (double) tick / ticksPerMinute;
+        double tickEnd = (double) (tick + 1) / ticksPerMinute;
+        while (true) {
+            if (serving[c] != NONE && store.isMissed(serving[c])) {
+                // the flight closed mid-service: the server is free from here
+                serving[c] = NONE;
+                busyUntil[c] = Math.min(busyUntil[c], tickStart);
             }
+            if (serving[c] == NONE) {
+                if (rate <= 0) return;
+                int next = lines.takeFirst(c, isMissed, exitTo(queued));
+                if (next == NONE) return;
+                logExit(queued, c, next);
+                serving[c] = next;
+                busyUntil[c] = Math.max(busyUntil[c], tickStart) + sampler.sample(c, minute, 1.0 / rate);
+            }
+            if (busyUntil[c] > tickEnd) return;
+
+            int done = serving[c];
+            serving[c] = NONE;
+            if (counter) completeTicket(c, done, minute, tick);
+            else completeCheckpoint(c, done, minute, tick);
         }
+    }
 
+    /** Steps 5.5-7, then advance the clock and record the interval's metrics. */
+    private void finishInterval(int minute, List<Flight> flightsDepartingThisMinute) {
         // 5.5) Departure: clear hold rooms at departure time
+        store.setDepartedThrough(minute);
         if (!flightsDepartingThisMinute.isEmpty()) {
             for (Flight f : flightsDepartingThisMinute) clearFlightFromHoldRooms(f);
         }
 
         // 6) record history (snapshot moment)
-        historyServedTicket.add(deepCopyPassengerLists(completedTicketLines));
-        historyQueuedTicket.add(deepCopyPassengerLists(ticketLines));
-        historyServedCheckpoint.add(deepCopyPassengerLists(completedCheckpointLines));
-        historyQueuedCheckpoint.add(deepCopyPassengerLists(checkpointLines));
-        historyHoldRooms.add(deepCopyPassengerLists(holdRoomLines));
+        if (isLoggingHistory()) {
+            servedTicketTimeline.markStep();
+            queuedTicketTimeline.markStep();
+            servedCheckpointTimeline.markStep();
+            queuedCheckpointTimeline.markStep();
+            holdRoomTimeline.markStep();
+        }
 
         // 6.5) close clear after snapshot
+        store.setClearedThrough(minute);
         if (!justClosedFlights.isEmpty()) {
             for (Flight f : justClosedFlights) clearFlightFromNonHoldAreas(f);
         }
 
-        // 7) purge missed passengers
-        removeMissedPassengers();
+        // 7) missed passengers need no sweep: dead entries are skipped and compacted lazily
 
         // advance
         currentInterval++;
+        if (replaying) return;
 
-        int stillInTicketQueue = ticketLines.stream().mapToInt(List::size).sum();
-        int stillInCheckpointQueue = checkpointLines.stream().mapToInt(List::size).sum();
-        heldUpsByInterval.put(currentInterval, stillInTicketQueue + stillInCheckpointQueue);
+        int stillInTicketQueue = ticketLines.totalSize();
+        int stillInCheckpointQueue = checkpointLines.totalSize();
+        heldUpsByInterval.set(currentInterval, stillInTicketQueue + stillInCheckpointQueue);
+        peakHeldUpsByInterval.set(currentInterval, Math.max(tickPeak, stillInTicketQueue + stillInCheckpointQueue));
 
         recordQueueTotalsForCurrentInterval();
         appendSnapshotAfterInterval();
     }
 
+    /** Fresh passenger id at the frontier; during replay the id recorded for this slot, reset to its initial state. */
+    private int newPassenger(int flightIdx, int minute, boolean inPerson) {
+        if (replaying) {
+            int id = replayNextId++;
+            store.resetState(id);
+            return id;
+        }
+        return store.add(flightIdx, minute, inPerson);
+    }
+
     // ============================
     // Missed purge
     // ============================
 
+    /**
+     * Physically drop the entries of closed (and departed) flights from every line now.
+     * The simulation does not need this (dead entries are skipped and compacted lazily);
+     * it only trims memory.
+     */
     public void removeMissedPassengers() {
-        ticketLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        completedTicketLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        checkpointLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        completedCheckpointLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        holdRoomLines.forEach(line -> line.removeIf(Passenger::isMissed));
-    }
-
-    private List<List<Passenger>> deepCopyPassengerLists(List<LinkedList<Passenger>> original) {
-        List<List<Passenger>> copy = new ArrayList<>();
-        for (LinkedList<Passenger> line : original) copy.add(new ArrayList<>(line));
-        return copy;
+        ticketLines.compactAll(exitTo(queuedTicketTimeline));
+        completedTicketLines.compactAll(exitTo(servedTicketTimeline));
+        visibleCompletedTicketLines.compactAll(null);
+        checkpointLines.compactAll(exitTo(queuedCheckpointTimeline));
+        completedCheckpointLines.compactAll(exitTo(servedCheckpointTimeline));
+        holdRoomLines.compactAll(exitTo(holdRoomTimeline));
     }
 
     private void clearHistory() {
@@ -1091,48 +1779,22 @@ public class SimulationEngine {
         historyArrivedToCheckpoint.clear();
         historyCPLineSize.clear();
         historyPassedCheckpoint.clear();
-        historyServedTicket.clear();
-        historyQueuedTicket.clear();
+        servedTicketTimeline.clear();
+        queuedTicketTimeline.clear();
         historyOnlineArrivals.clear();
         historyFromTicketArrivals.clear();
-        historyServedCheckpoint.clear();
-        historyQueuedCheckpoint.clear();
-        historyHoldRooms.clear();
+        servedCheckpointTimeline.clear();
+        queuedCheckpointTimeline.clear();
+        holdRoomTimeline.clear();
 
         Arrays.fill(counterProgress, 0);
         Arrays.fill(checkpointProgress, 0);
+        Arrays.fill(counterProgressTick, 0);
+        Arrays.fill(checkpointProgressTick, 0);
         pendingToCP.clear();
         pendingToHold.clear();
-        ticketCompletedVisible.clear();
-        holdRoomLines.forEach(LinkedList::clear);
-    }
-
-    private static List<LinkedList<Passenger>> deepCopyLinkedLists(List<LinkedList<Passenger>> original) {
-        List<LinkedList<Passenger>> copy = new ArrayList<>(original.size());
-        for (LinkedList<Passenger> line : original) copy.add(new LinkedList<>(line));
-        return copy;
-    }
-
-    private static void restoreLinkedListsInPlace(List<LinkedList<Passenger>> target,
-                                                 List<LinkedList<Passenger>> source) {
-        if (target.size() != source.size()) {
-            target.clear();
-            for (LinkedList<Passenger> src : source) target.add(new LinkedList<>(src));
-            return;
-        }
-        for (int i = 0; i < target.size(); i++) {
-            LinkedList<Passenger> t = target.get(i);
-            t.clear();
-            t.addAll(source.get(i));
-        }
-    }
-
-    private static Map<Integer, List<Passenger>> deepCopyPendingMap(Map<Integer, List<Passenger>> original) {
-        Map<Integer, List<Passenger>> copy = new HashMap<>();
-        for (Map.Entry<Integer, List<Passenger>> e : original.entrySet()) {
-            copy.put(e.getKey(), new ArrayList<>(e.getValue()));
-        }
-        return copy;
+        visibleCompletedTicketLines.clear();
+        holdRoomLines.clear();
     }
 
     // ============================
@@ -1157,25 +1819,24 @@ public class SimulationEngine {
         return getTotalArrivalsAtMinute(intervalIndex - 1);
     }
 
-    /** Helper used by getTotalArrivalsAtInterval */
+    /** Helper used by getTotalArrivalsAtInterval (all flights, in person + online) */
     public int getTotalArrivalsAtMinute(int minuteSinceGlobalStart) {
-        int sum = 0;
-
-        for (Flight f : flights) {
-            int[] perMin = minuteArrivalsMap.get(f);
-            if (perMin == null) continue;
+        return (minuteSinceGlobalStart >= 0 && minuteSinceGlobalStart < totalArrivalsByMinute.length)
+                ? totalArrivalsByMinute[minuteSinceGlobalStart]
+                : 0;
+    }
 
-            long offset = Duration.between(
-                    globalStart,
-                    f.getDepartureTime().minusMinutes(arrivalSpanMinutes)
-            ).toMinutes();
+    /** Arrivals of all flights in minutes [fromMinute, toMinute) since globalStart. */
+    public int getTotalArrivalsBetween(int fromMinute, int toMinute) {
+        int last = totalArrivalsByMinute.length;
+        int from = Math.max(0, Math.min(last, fromMinute));
+        int to = Math.max(0, Math.min(last, toMinute));
+        return (to > from) ? cumulativeArrivals[to] - cumulativeArrivals[from] : 0;
+    }
 
-            int idx = minuteSinceGlobalStart - (int) offset;
-            if (idx >= 0 && idx < perMin.length) {
-                sum += perMin[idx];
-            }
-        }
-        return sum;
+    /** Arrivals of all flights from minute 0 through minuteSinceGlobalStart (inclusive). */
+    public int getCumulativeArrivalsThroughMinute(int minuteSinceGlobalStart) {
+        return getTotalArrivalsBetween(0, minuteSinceGlobalStart + 1);
     }
 
     // ============================
@@ -1193,40 +1854,75 @@ public class SimulationEngine {
     // PUBLIC GETTERS
     // ============================
     public List<Flight> getFlights() { return flights; }
+    public CompiledSchedule getSchedule() { return schedule; }
     public int getArrivalSpan() { return arrivalSpanMinutes; }
     public int getInterval() { return intervalMinutes; }
     public int getTotalIntervals() { return totalIntervals; }
     public int getCurrentInterval() { return currentInterval; }
-    public List<LinkedList<Passenger>> getTicketLines() { return ticketLines; }
-    public List<LinkedList<Passenger>> getCheckpointLines() { return checkpointLines; }
-    public List<LinkedList<Passenger>> getCompletedTicketLines() { return completedTicketLines; }
-    public List<LinkedList<Passenger>> getCompletedCheckpointLines() { return completedCheckpointLines; }
-    public List<LinkedList<Passenger>> getHoldRoomLines() { return holdRoomLines; }
+    // Live, read-only views: Passenger objects are materialized from the store as they are read
+    public List<List<Passenger>> getTicketLines() { return ticketLines.views(); }
+    public List<List<Passenger>> getCheckpointLines() { return checkpointLines.views(); }
+    public List<List<Passenger>> getCompletedTicketLines() { return completedTicketLines.views(); }
+    public List<List<Passenger>> getCompletedCheckpointLines() { return completedCheckpointLines.views(); }
+    public List<List<Passenger>> getHoldRoomLines() { return holdRoomLines.views(); }
     public int getTransitDelayMinutes() { return transitDelayMinutes; }
     public int getHoldDelayMinutes() { return holdDelayMinutes; }
     public List<HoldRoomConfig> getHoldRoomConfigs() { return Collections.unmodifiableList(holdRoomConfigs); }
     public List<TicketCounterConfig> getCounterConfigs() { return Collections.unmodifiableList(counterConfigs); }
     public List<CheckpointConfig> getCheckpointConfigs() { return Collections.unmodifiableList(checkpointConfigs); }
 
+    public double getPercentInPerson() { return percentInPerson; }
+
+    /** Takes effect for arrivals simulated after the call (normally: set, then reset()). */
+    public void setPercentInPerson(double percentInPerson) {
+        this.percentInPerson = Math.max(0.0, Math.min(1.0, percentInPerson));
+    }
+
     public int getSqftPerPassenger() { return sqftPerPassenger; }
     public void setSqftPerPassenger(int sqftPerPassenger) {
         this.sqftPerPassenger = Math.max(1, sqftPerPassenger);
     }
 
-    public int getHoldRoomCellSize(Flight f) {
-        return holdRoomCellSize.getOrDefault(f, GridRenderer.MIN_CELL_SIZE);
+    public int getChosenHoldRoomIndex(Flight f) {
+        int fi = schedule.indexOf(f);
+        return clamp((fi < 0) ? 0 : chosenRoomByFlight[fi], 0, holdRoomConfigs.size() - 1);
     }
 
+    /** Read-only live view; no per-paint filtering (entries leave it through their handles). */
     public List<Passenger> getVisibleCompletedTicketLine(int idx) {
-        List<Passenger> visible = new ArrayList<>();
-        for (Passenger p : completedTicketLines.get(idx)) {
-            if (ticketCompletedVisible.contains(p)) visible.add(p);
-        }
-        return visible;
+        return visibleCompletedTicketLines.views().get(idx);
+    }
+
+    /** Passengers that were in a hold room when f departed (0 until its departure interval has run). */
+    public int getBoardedCount(Flight f) {
+        int fi = schedule.indexOf(f);
+        return (fi < 0) ? 0 : Math.max(0, boardedByFlight[fi]);
     }
 
+    /** Passengers of f created so far (its arrivals up to the furthest computed interval). */
+    public int getGeneratedCount(Flight f) {
+        int fi = schedule.indexOf(f);
+        return (fi < 0) ? 0 : store.count(fi);
+    }
+
+    /**
+     * Passengers of f the run created but who were not in a hold room when it departed (still
+     * queued, walking, or too late for boarding close). 0 until its departure interval has run.
+     */
+    public int getMissedCount(Flight f) {
+        int fi = schedule.indexOf(f);
+        if (fi < 0 || boardedByFlight[fi] == NOT_DEPARTED) return 0;
+        return Math.max(0, store.count(fi) - boardedByFlight[fi]);
+    }
+
+    public boolean hasDeparted(Flight f) {
+        int fi = schedule.indexOf(f);
+        return fi >= 0 && boardedByFlight[fi] != NOT_DEPARTED;
+    }
+
+    /** Copy of the held-up series as a map (keys start at 1). Prefer getHeldUpSeries(). */
     public Map<Integer, Integer> getHoldUpsByInterval() {
-        return new LinkedHashMap<>(heldUpsByInterval);
+        return heldUpsView.toMap(1);
     }
 
     // ============================
@@ -1234,37 +1930,42 @@ public class SimulationEngine {
     // ============================
 
     public int getTicketQueuedAtInterval(int intervalIndex) {
-        Integer v = ticketQueuedByInterval.get(intervalIndex);
-        return v == null ? 0 : v;
+        return ticketQueuedView.get(intervalIndex);
     }
 
     public int getCheckpointQueuedAtInterval(int intervalIndex) {
-        Integer v = checkpointQueuedByInterval.get(intervalIndex);
-        return v == null ? 0 : v;
+        return checkpointQueuedView.get(intervalIndex);
     }
 
     public int getHoldRoomTotalAtInterval(int intervalIndex) {
-        Integer v = holdRoomTotalByInterval.get(intervalIndex);
-        return v == null ? 0 : v;
+        return holdRoomTotalView.get(intervalIndex);
     }
 
+    /** Copies; prefer the get*Series() views, which do not allocate. */
     public Map<Integer, Integer> getTicketQueuedByInterval() {
-        return new LinkedHashMap<>(ticketQueuedByInterval);
+        return ticketQueuedView.toMap(0);
     }
     public Map<Integer, Integer> getCheckpointQueuedByInterval() {
-        return new LinkedHashMap<>(checkpointQueuedByInterval);
+        return checkpointQueuedView.toMap(0);
     }
     public Map<Integer, Integer> getHoldRoomTotalByInterval() {
-        return new LinkedHashMap<>(holdRoomTotalByInterval);
+        return holdRoomTotalView.toMap(0);
     }
 
+    // Zero-copy, read-only views (index = interval, live: they follow rewinds / new intervals)
+    public IntTimeSeries.View getHeldUpSeries() { return heldUpsView; }
+    public IntTimeSeries.View getPeakHeldUpSeries() { return peakHeldUpsView; }
+    public IntTimeSeries.View getTicketQueuedSeries() { return ticketQueuedView; }
+    public IntTimeSeries.View getCheckpointQueuedSeries() { return checkpointQueuedView; }
+    public IntTimeSeries.View getHoldRoomTotalSeries() { return holdRoomTotalView; }
+
     private void recordQueueTotalsForCurrentInterval() {
-        int ticketWaiting = ticketLines.stream().mapToInt(List::size).sum();
-        int checkpointWaiting = checkpointLines.stream().mapToInt(List::size).sum();
-        int holdTotal = holdRoomLines.stream().mapToInt(List::size).sum();
+        int ticketWaiting = ticketLines.totalSize();
+        int checkpointWaiting = checkpointLines.totalSize();
+        int holdTotal = holdRoomLines.totalSize();
 
-        ticketQueuedByInterval.put(currentInterval, ticketWaiting);
-        checkpointQueuedByInterval.put(currentInterval, checkpointWaiting);
-        holdRoomTotalByInterval.put(currentInterval, holdTotal);
+        ticketQueuedByInterval.set(currentInterval, ticketWaiting);
+        checkpointQueuedByInterval.set(currentInterval, checkpointWaiting);
+        holdRoomTotalByInterval.set(currentInterval, holdTotal);
     }
 }
@@ -0,0 +1,67 @@
+package sim.service;
+
+/**
+ * Settings for a stochastic run (SimulationEngine.setStochasticModel; null = deterministic).
+ *
+ * Every random number of the run comes from the master seed, so the same seed gives the same
+ * run, rewinds included, and runs with different seeds are independent replicates.
+ *
+ *  - service: each counter / checkpoint is one server; service times are EXPONENTIAL or
+ *    LOGNORMAL around the configured rate's mean (1 / rate), LOGNORMAL with serviceCv
+ *  - arrivals: each flight-minute's count is Poisson around the arrival curve's value
+ *  - in-person split: Binomial(arrivals, percentInPerson) instead of rounding
+ */
+public final class StochasticModel {
+
+    public enum ServiceDistribution {
+        EXPONENTIAL,
+        LOGNORMAL
+    }
+
+    private final long seed;
+    private ServiceDistribution serviceDistribution = ServiceDistribution.EXPONENTIAL;
+    // coefficient of variation (stddev / mean) for LOGNORMAL service times
+    private double serviceCv = 0.5;
+    private boolean poissonArrivals = true;
+    private boolean binomialSplit = true;
+
+    public StochasticModel(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() { return seed; }
+
+    /** Same settings, another master seed (Monte Carlo replicates). */
+    public StochasticModel withSeed(long newSeed) {
+        StochasticModel m = new StochasticModel(newSeed);
+        m.serviceDistribution = serviceDistribution;
+        m.serviceCv = serviceCv;
+        m.poissonArrivals = poissonArrivals;
+        m.binomialSplit = binomialSplit;
+        return m;
+    }
+
+    public ServiceDistribution getServiceDistribution() { return serviceDistribution; }
+    public void setServiceDistribution(ServiceDistribution d) {
+        this.serviceDistribution = (d == null) ? ServiceDistribution.EXPONENTIAL : d;
+    }
+
+    public double getServiceCv() { return serviceCv; }
+    public void setServiceCv(double cv) { this.serviceCv = Math.max(0.01, cv); }
+
+    public boolean isPoissonArrivals() { return poissonArrivals; }
+    public void setPoissonArrivals(boolean poissonArrivals) { this.poissonArrivals = poissonArrivals; }
+
+    public boolean isBinomialSplit() { return binomialSplit; }
+    public void setBinomialSplit(boolean binomialSplit) { this.binomialSplit = binomialSplit; }
+
+    @Override
+    public String toString() {
+        return "StochasticModel{seed=" + seed +
+                ", service=" + serviceDistribution +
+                (serviceDistribution == ServiceDistribution.LOGNORMAL ? " cv=" + serviceCv : "") +
+                ", poissonArrivals=" + poissonArrivals +
+                ", binomialSplit=" + binomialSplit +
+                '}';
+    }
+}
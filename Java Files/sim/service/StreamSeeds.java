@@ -0,0 +1,47 @@
+package sim.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * The seeds of one run's independent random streams, all derived from a single master seed.
+ *
+ * The master SplittableRandom is split once per stream (arrivals, in-person split, counter
+ * service, checkpoint service, hold-room ties). A stream never carries state from one minute to
+ * the next: the generator for (stream, key, minute) is seeded from the stream seed, the key
+ * (flight or lane) and the minute. A replayed minute therefore draws exactly what the frontier
+ * drew, with no random state in the rewind snapshots, and two runs never share a stream.
+ *
+ * JDK only: a deterministic run draws nothing but hold-room ties, and does so without
+ * RandomStreams and the commons-math distributions behind it.
+ */
+final class StreamSeeds {
+
+    /** Seed for the deterministic engine's only random choice (hold-room ties). */
+    static final long DEFAULT_SEED = 0x5EEDL;
+
+    static final int ARRIVALS = 0;
+    static final int IN_PERSON_SPLIT = 1;
+    static final int COUNTER_SERVICE = 2;
+    static final int CHECKPOINT_SERVICE = 3;
+    static final int HOLD_ROOM_TIES = 4;
+    private static final int STREAMS = 5;
+
+    private final long[] streamSeeds = new long[STREAMS];
+
+    StreamSeeds(long masterSeed) {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        for (int s = 0; s < STREAMS; s++) streamSeeds[s] = master.split().nextLong();
+    }
+
+    /** Fresh generator for (stream, key, minute); the same triple always gives the same sequence. */
+    SplittableRandom at(int stream, int key, int minute) {
+        long k = streamSeeds[stream] + key * 0x9E3779B97F4A7C15L + minute * 0xC2B2AE3D27D4EB4FL;
+        return new SplittableRandom(mix(k));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
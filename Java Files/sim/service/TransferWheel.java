@@ -0,0 +1,163 @@
+package sim.service;
+
+import java.util.BitSet;
+
+/**
+ * Timing wheel for passengers in transit (ticket -> checkpoint, checkpoint -> hold room).
+ *
+ * A ring of id buckets indexed by minute & (span - 1), each bucket tagged with the minute it
+ * holds ("minute" is the engine's time slot: a tick in sub-minute mode). Transfer delays are a
+ * few minutes, so everything in flight fits in a small ring:
+ *  - schedule / poll are O(1), no boxing, no map entries
+ *  - the ring doubles on the rare collision (two pending minutes on one slot), so it ends up
+ *    just larger than the longest delay without being told the delays
+ *  - a snapshot is the non-empty buckets packed into three int[]
+ */
+final class TransferWheel {
+
+    private IntQueue[] buckets;
+    private int[] bucketMinute;
+    private int mask;
+    // earliest minute with anyone due (Integer.MAX_VALUE when empty); rescanned lazily after a poll drains it
+    private int earliest = Integer.MAX_VALUE;
+    private boolean earliestStale;
+
+    // handed out by poll(); swapped with the drained bucket so polling never allocates
+    private IntQueue spare = new IntQueue();
+
+    TransferWheel() {
+        this(8);
+    }
+
+    /** @param span initial ring size, rounded up to a power of two */
+    TransferWheel(int span) {
+        int n = Integer.highestOneBit(Math.max(2, span) - 1) << 1;
+        buckets = new IntQueue[n];
+        bucketMinute = new int[n];
+        for (int i = 0; i < n; i++) buckets[i] = new IntQueue();
+        mask = n - 1;
+    }
+
+    int span() { return buckets.length; }
+
+    void schedule(int minute, int id) {
+        int slot = minute & mask;
+        while (!buckets[slot].isEmpty() && bucketMinute[slot] != minute) {
+            grow();
+            slot = minute & mask;
+        }
+        bucketMinute[slot] = minute;
+        buckets[slot].add(id);
+        if (minute < earliest) earliest = minute;
+    }
+
+    boolean hasDue(int minute) {
+        int slot = minute & mask;
+        return !buckets[slot].isEmpty() && bucketMinute[slot] == minute;
+    }
+
+    /** Earliest minute anyone is due (Integer.MAX_VALUE if nobody is in transit). O(span) after a drain, else O(1). */
+    int nextDue() {
+        if (earliestStale) {
+            earliest = Integer.MAX_VALUE;
+            for (int i = 0; i < buckets.length; i++) {
+                if (!buckets[i].isEmpty()) earliest = Math.min(earliest, bucketMinute[i]);
+            }
+            earliestStale = false;
+        }
+        return earliest;
+    }
+
+    /**
+     * Everyone due at minute, in scheduling order, removed from the wheel (empty if nobody).
+     * The returned queue is only valid until the next poll().
+     */
+    IntQueue poll(int minute) {
+        int slot = minute & mask;
+        spare.clear();
+        if (buckets[slot].isEmpty() || bucketMinute[slot] != minute) return spare;
+        IntQueue due = buckets[slot];
+        buckets[slot] = spare;
+        spare = due;
+        if (minute == earliest) earliestStale = true;
+        return due;
+    }
+
+    void clear() {
+        for (IntQueue b : buckets) b.clear();
+        earliest = Integer.MAX_VALUE;
+        earliestStale = false;
+    }
+
+    void collectIds(BitSet out) {
+        for (IntQueue b : buckets) {
+            for (int i = 0; i < b.size(); i++) out.set(b.get(i));
+        }
+    }
+
+    private void grow() {
+        IntQueue[] oldBuckets = buckets;
+        int[] oldMinutes = bucketMinute;
+        int n = oldBuckets.length * 2;
+        buckets = new IntQueue[n];
+        bucketMinute = new int[n];
+        mask = n - 1;
+        for (int i = 0; i < n; i++) buckets[i] = new IntQueue();
+        for (int i = 0; i < oldBuckets.length; i++) {
+            if (oldBuckets[i].isEmpty()) continue;
+            int slot = oldMinutes[i] & mask;
+            buckets[slot] = oldBuckets[i];
+            bucketMinute[slot] = oldMinutes[i];
+        }
+    }
+
+    // ==========================================================
+    // Snapshots
+    // ==========================================================
+
+    /** Non-empty buckets: minutes[k] owns ids[starts[k] .. starts[k + 1]). */
+    static final class Snapshot {
+        final int[] minutes;
+        final int[] starts;
+        final int[] ids;
+
+        Snapshot(int[] minutes, int[] starts, int[] ids) {
+            this.minutes = minutes;
+            this.starts = starts;
+            this.ids = ids;
+        }
+    }
+
+    Snapshot snapshot() {
+        int used = 0;
+        int total = 0;
+        for (IntQueue b : buckets) {
+            if (b.isEmpty()) continue;
+            used++;
+            total += b.size();
+        }
+        int[] minutes = new int[used];
+        int[] starts = new int[used + 1];
+        int[] ids = new int[total];
+        int k = 0;
+        int o = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            IntQueue b = buckets[i];
+            if (b.isEmpty()) continue;
+            minutes[k] = bucketMinute[i];
+            starts[k++] = o;
+            b.copyTo(ids, o);
+            o += b.size();
+        }
+        starts[used] = o;
+        return new Snapshot(minutes, starts, ids);
+    }
+
+    void restore(Snapshot s) {
+        clear();
+        for (int k = 0; k < s.minutes.length; k++) {
+            int minute = s.minutes[k];
+            for (int i = s.starts[k]; i < s.starts[k + 1]; i++) schedule(minute, s.ids[i]);
+        }
+    }
+}
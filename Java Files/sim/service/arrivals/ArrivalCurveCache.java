@@ -0,0 +1,144 @@
+package sim.service.arrivals;
+
+import sim.model.ArrivalCurveConfig;
+import sim.service.ArrivalGenerator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized per-minute arrival arrays, shared by every engine in the process.
+ *
+ * A flight's arrivals depend only on the curve (legacy, or the edited parameters), the arrival
+ * span and the flight's passenger count, so flights, engines and sweep points that agree on
+ * those three get the same array. Curve weights are memoized separately (per curve and span),
+ * so a new passenger count only costs the rounding step.
+ *
+ * Returned arrays are shared: callers must treat them as read-only.
+ * Safe for concurrent use. The cache is dropped wholesale when it grows past MAX_ENTRIES
+ * (large curve sweeps), rather than tracking recency.
+ */
+public final class ArrivalCurveCache {
+
+    public static final int MAX_ENTRIES = 1 << 16;
+
+    private static final ArrivalCurveCache SHARED = new ArrivalCurveCache();
+
+    private final Map<Key, int[]> arrays = new ConcurrentHashMap<>();
+    private final Map<Key, ArrivalGenerator> legacyShapes = new ConcurrentHashMap<>();
+    private final Map<Key, EditedSplitGaussianArrivalGenerator.Shape> editedShapes = new ConcurrentHashMap<>();
+
+    public static ArrivalCurveCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Key of one flight's arrivals. cfg null or in legacy mode = the legacy curve, whose
+     * parameters are then ignored. cfg is read, not kept: later edits do not change the key.
+     */
+    public static Key key(ArrivalCurveConfig cfg, int arrivalSpanMinutes, int totalPassengers) {
+        if (cfg == null || cfg.isLegacyMode()) {
+            return new Key(new int[]{0, arrivalSpanMinutes}, totalPassengers);
+        }
+        return new Key(new int[]{
+                1,
+                arrivalSpanMinutes,
+                cfg.getPeakMinutesBeforeDeparture(),
+                cfg.getLeftSigmaMinutes(),
+                cfg.getRightSigmaMinutes(),
+                cfg.isLateClampEnabled() ? 1 : 0,
+                cfg.getLateClampMinutesBeforeDeparture(),
+                cfg.getWindowStartMinutesBeforeDeparture(),
+                cfg.getBoardingCloseMinutesBeforeDeparture()
+        }, totalPassengers);
+    }
+
+    /** Per-minute arrivals for key (computed on first use). Do not write to the array. */
+    public int[] get(Key key) {
+        int[] cached = arrays.get(key);
+        if (cached != null) return cached;
+
+        int[] perMin = compute(key);
+        if (arrays.size() >= MAX_ENTRIES) clear();
+        int[] raced = arrays.putIfAbsent(key, perMin);
+        return (raced != null) ? raced : perMin;
+    }
+
+    /** Legacy curve (ArrivalGenerator, 1-minute buckets). */
+    public int[] legacy(int arrivalSpanMinutes, int totalPassengers) {
+        return get(key(null, arrivalSpanMinutes, totalPassengers));
+    }
+
+    /** Edited split-Gaussian curve; cfg should already be validateAndClamp()-ed. */
+    public int[] edited(ArrivalCurveConfig cfg, int arrivalSpanMinutes, int totalPassengers) {
+        return get(key(cfg, arrivalSpanMinutes, totalPassengers));
+    }
+
+    public int size() {
+        return arrays.size();
+    }
+
+    public void clear() {
+        arrays.clear();
+        legacyShapes.clear();
+        editedShapes.clear();
+    }
+
+    private int[] compute(Key key) {
+        Key shapeKey = key.shape();
+        if (key.curve[0] == 0) {
+            ArrivalGenerator gen = legacyShapes.computeIfAbsent(shapeKey,
+                    k -> new ArrivalGenerator(k.curve[1], 1));
+            return gen.generatePerMinuteArrivals(key.totalPassengers);
+        }
+        EditedSplitGaussianArrivalGenerator.Shape shape = editedShapes.computeIfAbsent(shapeKey,
+                k -> EditedSplitGaussianArrivalGenerator.shape(k.toConfig(), k.curve[1]));
+        return EditedSplitGaussianArrivalGenerator.distribute(shape, key.totalPassengers);
+    }
+
+    /** (curve, span, passengers); immutable value. */
+    public static final class Key {
+        // [0 = legacy | 1 = edited, span, edited parameters...]
+        private final int[] curve;
+        private final int totalPassengers;
+        private final int hash;
+
+        private Key(int[] curve, int totalPassengers) {
+            this.curve = curve;
+            this.totalPassengers = totalPassengers;
+            this.hash = 31 * Arrays.hashCode(curve) + totalPassengers;
+        }
+
+        /** The same curve and span, without the passenger count. */
+        private Key shape() {
+            return new Key(curve, -1);
+        }
+
+        private ArrivalCurveConfig toConfig() {
+            ArrivalCurveConfig c = ArrivalCurveConfig.legacyDefault();
+            c.setLegacyMode(false);
+            c.setPeakMinutesBeforeDeparture(curve[2]);
+            c.setLeftSigmaMinutes(curve[3]);
+            c.setRightSigmaMinutes(curve[4]);
+            c.setLateClampEnabled(curve[5] != 0);
+            c.setLateClampMinutesBeforeDeparture(curve[6]);
+            c.setWindowStartMinutesBeforeDeparture(curve[7]);
+            c.setBoardingCloseMinutesBeforeDeparture(curve[8]);
+            return c;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return totalPassengers == k.totalPassengers && Arrays.equals(curve, k.curve);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -3,9 +3,6 @@ package sim.service.arrivals;
 import sim.model.ArrivalCurveConfig;
 import sim.model.Flight;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class EditedSplitGaussianArrivalGenerator implements ArrivalCurveGenerator {
 
     @Override
@@ -17,11 +14,17 @@ public class EditedSplitGaussianArrivalGenerator implements ArrivalCurveGenerato
         if (cfg == null) cfg = ArrivalCurveConfig.legacyDefault();
         cfg.validateAndClamp();
 
+        return distribute(shape(cfg, arrivalSpanMinutes), totalPassengers);
+    }
+
+    /**
+     * Un-normalized split-Gaussian weight of every minute of the window.
+     * Depends only on the curve and the span, so ArrivalCurveCache shares one per curve.
+     */
+    static Shape shape(ArrivalCurveConfig cfg, int arrivalSpanMinutes) {
         int close = clamp(cfg.getBoardingCloseMinutesBeforeDeparture(), 0, arrivalSpanMinutes);
         int totalMinutes = arrivalSpanMinutes - close;
-        if (totalMinutes <= 0) return new int[0];
-
-        if (totalPassengers <= 0) return new int[totalMinutes];
+        if (totalMinutes <= 0) return new Shape(new double[0], 0.0, 0);
 
         int peak = clamp(cfg.getPeakMinutesBeforeDeparture(), close, arrivalSpanMinutes);
         int leftSigma = Math.max(1, cfg.getLeftSigmaMinutes());
@@ -58,37 +61,52 @@ public class EditedSplitGaussianArrivalGenerator implements ArrivalCurveGenerato
             sumW += pdf;
         }
 
-        if (sumW <= 0.0) {
+        int peakIdx = (int) Math.round(arrivalSpanMinutes - peak);
+        peakIdx = clamp(peakIdx, 0, totalMinutes - 1);
+        return new Shape(w, sumW, peakIdx);
+    }
+
+    /** totalPassengers spread over the shape, rounded by largest remainder. */
+    static int[] distribute(Shape shape, int totalPassengers) {
+        double[] w = shape.weights;
+        int totalMinutes = w.length;
+        if (totalMinutes == 0) return new int[0];
+
+        if (totalPassengers <= 0) return new int[totalMinutes];
+
+        if (shape.sum <= 0.0) {
             int[] fallback = new int[totalMinutes];
-            int peakIdx = (int) Math.round(arrivalSpanMinutes - peak);
-            peakIdx = clamp(peakIdx, 0, totalMinutes - 1);
-            fallback[peakIdx] = totalPassengers;
+            fallback[shape.fallbackIdx] = totalPassengers;
             return fallback;
         }
 
         int[] out = new int[totalMinutes];
-        double[] raw = new double[totalMinutes];
+        double[] frac = new double[totalMinutes];
 
         int floorSum = 0;
         for (int i = 0; i < totalMinutes; i++) {
-            raw[i] = (w[i] / sumW) * totalPassengers;
-            out[i] = (int) Math.floor(raw[i]);
+            double raw = (w[i] / shape.sum) * totalPassengers;
+            out[i] = (int) Math.floor(raw);
+            frac[i] = raw - out[i];
             floorSum += out[i];
         }
 
-        int remainder = totalPassengers - floorSum;
-        if (remainder > 0) {
-            List<Integer> idx = new ArrayList<>(totalMinutes);
-            for (int i = 0; i < totalMinutes; i++) idx.add(i);
-
-            idx.sort((a, b) -> Double.compare((raw[b] - out[b]), (raw[a] - out[a])));
+        LargestRemainder.distribute(out, frac, totalPassengers - floorSum);
+        return out;
+    }
 
-            for (int k = 0; k < remainder && k < idx.size(); k++) {
-                out[idx.get(k)]++;
-            }
+    /** Weights of one curve over one span; never written after shape() builds it. */
+    static final class Shape {
+        final double[] weights;
+        final double sum;
+        // all weights zero: everyone arrives at the peak minute
+        final int fallbackIdx;
+
+        Shape(double[] weights, double sum, int fallbackIdx) {
+            this.weights = weights;
+            this.sum = sum;
+            this.fallbackIdx = fallbackIdx;
         }
-
-        return out;
     }
 
     private static int clamp(int v, int lo, int hi) {
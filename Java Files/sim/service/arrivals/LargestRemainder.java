@@ -0,0 +1,72 @@
+package sim.service.arrivals;
+
+/**
+ * Largest-remainder rounding: after flooring every share, the leftover units go to the entries
+ * with the largest fractional parts, lowest index first on ties. This is exactly what a stable
+ * descending sort of the fractions would hand out, but found by selection on primitives in
+ * O(n) expected time instead of boxing and sorting every index.
+ */
+public final class LargestRemainder {
+
+    private LargestRemainder() { }
+
+    /**
+     * Add 1 to out[i] for the `remainder` entries with the largest frac[i].
+     * A remainder of frac.length or more gives every entry one unit.
+     */
+    public static void distribute(int[] out, double[] frac, int remainder) {
+        int n = frac.length;
+        if (remainder <= 0 || n == 0) return;
+        if (remainder >= n) {
+            for (int i = 0; i < n; i++) out[i]++;
+            return;
+        }
+
+        // fraction of the remainder-th largest entry; everything above it gets a unit for sure
+        double threshold = kthLargest(frac.clone(), remainder);
+        int above = 0;
+        for (double f : frac) if (f > threshold) above++;
+
+        int atThreshold = remainder - above;
+        for (int i = 0; i < n; i++) {
+            if (frac[i] > threshold) {
+                out[i]++;
+            } else if (atThreshold > 0 && frac[i] == threshold) {
+                out[i]++;
+                atThreshold--;
+            }
+        }
+    }
+
+    /** k-th largest value (k = 1 is the max) by quickselect; reorders a. */
+    private static double kthLargest(double[] a, int k) {
+        int lo = 0;
+        int hi = a.length - 1;
+        int target = k - 1;
+        while (lo < hi) {
+            double pivot = a[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (a[i] > pivot) i++;
+                while (a[j] < pivot) j--;
+                if (i <= j) {
+                    double t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            // a[lo..j] >= pivot, a[i..hi] <= pivot, anything between equals pivot
+            if (target <= j) {
+                hi = j;
+            } else if (target >= i) {
+                lo = i;
+            } else {
+                return a[target];
+            }
+        }
+        return a[target];
+    }
+}
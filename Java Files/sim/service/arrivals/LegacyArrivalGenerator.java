@@ -11,10 +11,10 @@ public class LegacyArrivalGenerator implements ArrivalCurveGenerator {
                                         ArrivalCurveConfig cfg,
                                         int arrivalSpanMinutes) {
 
-        sim.service.ArrivalGenerator legacy = new sim.service.ArrivalGenerator(arrivalSpanMinutes, 1);
-        int[] perMin = legacy.generateArrivals(f);
+        int flightTotal = (int) Math.round(f.getSeats() * f.getFillPercent());
+        // cached arrays are shared, so hand out a copy
+        int[] perMin = ArrivalCurveCache.shared().legacy(arrivalSpanMinutes, flightTotal).clone();
 
-        if (perMin == null) return new int[0];
         if (totalPassengers < 0) return perMin;
 
         int sum = 0;
@@ -50,24 +50,7 @@ public class LegacyArrivalGenerator implements ArrivalCurveGenerator {
             frac[i] = raw - flo;
         }
 
-        int remaining = targetTotal - floorSum;
-
-        while (remaining > 0) {
-            int bestIdx = 0;
-            double bestFrac = -1.0;
-
-            for (int i = 0; i < n; i++) {
-                if (frac[i] > bestFrac) {
-                    bestFrac = frac[i];
-                    bestIdx = i;
-                }
-            }
-
-            out[bestIdx] += 1;
-            frac[bestIdx] = -1.0;
-            remaining--;
-        }
-
+        LargestRemainder.distribute(out, frac, targetTotal - floorSum);
         return out;
     }
 }
@@ -0,0 +1,99 @@
+package sim.service.batch;
+
+import java.util.Arrays;
+
+/**
+ * Streaming per-interval distribution of one integer series over many replications.
+ *
+ * Each interval keeps a histogram of the values seen there, stored as a window of counts
+ * [lowest value, highest value] that widens as needed. Memory follows the spread of the
+ * values, not the number of runs, and quantiles are exact. Adding runs is order-independent, so
+ * parallel runs finishing in any order give the same bands.
+ */
+final class BandAccumulator {
+
+    private int[] lows = new int[0];
+    private int[][] counts = new int[0][];
+    private long[] sums = new long[0];
+    private int runs;
+
+    /** Adds one replication's series (index = interval). */
+    void add(int[] series) {
+        ensureLength(series.length);
+        for (int i = 0; i < series.length; i++) add(i, series[i], 1);
+        // intervals the run did not reach count as 0, so every interval has one value per run
+        for (int i = series.length; i < counts.length; i++) add(i, 0, 1);
+        runs++;
+    }
+
+    int runs() { return runs; }
+
+    int length() { return counts.length; }
+
+    /** Snapshot of the bands so far (safe to hand to the UI while more runs come in). */
+    QuantileBands toBands() {
+        int n = counts.length;
+        double[] mean = new double[n];
+        int[] p10 = new int[n];
+        int[] p50 = new int[n];
+        int[] p90 = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (runs == 0) continue;
+            mean[i] = sums[i] / (double) runs;
+            p10[i] = quantile(i, 0.10);
+            p50[i] = quantile(i, 0.50);
+            p90[i] = quantile(i, 0.90);
+        }
+        return new QuantileBands(runs, mean, p10, p50, p90);
+    }
+
+    /** Nearest-rank quantile: the smallest value with at least ceil(q * runs) runs at or below it. */
+    private int quantile(int interval, double q) {
+        int[] c = counts[interval];
+        if (c == null) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * runs));
+        long seen = 0;
+        for (int k = 0; k < c.length; k++) {
+            seen += c[k];
+            if (seen >= rank) return lows[interval] + k;
+        }
+        return lows[interval] + c.length - 1;
+    }
+
+    private void add(int interval, int value, int times) {
+        sums[interval] += (long) value * times;
+        int[] c = counts[interval];
+        if (c == null) {
+            c = new int[8];
+            counts[interval] = c;
+            lows[interval] = value - 4;
+        }
+        int k = value - lows[interval];
+        if (k < 0 || k >= c.length) {
+            int low = Math.min(lows[interval], value);
+            int high = Math.max(lows[interval] + c.length - 1, value);
+            // leave headroom on both sides so a drifting interval does not regrow every run
+            int width = Math.max(c.length * 2, high - low + 1);
+            int newLow = low - (width - (high - low + 1)) / 2;
+            int[] grown = new int[width];
+            System.arraycopy(c, 0, grown, lows[interval] - newLow, c.length);
+            c = grown;
+            counts[interval] = c;
+            lows[interval] = newLow;
+            k = value - newLow;
+        }
+        c[k] += times;
+    }
+
+    private void ensureLength(int n) {
+        if (n <= counts.length) return;
+        int old = counts.length;
+        lows = Arrays.copyOf(lows, n);
+        counts = Arrays.copyOf(counts, n);
+        sums = Arrays.copyOf(sums, n);
+        // earlier runs were shorter: they stood at 0 in the new intervals
+        if (runs > 0) {
+            for (int i = old; i < n; i++) add(i, 0, runs);
+        }
+    }
+}
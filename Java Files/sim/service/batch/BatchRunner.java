@@ -0,0 +1,120 @@
+package sim.service.batch;
+
+import sim.service.ScenarioConfig;
+import sim.service.SimulationEngine;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless command-line entry point.
+ *
+ * Usage:
+ *   java -cp "simulator/target/simulator-1.0-SNAPSHOT.jar:sim/lib/*" sim.service.batch.BatchRunner [-o outDir] config.properties|configDir ...
+ *
+ * Each argument may be a single airport-config.properties file (as written by MainFrame)
+ * or a directory, in which case every *.properties file in it is run (sorted by name).
+ * Results go to outDir (default: ./batch-results) via RunResultWriter.
+ */
+public final class BatchRunner {
+
+    private BatchRunner() { }
+
+    public static void main(String[] args) {
+        // never let a stray toolkit call try to open a display
+        System.setProperty("java.awt.headless", "true");
+
+        File outDir = new File("batch-results");
+        List<File> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("-o".equals(a) || "--out".equals(a)) {
+                if (i + 1 >= args.length) {
+                    usage("missing value for " + a);
+                    return;
+                }
+                outDir = new File(args[++i]);
+            } else if ("-h".equals(a) || "--help".equals(a)) {
+                usage(null);
+                return;
+            } else {
+                inputs.add(new File(a));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            usage("no config files given");
+            return;
+        }
+
+        List<File> configs = collectConfigs(inputs);
+        if (configs.isEmpty()) {
+            usage("no .properties files found");
+            return;
+        }
+
+        int failures = 0;
+        for (File cfgFile : configs) {
+            if (!runOne(cfgFile, outDir)) failures++;
+        }
+
+        System.out.println("Finished " + configs.size() + " run(s), " + failures + " failed. Results in "
+                + outDir.getAbsolutePath());
+        if (failures > 0) System.exit(1);
+    }
+
+    /** Runs one config file to completion and writes its result files. */
+    public static boolean runOne(File cfgFile, File outDir) {
+        String name = baseName(cfgFile);
+        try {
+            long t0 = System.nanoTime();
+            ScenarioConfig cfg = ScenarioConfig.load(cfgFile);
+            SimulationEngine engine = cfg.createEngine();
+            engine.runAllIntervals();
+            long elapsedMillis = (System.nanoTime() - t0) / 1_000_000L;
+
+            RunResultWriter.writeAll(engine, name, outDir, elapsedMillis);
+            System.out.println(name + ": " + engine.getFlights().size() + " flights, "
+                    + engine.getTotalIntervals() + " intervals, " + elapsedMillis + " ms");
+            return true;
+        } catch (Exception ex) {
+            System.err.println(name + ": FAILED - " + ex);
+            ex.printStackTrace();
+            return false;
+        }
+    }
+
+    static List<File> collectConfigs(List<File> inputs) {
+        List<File> out = new ArrayList<>();
+        for (File in : inputs) {
+            if (in.isDirectory()) {
+                File[] files = in.listFiles((dir, n) -> n.toLowerCase().endsWith(".properties"));
+                if (files == null) continue;
+                Arrays.sort(files);
+                for (File f : files) {
+                    if (f.isFile()) out.add(f);
+                }
+            } else if (in.isFile()) {
+                out.add(in);
+            } else {
+                System.err.println("Skipping missing input: " + in.getPath());
+            }
+        }
+        return out;
+    }
+
+    private static String baseName(File f) {
+        String n = f.getName();
+        int dot = n.lastIndexOf('.');
+        return (dot > 0) ? n.substring(0, dot) : n;
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println("Error: " + error);
+        System.err.println("Usage: BatchRunner [-o outDir] config.properties|configDir ...");
+        if (error != null) System.exit(2);
+    }
+}
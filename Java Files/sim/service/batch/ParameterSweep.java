@@ -0,0 +1,274 @@
+package sim.service.batch;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.CheckpointConfig;
+import sim.model.Flight;
+import sim.model.TicketCounterConfig;
+import sim.service.CompiledSchedule;
+import sim.service.ScenarioConfig;
+import sim.service.SimulationEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Grid sweep over staffing and arrival-curve parameters.
+ *
+ * Every combination of the configured axes is one run. Runs are spread over a ForkJoinPool
+ * (one worker per core by default). Each worker thread owns a private copy of the base config and
+ * ONE SimulationEngine that is reused for all of its runs via reset(); the engine runs with
+ * recording disabled, so only the metrics series are kept.
+ *
+ * Axes left empty keep the base config's values:
+ *  - checkpointRatesPerHour : applied to every checkpoint
+ *  - counterRatesPerMinute  : applied to every ticket counter
+ *  - percentInPerson
+ *  - curvePeaks / curveLeftSigmas / curveRightSigmas : switch the curve to edited (non-legacy) mode
+ */
+public class ParameterSweep {
+
+    private final ScenarioConfig base;
+
+    private double[] checkpointRatesPerHour = new double[0];
+    private double[] counterRatesPerMinute = new double[0];
+    private double[] percentInPerson = new double[0];
+    private int[] curvePeaks = new int[0];
+    private int[] curveLeftSigmas = new int[0];
+    private int[] curveRightSigmas = new int[0];
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public ParameterSweep(ScenarioConfig base) {
+        if (base == null) throw new IllegalArgumentException("base config is required");
+        // private copy: callers may keep editing their config while a sweep runs
+        this.base = base.copy();
+    }
+
+    // ==========================================================
+    // Axes
+    // ==========================================================
+
+    public void setCheckpointRatesPerHour(double... values) { this.checkpointRatesPerHour = copy(values); }
+    public void setCounterRatesPerMinute(double... values) { this.counterRatesPerMinute = copy(values); }
+    public void setPercentInPerson(double... values) { this.percentInPerson = copy(values); }
+    public void setCurvePeaks(int... values) { this.curvePeaks = copy(values); }
+    public void setCurveLeftSigmas(int... values) { this.curveLeftSigmas = copy(values); }
+    public void setCurveRightSigmas(int... values) { this.curveRightSigmas = copy(values); }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); }
+
+    /** Evenly spaced values from..to inclusive (handy for building axes). */
+    public static double[] range(double from, double to, double step) {
+        if (step <= 0) throw new IllegalArgumentException("step must be > 0");
+        int n = (int) Math.floor((to - from) / step + 1e-9) + 1;
+        double[] out = new double[Math.max(0, n)];
+        for (int i = 0; i < out.length; i++) out[i] = from + i * step;
+        return out;
+    }
+
+    public static int[] range(int from, int to, int step) {
+        if (step <= 0) throw new IllegalArgumentException("step must be > 0");
+        int n = (to - from) / step + 1;
+        int[] out = new int[Math.max(0, n)];
+        for (int i = 0; i < out.length; i++) out[i] = from + i * step;
+        return out;
+    }
+
+    /** Number of runs the current axes describe. */
+    public int getPointCount() {
+        long n = (long) axisSize(checkpointRatesPerHour.length)
+                * axisSize(counterRatesPerMinute.length)
+                * axisSize(percentInPerson.length)
+                * axisSize(curvePeaks.length)
+                * axisSize(curveLeftSigmas.length)
+                * axisSize(curveRightSigmas.length);
+        if (n > Integer.MAX_VALUE) throw new IllegalStateException("sweep too large: " + n + " points");
+        return (int) n;
+    }
+
+    // ==========================================================
+    // Running
+    // ==========================================================
+
+    /**
+     * Run every point, handing each finished row to sink as soon as it completes.
+     * sink is called concurrently from worker threads and must be thread-safe.
+     */
+    public void run(Consumer<SweepResult> sink) {
+        int points = getPointCount();
+        // points that keep the base span share one compiled schedule
+        CompiledSchedule schedule = base.compileSchedule();
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(schedule));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SweepTask(0, points, workers, sink));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Run every point and return all rows ordered by point index. */
+    public List<SweepResult> run() {
+        List<SweepResult> rows = new ArrayList<>(getPointCount());
+        run(row -> {
+            synchronized (rows) {
+                rows.add(row);
+            }
+        });
+        rows.sort(Comparator.comparingInt(SweepResult::getPointIndex));
+        return rows;
+    }
+
+    /** Run every point, streaming rows (completion order) to a CSV file. */
+    public void runToCsv(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            out.println(SweepResult.CSV_HEADER);
+            run(row -> {
+                synchronized (out) {
+                    out.println(row.toCsvRow());
+                }
+            });
+        }
+    }
+
+    private final class SweepTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final ThreadLocal<Worker> workers;
+        private final Consumer<SweepResult> sink;
+
+        SweepTask(int lo, int hi, ThreadLocal<Worker> workers, Consumer<SweepResult> sink) {
+            this.lo = lo;
+            this.hi = hi;
+            this.workers = workers;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            // each run is a full day simulation, so split down to single points and let work-stealing balance
+            if (hi - lo <= 1) {
+                if (lo < hi) sink.accept(workers.get().run(lo));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SweepTask(lo, mid, workers, sink), new SweepTask(mid, hi, workers, sink));
+        }
+    }
+
+    /** Per-thread state: private config copy + one reusable engine. */
+    private final class Worker {
+        private final ScenarioConfig cfg = base.copy();
+        private final CompiledSchedule schedule;
+        private SimulationEngine engine;
+        private ArrivalCurveConfig appliedCurve;
+
+        Worker(CompiledSchedule schedule) {
+            this.schedule = schedule;
+        }
+
+        SweepResult run(int point) {
+            long t0 = System.nanoTime();
+
+            // decode mixed-radix point index -> one value per axis
+            int rem = point;
+            int iCp = rem % axisSize(checkpointRatesPerHour.length); rem /= axisSize(checkpointRatesPerHour.length);
+            int iCt = rem % axisSize(counterRatesPerMinute.length); rem /= axisSize(counterRatesPerMinute.length);
+            int iPct = rem % axisSize(percentInPerson.length); rem /= axisSize(percentInPerson.length);
+            int iPeak = rem % axisSize(curvePeaks.length); rem /= axisSize(curvePeaks.length);
+            int iLeft = rem % axisSize(curveLeftSigmas.length); rem /= axisSize(curveLeftSigmas.length);
+            int iRight = rem % axisSize(curveRightSigmas.length);
+
+            double cpRate = Double.NaN;
+            if (checkpointRatesPerHour.length > 0) {
+                cpRate = checkpointRatesPerHour[iCp];
+                for (CheckpointConfig c : cfg.getCheckpoints()) c.setRatePerHour(cpRate);
+            }
+            double ctRate = Double.NaN;
+            if (counterRatesPerMinute.length > 0) {
+                ctRate = counterRatesPerMinute[iCt];
+                for (TicketCounterConfig c : cfg.getCounters()) c.setRate(ctRate);
+            }
+            double pct = (percentInPerson.length > 0) ? percentInPerson[iPct] : base.getPercentInPerson();
+            cfg.setPercentInPerson(pct);
+
+            ArrivalCurveConfig curve = base.getArrivalCurve();
+            if (curvePeaks.length > 0 || curveLeftSigmas.length > 0 || curveRightSigmas.length > 0) {
+                curve.setLegacyMode(false);
+                if (curvePeaks.length > 0) curve.setPeakMinutesBeforeDeparture(curvePeaks[iPeak]);
+                if (curveLeftSigmas.length > 0) curve.setLeftSigmaMinutes(curveLeftSigmas[iLeft]);
+                if (curveRightSigmas.length > 0) curve.setRightSigmaMinutes(curveRightSigmas[iRight]);
+                curve.validateAndClamp();
+            }
+            cfg.setArrivalCurve(curve);
+
+            // The arrival span decides totalIntervals, so only a span change needs a new engine.
+            if (engine == null || engine.getArrivalSpan() != cfg.getEffectiveArrivalSpanMinutes()) {
+                engine = cfg.createEngine(ScenarioConfig.DEFAULT_HOLD_DELAY_MINUTES, schedule);
+                engine.setRecordingEnabled(false);
+                appliedCurve = cfg.getArrivalCurve();
+            } else if (!sameCurve(appliedCurve, curve)) {
+                engine.setArrivalCurveConfig(curve);
+                appliedCurve = cfg.getArrivalCurve();
+            }
+            engine.setPercentInPerson(pct);
+            engine.runAllIntervals();
+
+            return toResult(point, cpRate, ctRate, pct, curve, engine, (System.nanoTime() - t0) / 1_000L);
+        }
+    }
+
+    private static SweepResult toResult(int point, double cpRate, double ctRate, double pct,
+                                        ArrivalCurveConfig curve, SimulationEngine engine, long elapsedMicros) {
+        int expected = 0;
+        int boarded = 0;
+        int missed = 0;
+        for (Flight f : engine.getFlights()) {
+            expected += RunResultWriter.expectedPassengers(f);
+            boarded += engine.getBoardedCount(f);
+            missed += engine.getMissedCount(f);
+        }
+
+        int peakTicket = engine.getTicketQueuedSeries().peakValue();
+        int peakCheckpoint = engine.getCheckpointQueuedSeries().peakValue();
+        int peakHold = engine.getHoldRoomTotalSeries().peakValue();
+        int maxHeldUp = engine.getHeldUpSeries().peakValue();
+
+        return new SweepResult(point, cpRate, ctRate, pct,
+                curve.getPeakMinutesBeforeDeparture(), curve.getLeftSigmaMinutes(), curve.getRightSigmaMinutes(),
+                expected, boarded, missed, peakTicket, peakCheckpoint, peakHold, maxHeldUp, elapsedMicros);
+    }
+
+    private static boolean sameCurve(ArrivalCurveConfig a, ArrivalCurveConfig b) {
+        return a.isLegacyMode() == b.isLegacyMode()
+                && a.getPeakMinutesBeforeDeparture() == b.getPeakMinutesBeforeDeparture()
+                && a.getLeftSigmaMinutes() == b.getLeftSigmaMinutes()
+                && a.getRightSigmaMinutes() == b.getRightSigmaMinutes()
+                && a.isLateClampEnabled() == b.isLateClampEnabled()
+                && a.getLateClampMinutesBeforeDeparture() == b.getLateClampMinutesBeforeDeparture()
+                && a.getWindowStartMinutesBeforeDeparture() == b.getWindowStartMinutesBeforeDeparture();
+    }
+
+    private static int axisSize(int len) {
+        return Math.max(1, len);
+    }
+
+    private static double[] copy(double[] v) {
+        return (v == null) ? new double[0] : v.clone();
+    }
+
+    private static int[] copy(int[] v) {
+        return (v == null) ? new int[0] : v.clone();
+    }
+}
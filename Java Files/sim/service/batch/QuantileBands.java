@@ -0,0 +1,42 @@
+package sim.service.batch;
+
+/**
+ * Per-interval mean and 10th / 50th / 90th percentiles of one series over a set of replications
+ * (index = interval, like the engine's series). Immutable.
+ */
+public final class QuantileBands {
+
+    private final int replications;
+    private final double[] mean;
+    private final int[] p10;
+    private final int[] p50;
+    private final int[] p90;
+
+    QuantileBands(int replications, double[] mean, int[] p10, int[] p50, int[] p90) {
+        this.replications = replications;
+        this.mean = mean;
+        this.p10 = p10;
+        this.p50 = p50;
+        this.p90 = p90;
+    }
+
+    public int getReplications() { return replications; }
+    public int length() { return mean.length; }
+
+    /** Values outside 0 .. length() - 1 read as 0, like IntTimeSeries. */
+    public double getMean(int interval) { return inRange(interval) ? mean[interval] : 0.0; }
+    public int getP10(int interval) { return inRange(interval) ? p10[interval] : 0; }
+    public int getP50(int interval) { return inRange(interval) ? p50[interval] : 0; }
+    public int getP90(int interval) { return inRange(interval) ? p90[interval] : 0; }
+
+    /** Largest p90 over all intervals (a planning peak: exceeded in about 1 run in 10 at that interval). */
+    public int peakP90() {
+        int max = 0;
+        for (int v : p90) max = Math.max(max, v);
+        return max;
+    }
+
+    private boolean inRange(int interval) {
+        return interval >= 0 && interval < mean.length;
+    }
+}
@@ -0,0 +1,95 @@
+package sim.service.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bands (mean, p10 / p50 / p90 per interval) of one configuration's replications: the queue
+ * totals the Queues tab plots and each hold room's population.
+ * In a Comparison's difference, every value is alternative minus baseline of the same replication.
+ */
+public final class ReplicationResult {
+
+    private final QuantileBands ticketQueued;
+    private final QuantileBands checkpointQueued;
+    private final QuantileBands holdRoomTotal;
+    private final List<QuantileBands> holdRooms;
+
+    private ReplicationResult(QuantileBands ticketQueued,
+                              QuantileBands checkpointQueued,
+                              QuantileBands holdRoomTotal,
+                              List<QuantileBands> holdRooms) {
+        this.ticketQueued = ticketQueued;
+        this.checkpointQueued = checkpointQueued;
+        this.holdRoomTotal = holdRoomTotal;
+        this.holdRooms = Collections.unmodifiableList(holdRooms);
+    }
+
+    public int getReplications() { return ticketQueued.getReplications(); }
+
+    public QuantileBands getTicketQueued() { return ticketQueued; }
+    public QuantileBands getCheckpointQueued() { return checkpointQueued; }
+    public QuantileBands getHoldRoomTotal() { return holdRoomTotal; }
+
+    public int getHoldRoomCount() { return holdRooms.size(); }
+
+    /** @return bands of room roomIdx's population, or null if there is no such room */
+    public QuantileBands getHoldRoom(int roomIdx) {
+        return (roomIdx >= 0 && roomIdx < holdRooms.size()) ? holdRooms.get(roomIdx) : null;
+    }
+
+    /** Streaming aggregate of finished runs; add() may be called from any thread. */
+    static final class Accumulator {
+        private final BandAccumulator ticket = new BandAccumulator();
+        private final BandAccumulator checkpoint = new BandAccumulator();
+        private final BandAccumulator holdTotal = new BandAccumulator();
+        // one per hold room of the engine (configs without rooms get one default room per flight)
+        private final List<BandAccumulator> rooms = new ArrayList<>();
+
+        synchronized void add(RunSeries run) {
+            ticket.add(run.ticket);
+            checkpoint.add(run.checkpoint);
+            holdTotal.add(run.holdTotal);
+            while (rooms.size() < run.rooms.length) rooms.add(new BandAccumulator());
+            for (int r = 0; r < run.rooms.length; r++) rooms.get(r).add(run.rooms[r]);
+        }
+
+        synchronized ReplicationResult result() {
+            List<QuantileBands> roomBands = new ArrayList<>(rooms.size());
+            for (BandAccumulator r : rooms) roomBands.add(r.toBands());
+            return new ReplicationResult(ticket.toBands(), checkpoint.toBands(), holdTotal.toBands(), roomBands);
+        }
+    }
+
+    /** The series of one finished run (index = interval), dropped once added. */
+    static final class RunSeries {
+        final int[] ticket;
+        final int[] checkpoint;
+        final int[] holdTotal;
+        final int[][] rooms;
+
+        RunSeries(int[] ticket, int[] checkpoint, int[] holdTotal, int[][] rooms) {
+            this.ticket = ticket;
+            this.checkpoint = checkpoint;
+            this.holdTotal = holdTotal;
+            this.rooms = rooms;
+        }
+
+        /** this - other, interval by interval (rooms both runs have). */
+        RunSeries minus(RunSeries other) {
+            int[][] r = new int[Math.min(rooms.length, other.rooms.length)][];
+            for (int i = 0; i < r.length; i++) r[i] = minus(rooms[i], other.rooms[i]);
+            return new RunSeries(minus(ticket, other.ticket), minus(checkpoint, other.checkpoint),
+                    minus(holdTotal, other.holdTotal), r);
+        }
+
+        private static int[] minus(int[] a, int[] b) {
+            int[] out = new int[Math.max(a.length, b.length)];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = (i < a.length ? a[i] : 0) - (i < b.length ? b[i] : 0);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package sim.service.batch;
+
+import sim.service.CompiledSchedule;
+import sim.service.ScenarioConfig;
+import sim.service.SimulationEngine;
+import sim.service.StochasticModel;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Monte Carlo replications: N stochastic runs of one configuration, reduced to per-interval
+ * bands (mean, p10 / p50 / p90) of the ticket, checkpoint and hold-room totals and of each
+ * hold room's population.
+ *
+ * Runs are spread over a ForkJoinPool like ParameterSweep: each worker thread owns one engine,
+ * reused via reset(), with recording disabled. A finished run's series are folded into the
+ * bands and dropped, so memory does not grow with N.
+ *
+ * Replication i always runs with the same seed, derived from the model's master seed, so a
+ * result is reproducible whatever the thread count. compare() runs a second configuration
+ * with the SAME seed per replication by default (common random numbers): both configurations
+ * see the same arrivals and service draws, and their difference has far less noise than two
+ * independent batches would.
+ */
+public class ReplicationRunner {
+
+    private final ScenarioConfig base;
+    private final StochasticModel model;
+
+    private int replications = 100;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean commonRandomNumbers = true;
+    private Consumer<SimulationEngine> engineSetup = engine -> { };
+
+    public ReplicationRunner(ScenarioConfig base, StochasticModel model) {
+        if (base == null) throw new IllegalArgumentException("base config is required");
+        if (model == null) throw new IllegalArgumentException("stochastic model is required");
+        this.base = base.copy();
+        this.model = model;
+    }
+
+    public int getReplications() { return replications; }
+    public void setReplications(int replications) { this.replications = Math.max(1, replications); }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); }
+
+    public boolean isCommonRandomNumbers() { return commonRandomNumbers; }
+    /** false = compare() gives the alternative its own, independent seeds. */
+    public void setCommonRandomNumbers(boolean commonRandomNumbers) { this.commonRandomNumbers = commonRandomNumbers; }
+
+    /** Applied to every worker's engine once, after it is built (tick size, routing policy, ...). */
+    public void setEngineSetup(Consumer<SimulationEngine> engineSetup) {
+        this.engineSetup = (engineSetup == null) ? engine -> { } : engineSetup;
+    }
+
+    // ==========================================================
+    // Running
+    // ==========================================================
+
+    public ReplicationResult run() {
+        return run(null);
+    }
+
+    /**
+     * Run every replication.
+     * @param progress called with the number of finished replications, from worker threads (may be null)
+     */
+    public ReplicationResult run(IntConsumer progress) {
+        long[] seeds = seeds(0);
+        ReplicationResult.Accumulator acc = new ReplicationResult.Accumulator();
+        CompiledSchedule schedule = base.compileSchedule();
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(base, schedule));
+        AtomicInteger done = new AtomicInteger();
+
+        invoke(rep -> {
+            acc.add(workers.get().run(seeds[rep]));
+            if (progress != null) progress.accept(done.incrementAndGet());
+        });
+        return acc.result();
+    }
+
+    /** Baseline, alternative and their per-replication difference (alternative - baseline). */
+    public static final class Comparison {
+        private final ReplicationResult baseline;
+        private final ReplicationResult alternative;
+        private final ReplicationResult difference;
+
+        Comparison(ReplicationResult baseline, ReplicationResult alternative, ReplicationResult difference) {
+            this.baseline = baseline;
+            this.alternative = alternative;
+            this.difference = difference;
+        }
+
+        public ReplicationResult getBaseline() { return baseline; }
+        public ReplicationResult getAlternative() { return alternative; }
+        public ReplicationResult getDifference() { return difference; }
+    }
+
+    public Comparison compare(ScenarioConfig alternative) {
+        return compare(alternative, null);
+    }
+
+    /**
+     * Run every replication of the base config and of alternative, pairing replication i of
+     * both (same seed under common random numbers).
+     * @param progress called with the number of finished pairs, from worker threads (may be null)
+     */
+    public Comparison compare(ScenarioConfig alternative, IntConsumer progress) {
+        if (alternative == null) throw new IllegalArgumentException("alternative config is required");
+        ScenarioConfig alt = alternative.copy();
+        long[] baseSeeds = seeds(0);
+        long[] altSeeds = commonRandomNumbers ? baseSeeds : seeds(1);
+
+        ReplicationResult.Accumulator baseAcc = new ReplicationResult.Accumulator();
+        ReplicationResult.Accumulator altAcc = new ReplicationResult.Accumulator();
+        ReplicationResult.Accumulator diffAcc = new ReplicationResult.Accumulator();
+        // shared by the alternative too when it only changes staffing (it is recompiled otherwise)
+        CompiledSchedule schedule = base.compileSchedule();
+        ThreadLocal<Worker> baseWorkers = ThreadLocal.withInitial(() -> new Worker(base, schedule));
+        ThreadLocal<Worker> altWorkers = ThreadLocal.withInitial(() -> new Worker(alt, schedule));
+        AtomicInteger done = new AtomicInteger();
+
+        invoke(rep -> {
+            ReplicationResult.RunSeries a = baseWorkers.get().run(baseSeeds[rep]);
+            ReplicationResult.RunSeries b = altWorkers.get().run(altSeeds[rep]);
+            baseAcc.add(a);
+            altAcc.add(b);
+            diffAcc.add(b.minus(a));
+            if (progress != null) progress.accept(done.incrementAndGet());
+        });
+        return new Comparison(baseAcc.result(), altAcc.result(), diffAcc.result());
+    }
+
+    /**
+     * Seed of every replication, from the master seed: stream 0 for the base config,
+     * stream 1 for an independent alternative.
+     */
+    private long[] seeds(int stream) {
+        SplittableRandom root = new SplittableRandom(model.getSeed());
+        SplittableRandom s = root.split();
+        for (int i = 0; i < stream; i++) s = root.split();
+        long[] out = new long[replications];
+        for (int i = 0; i < out.length; i++) out[i] = s.split().nextLong();
+        return out;
+    }
+
+    private void invoke(IntConsumer replication) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ReplicationTask(0, replications, replication));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class ReplicationTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final IntConsumer replication;
+
+        ReplicationTask(int lo, int hi, IntConsumer replication) {
+            this.lo = lo;
+            this.hi = hi;
+            this.replication = replication;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= 1) {
+                if (lo < hi) replication.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ReplicationTask(lo, mid, replication), new ReplicationTask(mid, hi, replication));
+        }
+    }
+
+    /** Per-thread state: one reusable engine for one config. */
+    private final class Worker {
+        private final SimulationEngine engine;
+
+        Worker(ScenarioConfig cfg, CompiledSchedule schedule) {
+            engine = cfg.createEngine(ScenarioConfig.DEFAULT_HOLD_DELAY_MINUTES, schedule);
+            engine.setRecordingEnabled(false);
+            // identical results, and idle minutes cost next to nothing
+            engine.setEventDriven(true);
+            engineSetup.accept(engine);
+        }
+
+        ReplicationResult.RunSeries run(long seed) {
+            engine.setStochasticModel(model.withSeed(seed));
+            engine.reset();
+
+            int total = engine.getTotalIntervals();
+            List<? extends List<?>> roomLines = engine.getHoldRoomLines();
+            int[][] rooms = new int[roomLines.size()][total + 1];
+            while (engine.getCurrentInterval() < total) {
+                engine.simulateInterval();
+                int interval = engine.getCurrentInterval();
+                for (int r = 0; r < rooms.length; r++) rooms[r][interval] = roomLines.get(r).size();
+            }
+            return new ReplicationResult.RunSeries(
+                    engine.getTicketQueuedSeries().toArray(),
+                    engine.getCheckpointQueuedSeries().toArray(),
+                    engine.getHoldRoomTotalSeries().toArray(),
+                    rooms);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package sim.service.batch;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+import sim.model.HoldRoomConfig;
+import sim.service.IntTimeSeries;
+import sim.service.SimulationEngine;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the results of a finished SimulationEngine run as plain files:
+ *  - NAME-intervals.csv : queue / hold-room totals for every interval
+ *  - NAME-flights.csv   : one row per flight (expected, generated, notGenerated, boarded, missed)
+ *
+ * missed comes from the engine (created but not in a hold room at departure); expected
+ * passengers the arrival curve never created (rounding, arrival window) are notGenerated.
+ *  - NAME-summary.json  : run totals and peaks
+ *
+ * No Swing/AWT is touched here so this can run on display-less servers.
+ */
+public final class RunResultWriter {
+
+    private RunResultWriter() { }
+
+    public static void writeAll(SimulationEngine engine, String name, File outDir, long elapsedMillis) throws IOException {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IOException("Could not create output directory: " + outDir.getAbsolutePath());
+        }
+        writeIntervalsCsv(engine, new File(outDir, name + "-intervals.csv"));
+        writeFlightsCsv(engine, new File(outDir, name + "-flights.csv"));
+        writeSummaryJson(engine, name, new File(outDir, name + "-summary.json"), elapsedMillis);
+    }
+
+    public static void writeIntervalsCsv(SimulationEngine engine, File file) throws IOException {
+        LocalTime start = computeStartTime(engine);
+        int max = engine.getMaxComputedInterval();
+        IntTimeSeries.View ticket = engine.getTicketQueuedSeries();
+        IntTimeSeries.View checkpoint = engine.getCheckpointQueuedSeries();
+        IntTimeSeries.View hold = engine.getHoldRoomTotalSeries();
+        IntTimeSeries.View heldUps = engine.getHeldUpSeries();
+
+        try (PrintWriter out = open(file)) {
+            out.println("interval,time,arrivals,ticketQueued,checkpointQueued,holdRoomTotal,heldUp");
+            for (int i = 0; i <= max; i++) {
+                out.println(i
+                        + "," + start.plusMinutes((long) i * engine.getInterval())
+                        + "," + engine.getTotalArrivalsAtInterval(i)
+                        + "," + ticket.get(i)
+                        + "," + checkpoint.get(i)
+                        + "," + hold.get(i)
+                        + "," + heldUps.get(i));
+            }
+        }
+    }
+
+    public static void writeFlightsCsv(SimulationEngine engine, File file) throws IOException {
+        List<HoldRoomConfig> rooms = engine.getHoldRoomConfigs();
+
+        try (PrintWriter out = open(file)) {
+            out.println("flight,departure,close,holdRoom,expected,generated,notGenerated,boarded,missed");
+            for (Flight f : engine.getFlights()) {
+                int expected = expectedPassengers(f);
+                int generated = engine.getGeneratedCount(f);
+                HoldRoomConfig room = rooms.get(engine.getChosenHoldRoomIndex(f));
+                out.println(csv(f.getFlightNumber())
+                        + "," + f.getDepartureTime()
+                        + "," + f.getDepartureTime().minusMinutes(ArrivalCurveConfig.DEFAULT_BOARDING_CLOSE)
+                        + "," + room.getId()
+                        + "," + expected
+                        + "," + generated
+                        + "," + Math.max(0, expected - generated)
+                        + "," + engine.getBoardedCount(f)
+                        + "," + engine.getMissedCount(f));
+            }
+        }
+    }
+
+    public static void writeSummaryJson(SimulationEngine engine, String name, File file, long elapsedMillis) throws IOException {
+        int expected = 0;
+        int generated = 0;
+        int notGenerated = 0;
+        int boarded = 0;
+        int missed = 0;
+        for (Flight f : engine.getFlights()) {
+            int e = expectedPassengers(f);
+            int g = engine.getGeneratedCount(f);
+            expected += e;
+            generated += g;
+            notGenerated += Math.max(0, e - g);
+            boarded += engine.getBoardedCount(f);
+            missed += engine.getMissedCount(f);
+        }
+
+        int[] peakTicket = peak(engine.getTicketQueuedSeries());
+        int[] peakCheckpoint = peak(engine.getCheckpointQueuedSeries());
+        int[] peakHold = peak(engine.getHoldRoomTotalSeries());
+
+        try (PrintWriter out = open(file)) {
+            out.println("{");
+            out.println("  \"name\": " + json(name) + ",");
+            out.println("  \"flights\": " + engine.getFlights().size() + ",");
+            out.println("  \"ticketCounters\": " + engine.getCounterConfigs().size() + ",");
+            out.println("  \"checkpoints\": " + engine.getCheckpointConfigs().size() + ",");
+            out.println("  \"holdRooms\": " + engine.getHoldRoomConfigs().size() + ",");
+            out.println("  \"percentInPerson\": " + String.format(Locale.ROOT, "%.4f", engine.getPercentInPerson()) + ",");
+            out.println("  \"totalIntervals\": " + engine.getTotalIntervals() + ",");
+            out.println("  \"expectedPassengers\": " + expected + ",");
+            out.println("  \"generatedPassengers\": " + generated + ",");
+            out.println("  \"notGeneratedPassengers\": " + notGenerated + ",");
+            out.println("  \"boardedPassengers\": " + boarded + ",");
+            out.println("  \"missedPassengers\": " + missed + ",");
+            out.println("  \"peakTicketQueue\": {\"interval\": " + peakTicket[0] + ", \"value\": " + peakTicket[1] + "},");
+            out.println("  \"peakCheckpointQueue\": {\"interval\": " + peakCheckpoint[0] + ", \"value\": " + peakCheckpoint[1] + "},");
+            out.println("  \"peakHoldRoomTotal\": {\"interval\": " + peakHold[0] + ", \"value\": " + peakHold[1] + "},");
+            out.println("  \"elapsedMillis\": " + elapsedMillis);
+            out.println("}");
+        }
+    }
+
+    // ==========================================================
+    // Helpers
+    // ==========================================================
+
+    static int expectedPassengers(Flight f) {
+        return (int) Math.round(f.getSeats() * f.getFillPercent());
+    }
+
+    /** @return {interval, value} of the first maximum (interval 0 when the series never goes above 0) */
+    private static int[] peak(IntTimeSeries.View series) {
+        int idx = series.peakIndex();
+        return new int[]{Math.max(0, idx), series.get(idx)};
+    }
+
+    private static LocalTime computeStartTime(SimulationEngine engine) {
+        LocalTime firstDep = engine.getFlights().stream()
+                .map(Flight::getDepartureTime)
+                .min(LocalTime::compareTo)
+                .orElse(LocalTime.MIDNIGHT);
+        return firstDep.minusMinutes(engine.getArrivalSpan());
+    }
+
+    private static PrintWriter open(File file) throws IOException {
+        BufferedWriter w = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        return new PrintWriter(w);
+    }
+
+    private static String csv(String v) {
+        if (v == null) return "";
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0) return v;
+        return "\"" + v.replace("\"", "\"\"") + "\"";
+    }
+
+    static String json(String v) {
+        if (v == null) return "null";
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
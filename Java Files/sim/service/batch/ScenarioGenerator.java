@@ -0,0 +1,465 @@
+package sim.service.batch;
+
+import sim.model.CheckpointConfig;
+import sim.model.Flight;
+import sim.model.HoldRoomConfig;
+import sim.model.TicketCounterConfig;
+import sim.service.ScenarioConfig;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic airport days for scale testing, in the airport-config.properties format MainFrame
+ * saves and BatchRunner / ScenarioConfig.load() read.
+ *
+ * Everything is derived from the seed: flight i's departure, seats and fill come from its own
+ * Random (seeded from seed and i), and whether counter c or hold room r takes flight i is a hash
+ * of (seed, c or r, i). So nothing depends on generation order, the same seed always gives the
+ * same file, and write() can stream a schedule of thousands of flights to disk without holding
+ * it (or a Properties table) in memory. generate() builds the same scenario as a ScenarioConfig.
+ *
+ * Departures fall in banks: `banks` evenly spaced waves between firstDeparture and lastDeparture,
+ * each bankWidthMinutes wide, with offBankShare of the flights spread over the whole day instead
+ * (banks = 0 spreads every flight evenly). Every flight is accepted by at least one counter and
+ * one hold room, whatever the eligibility densities.
+ */
+public class ScenarioGenerator {
+
+    public static final int MIN_FLIGHTS = 10;
+    public static final int MAX_FLIGHTS = 2000;
+
+    // hash streams, so counter and hold-room eligibility are independent
+    private static final long COUNTER_STREAM = 0x436F756E746572L;
+    private static final long ROOM_STREAM = 0x486F6C64526F6FL;
+
+    private final long seed;
+
+    private int flightCount = 200;
+
+    private int[] seatClasses = {76, 150, 180, 220, 300};
+    private double[] seatWeights = {0.20, 0.30, 0.30, 0.10, 0.10};
+    private double minFill = 0.70;
+    private double maxFill = 0.95;
+
+    private LocalTime firstDeparture = LocalTime.of(6, 0);
+    private LocalTime lastDeparture = LocalTime.of(22, 0);
+    private int banks = 6;
+    private int bankWidthMinutes = 60;
+    private double offBankShare = 0.15;
+
+    // 0 = scaled with the flight count
+    private int counters = 0;
+    private int checkpoints = 0;
+    private int holdRooms = 0;
+
+    private double counterRatePerMinute = 1.0;
+    private double checkpointRatePerHour = 150.0;
+    private double counterEligibility = 1.0;
+    private double holdRoomEligibility = 0.25;
+
+    public ScenarioGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    // ==========================================================
+    // Parameters
+    // ==========================================================
+
+    public long getSeed() { return seed; }
+
+    public int getFlightCount() { return flightCount; }
+
+    public void setFlightCount(int flightCount) {
+        if (flightCount < MIN_FLIGHTS || flightCount > MAX_FLIGHTS) {
+            throw new IllegalArgumentException("flight count must be " + MIN_FLIGHTS + ".." + MAX_FLIGHTS
+                    + ", was " + flightCount);
+        }
+        this.flightCount = flightCount;
+    }
+
+    /** Seat counts and their relative weights (e.g. {76, 180, 300} and {1, 3, 1}). */
+    public void setSeatMix(int[] seatClasses, double[] weights) {
+        if (seatClasses == null || weights == null || seatClasses.length == 0
+                || seatClasses.length != weights.length) {
+            throw new IllegalArgumentException("seat classes and weights must be non-empty and the same length");
+        }
+        double total = 0.0;
+        for (int i = 0; i < seatClasses.length; i++) {
+            if (seatClasses[i] <= 0) throw new IllegalArgumentException("seats must be > 0");
+            if (weights[i] < 0) throw new IllegalArgumentException("weights must be >= 0");
+            total += weights[i];
+        }
+        if (total <= 0) throw new IllegalArgumentException("weights must not all be 0");
+        this.seatClasses = seatClasses.clone();
+        this.seatWeights = weights.clone();
+    }
+
+    /** Load factor range, clamped to 0..1. */
+    public void setFillRange(double min, double max) {
+        this.minFill = clamp(Math.min(min, max), 0.0, 1.0);
+        this.maxFill = clamp(Math.max(min, max), 0.0, 1.0);
+    }
+
+    /**
+     * Departure window. first must leave room for the arrival span before it (the day starts
+     * at first departure minus the span and may not wrap past midnight).
+     */
+    public void setDepartureWindow(LocalTime first, LocalTime last) {
+        if (first == null || last == null || last.isBefore(first)) {
+            throw new IllegalArgumentException("departure window must be first <= last");
+        }
+        this.firstDeparture = first;
+        this.lastDeparture = last;
+    }
+
+    /** banks waves of bankWidthMinutes each; offBankShare (0..1) of the flights ignore the banks. */
+    public void setBanks(int banks, int bankWidthMinutes, double offBankShare) {
+        this.banks = Math.max(0, banks);
+        this.bankWidthMinutes = Math.max(1, bankWidthMinutes);
+        this.offBankShare = clamp(offBankShare, 0.0, 1.0);
+    }
+
+    /** Ticket counters, checkpoints and hold rooms; 0 = scaled with the flight count. */
+    public void setLanes(int counters, int checkpoints, int holdRooms) {
+        this.counters = Math.max(0, counters);
+        this.checkpoints = Math.max(0, checkpoints);
+        this.holdRooms = Math.max(0, holdRooms);
+    }
+
+    public void setRates(double counterRatePerMinute, double checkpointRatePerHour) {
+        this.counterRatePerMinute = Math.max(0.0, counterRatePerMinute);
+        this.checkpointRatePerHour = Math.max(0.0, checkpointRatePerHour);
+    }
+
+    /**
+     * Chance (0..1) that a given counter / hold room accepts a given flight.
+     * 1 = every counter or room takes every flight (written as "*").
+     */
+    public void setEligibility(double counterDensity, double holdRoomDensity) {
+        this.counterEligibility = clamp(counterDensity, 0.0, 1.0);
+        this.holdRoomEligibility = clamp(holdRoomDensity, 0.0, 1.0);
+    }
+
+    public int getCounterCount() { return (counters > 0) ? counters : Math.max(2, flightCount / 8); }
+    public int getCheckpointCount() { return (checkpoints > 0) ? checkpoints : Math.max(2, flightCount / 12); }
+    public int getHoldRoomCount() { return (holdRooms > 0) ? holdRooms : Math.max(2, flightCount / 6); }
+
+    // ==========================================================
+    // Output
+    // ==========================================================
+
+    /** The scenario in memory; identical to ScenarioConfig.load() of what write() produces. */
+    public ScenarioConfig generate() {
+        checkWindow();
+        ScenarioConfig c = new ScenarioConfig();
+        Map<String, Flight> flightByNumber = new HashMap<>();
+        for (int i = 0; i < flightCount; i++) {
+            Flight f = flight(i);
+            c.getFlights().add(f);
+            flightByNumber.put(f.getFlightNumber(), f);
+        }
+
+        for (int ci = 0; ci < getCounterCount(); ci++) {
+            TicketCounterConfig tc = new TicketCounterConfig(ci + 1);
+            tc.setRate(counterRatePerMinute);
+            if (counterEligibility < 1.0) {
+                Set<Flight> allowed = new HashSet<>();
+                for (int i = 0; i < flightCount; i++) {
+                    if (counterAccepts(ci, i)) allowed.add(flightByNumber.get(flightNumber(i)));
+                }
+                tc.setAllowedFlights(allowed);
+            }
+            c.getCounters().add(tc);
+        }
+
+        for (int k = 0; k < getCheckpointCount(); k++) {
+            CheckpointConfig cp = new CheckpointConfig(k + 1);
+            cp.setRatePerHour(checkpointRatePerHour);
+            c.getCheckpoints().add(cp);
+        }
+
+        for (int r = 0; r < getHoldRoomCount(); r++) {
+            HoldRoomConfig room = new HoldRoomConfig(r + 1, walkSeconds(r));
+            if (holdRoomEligibility < 1.0) {
+                for (int i = 0; i < flightCount; i++) {
+                    if (roomAccepts(r, i)) room.addAllowedFlightNumber(flightNumber(i));
+                }
+            }
+            c.getHoldRooms().add(room);
+        }
+        return c;
+    }
+
+    /** Streams the scenario to file in the MainFrame properties format. */
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        // Properties.load(InputStream) reads ISO-8859-1; everything written here is ASCII
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file.toPath()), StandardCharsets.ISO_8859_1))) {
+            write(w);
+        }
+    }
+
+    public void write(Writer w) throws IOException {
+        checkWindow();
+        ScenarioConfig defaults = new ScenarioConfig();
+
+        w.write("#Synthetic airport scenario: seed=" + seed + ", flights=" + flightCount + "\n");
+        put(w, "global.percentInPerson", Double.toString(defaults.getPercentInPerson()));
+        put(w, "global.arrivalSpanMinutes", Integer.toString(defaults.getArrivalSpanMinutes()));
+        put(w, "global.transitDelayMinutes", Integer.toString(defaults.getTransitDelayMinutes()));
+        put(w, "global.intervalMinutes", Integer.toString(defaults.getIntervalMinutes()));
+        put(w, "global.sqftPerPassenger", Integer.toString(defaults.getSqftPerPassenger()));
+
+        put(w, "flights.count", Integer.toString(flightCount));
+        for (int i = 0; i < flightCount; i++) {
+            Flight f = flight(i);
+            put(w, "flights." + i + ".number", f.getFlightNumber());
+            put(w, "flights." + i + ".depTime", f.getDepartureTime().toString());
+            put(w, "flights." + i + ".seats", Integer.toString(f.getSeats()));
+            put(w, "flights." + i + ".fillPercent", Double.toString(f.getFillPercent()));
+            put(w, "flights." + i + ".shape", f.getShape().name());
+        }
+
+        put(w, "counters.count", Integer.toString(getCounterCount()));
+        for (int ci = 0; ci < getCounterCount(); ci++) {
+            put(w, "counters." + ci + ".ratePerMinute", Double.toString(counterRatePerMinute));
+            w.write("counters." + ci + ".allowedFlights=");
+            if (counterEligibility < 1.0) {
+                writeFlightList(w, ci, COUNTER_STREAM);
+            } else {
+                w.write("*");
+            }
+            w.write("\n");
+        }
+
+        put(w, "checkpoints.count", Integer.toString(getCheckpointCount()));
+        for (int k = 0; k < getCheckpointCount(); k++) {
+            put(w, "checkpoints." + k + ".ratePerHour", Double.toString(checkpointRatePerHour));
+        }
+
+        put(w, "holdRooms.count", Integer.toString(getHoldRoomCount()));
+        for (int r = 0; r < getHoldRoomCount(); r++) {
+            int walk = walkSeconds(r);
+            put(w, "holdRooms." + r + ".walkMinutes", Integer.toString(walk / 60));
+            put(w, "holdRooms." + r + ".walkSeconds", Integer.toString(walk % 60));
+            w.write("holdRooms." + r + ".allowedFlights=");
+            if (holdRoomEligibility < 1.0) {
+                writeFlightList(w, r, ROOM_STREAM);
+            } else {
+                w.write("*");
+            }
+            w.write("\n");
+        }
+        // no arrivalCurve.* keys: the loader falls back to the legacy curve
+    }
+
+    // ==========================================================
+    // Per-flight derivation (order-independent)
+    // ==========================================================
+
+    private Flight flight(int i) {
+        Random rnd = new Random(mix(seed, 0, i));
+
+        int windowMinutes = minutesBetween(firstDeparture, lastDeparture);
+        int depMinute;
+        if (banks == 0 || rnd.nextDouble() < offBankShare) {
+            depMinute = rnd.nextInt(windowMinutes + 1);
+        } else {
+            // round-robin keeps the banks the same size; centers are evenly spaced over the window
+            int bank = i % banks;
+            double center = (banks == 1) ? windowMinutes / 2.0 : bank * windowMinutes / (double) (banks - 1);
+            depMinute = (int) Math.round(center + (rnd.nextDouble() - 0.5) * bankWidthMinutes);
+            depMinute = Math.max(0, Math.min(windowMinutes, depMinute));
+        }
+        LocalTime dep = firstDeparture.plusMinutes(depMinute);
+
+        int seats = seatClasses[pickWeighted(rnd.nextDouble())];
+        // two decimals, so the file round-trips exactly
+        double fill = Math.round((minFill + rnd.nextDouble() * (maxFill - minFill)) * 100.0) / 100.0;
+
+        Flight.ShapeType[] shapes = Flight.ShapeType.values();
+        return new Flight(flightNumber(i), dep, seats, fill, shapes[i % shapes.length]);
+    }
+
+    private static String flightNumber(int i) {
+        return String.format(Locale.ROOT, "SG%04d", i + 1);
+    }
+
+    /** Counter ci always takes flights ci, ci + counters, ...; others by chance. */
+    private boolean counterAccepts(int ci, int i) {
+        return counterEligibility >= 1.0
+                || i % getCounterCount() == ci
+                || unit(mix(seed ^ COUNTER_STREAM, ci, i)) < counterEligibility;
+    }
+
+    private boolean roomAccepts(int r, int i) {
+        return holdRoomEligibility >= 1.0
+                || i % getHoldRoomCount() == r
+                || unit(mix(seed ^ ROOM_STREAM, r, i)) < holdRoomEligibility;
+    }
+
+    private void writeFlightList(Writer w, int owner, long stream) throws IOException {
+        boolean first = true;
+        for (int i = 0; i < flightCount; i++) {
+            boolean accepts = (stream == COUNTER_STREAM) ? counterAccepts(owner, i) : roomAccepts(owner, i);
+            if (!accepts) continue;
+            if (!first) w.write(",");
+            w.write(flightNumber(i));
+            first = false;
+        }
+    }
+
+    /** Rooms get 1..4.5 minute walks from the checkpoints, cycling. */
+    private static int walkSeconds(int r) {
+        return 60 + 30 * (r % 8);
+    }
+
+    private int pickWeighted(double u) {
+        double total = 0.0;
+        for (double wt : seatWeights) total += wt;
+        double x = u * total;
+        for (int i = 0; i < seatWeights.length; i++) {
+            x -= seatWeights[i];
+            if (x < 0) return i;
+        }
+        return seatWeights.length - 1;
+    }
+
+    private void checkWindow() {
+        int span = new ScenarioConfig().getArrivalSpanMinutes();
+        if (firstDeparture.toSecondOfDay() / 60 < span) {
+            throw new IllegalArgumentException("first departure must be at least " + span
+                    + " minutes after midnight (the arrival span)");
+        }
+    }
+
+    private static int minutesBetween(LocalTime a, LocalTime b) {
+        return (b.toSecondOfDay() - a.toSecondOfDay()) / 60;
+    }
+
+    private static void put(Writer w, String key, String value) throws IOException {
+        w.write(key);
+        w.write("=");
+        w.write(value);
+        w.write("\n");
+    }
+
+    /** splitmix64 finalizer over (seed, a, b). */
+    private static long mix(long seed, long a, long b) {
+        long z = seed + 0x9E3779B97F4A7C15L * (a + 1) + 0xC2B2AE3D27D4EB4FL * (b + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Top 53 bits of h as a double in [0, 1). */
+    private static double unit(long h) {
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    // ==========================================================
+    // Command line
+    // ==========================================================
+
+    /**
+     * Usage:
+     *   java -cp "simulator/target/simulator-1.0-SNAPSHOT.jar:sim/lib/*" sim.service.batch.ScenarioGenerator [options] -o out.properties
+     *
+     *   --seed N                 (default 1)
+     *   -n N                     flights, 10..2000 (default 200)
+     *   --banks N[:WIDTH[:OFF]]  departure banks, bank width in minutes, off-bank share
+     *   --lanes C:K:R            counters, checkpoints, hold rooms (0 = scaled with flights)
+     *   --eligibility C:R        counter and hold-room eligibility density (0..1)
+     */
+    public static void main(String[] args) {
+        long seed = 1;
+        Integer flights = null;
+        String banksArg = null;
+        String lanesArg = null;
+        String eligibilityArg = null;
+        File out = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--seed": seed = Long.parseLong(value(args, ++i, a)); break;
+                    case "-n": flights = Integer.parseInt(value(args, ++i, a)); break;
+                    case "--banks": banksArg = value(args, ++i, a); break;
+                    case "--lanes": lanesArg = value(args, ++i, a); break;
+                    case "--eligibility": eligibilityArg = value(args, ++i, a); break;
+                    case "-o":
+                    case "--out": out = new File(value(args, ++i, a)); break;
+                    case "-h":
+                    case "--help": usage(null); return;
+                    default: usage("unknown argument " + a); return;
+                }
+            }
+            if (out == null) {
+                usage("no output file given");
+                return;
+            }
+
+            ScenarioGenerator gen = new ScenarioGenerator(seed);
+            if (flights != null) gen.setFlightCount(flights);
+            if (banksArg != null) {
+                String[] p = banksArg.split(":");
+                gen.setBanks(Integer.parseInt(p[0]),
+                        (p.length > 1) ? Integer.parseInt(p[1]) : gen.bankWidthMinutes,
+                        (p.length > 2) ? Double.parseDouble(p[2]) : gen.offBankShare);
+            }
+            if (lanesArg != null) {
+                String[] p = lanesArg.split(":");
+                if (p.length != 3) throw new IllegalArgumentException("--lanes needs counters:checkpoints:rooms");
+                gen.setLanes(Integer.parseInt(p[0]), Integer.parseInt(p[1]), Integer.parseInt(p[2]));
+            }
+            if (eligibilityArg != null) {
+                String[] p = eligibilityArg.split(":");
+                if (p.length != 2) throw new IllegalArgumentException("--eligibility needs counter:room");
+                gen.setEligibility(Double.parseDouble(p[0]), Double.parseDouble(p[1]));
+            }
+
+            long t0 = System.nanoTime();
+            gen.write(out);
+            System.out.println("Wrote " + gen.getFlightCount() + " flights, " + gen.getCounterCount() + " counters, "
+                    + gen.getCheckpointCount() + " checkpoints, " + gen.getHoldRoomCount() + " hold rooms to "
+                    + out.getAbsolutePath() + " in " + (System.nanoTime() - t0) / 1_000_000L + " ms");
+        } catch (IllegalArgumentException | IOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException("missing value for " + option);
+        return args[i];
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println("Error: " + error);
+        System.err.println("Usage: ScenarioGenerator [--seed N] [-n flights] [--banks N[:width[:offShare]]]"
+                + " [--lanes counters:checkpoints:rooms] [--eligibility counter:room] -o out.properties");
+        if (error != null) System.exit(2);
+    }
+}
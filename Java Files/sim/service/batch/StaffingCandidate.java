@@ -0,0 +1,71 @@
+package sim.service.batch;
+
+import java.util.Locale;
+
+/**
+ * One evaluated staffing level of a StaffingOptimizer search: the first N counters and first M
+ * checkpoints of the base config, and what a full day with them produced.
+ * Holds no reference to the engine.
+ */
+public final class StaffingCandidate {
+
+    public static final String CSV_HEADER =
+            "counters,checkpoints,cost,expected,boarded,missed,peakTicketQueue,peakCheckpointQueue,feasible";
+
+    private final int counters;
+    private final int checkpoints;
+    private final double cost;
+
+    private final int expectedPassengers;
+    private final int boardedPassengers;
+    private final int missedPassengers;
+    private final int peakTicketQueue;
+    private final int peakCheckpointQueue;
+    private final boolean feasible;
+
+    StaffingCandidate(int counters,
+                      int checkpoints,
+                      double cost,
+                      int expectedPassengers,
+                      int boardedPassengers,
+                      int missedPassengers,
+                      int peakTicketQueue,
+                      int peakCheckpointQueue,
+                      boolean feasible) {
+        this.counters = counters;
+        this.checkpoints = checkpoints;
+        this.cost = cost;
+        this.expectedPassengers = expectedPassengers;
+        this.boardedPassengers = boardedPassengers;
+        this.missedPassengers = missedPassengers;
+        this.peakTicketQueue = peakTicketQueue;
+        this.peakCheckpointQueue = peakCheckpointQueue;
+        this.feasible = feasible;
+    }
+
+    public int getCounters() { return counters; }
+    public int getCheckpoints() { return checkpoints; }
+    public double getCost() { return cost; }
+
+    public int getExpectedPassengers() { return expectedPassengers; }
+    public int getBoardedPassengers() { return boardedPassengers; }
+    /** Created but not in a hold room at departure (SimulationEngine.getMissedCount), not expected - boarded. */
+    public int getMissedPassengers() { return missedPassengers; }
+    public int getPeakTicketQueue() { return peakTicketQueue; }
+    public int getPeakCheckpointQueue() { return peakCheckpointQueue; }
+
+    /** No missed passengers and both queue peaks within the optimizer's limits. */
+    public boolean isFeasible() { return feasible; }
+
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%d,%d,%.3f,%d,%d,%d,%d,%d,%b",
+                counters, checkpoints, cost,
+                expectedPassengers, boardedPassengers, missedPassengers,
+                peakTicketQueue, peakCheckpointQueue, feasible);
+    }
+
+    @Override
+    public String toString() {
+        return "StaffingCandidate{" + toCsvRow() + '}';
+    }
+}
@@ -0,0 +1,312 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.service.ScenarioConfig;
+import sim.service.SimulationEngine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Smallest staffing with no missed passengers (and, optionally, queue peaks under a limit).
+ *
+ * A candidate is "the first N ticket counters and the first M checkpoints" of the base config,
+ * in the order CheckpointPanel / TicketCounterPanel list them; to search beyond today's
+ * staffing, add more counters/checkpoints to the base config first.
+ *
+ * Missed passengers and the checkpoint queue only shrink as checkpoints are added, so for each
+ * counter count the smallest feasible checkpoint count is found by binary search
+ * (about log2(M) days instead of M). The counter counts are searched in parallel on a
+ * ForkJoinPool like ParameterSweep. The compiled schedule and the arrivals are built once, by a
+ * template engine, and shared by every candidate engine; candidates run with recording disabled
+ * and event-driven.
+ *
+ * Every evaluated candidate is kept, so the result also gives the cost-vs-missed Pareto
+ * frontier: the cheapest candidates for which nothing cheaper misses fewer passengers.
+ */
+public class StaffingOptimizer {
+
+    private final ScenarioConfig base;
+
+    private double counterCost = 1.0;
+    private double checkpointCost = 1.0;
+    private int maxTicketQueue = Integer.MAX_VALUE;
+    private int maxCheckpointQueue = Integer.MAX_VALUE;
+
+    private int minCounters;
+    private int maxCounters;
+    private int minCheckpoints;
+    private int maxCheckpoints;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Consumer<SimulationEngine> engineSetup = engine -> { };
+
+    public StaffingOptimizer(ScenarioConfig base) {
+        if (base == null) throw new IllegalArgumentException("base config is required");
+        this.base = base.copy();
+        int counters = this.base.getCounters().size();
+        int checkpoints = this.base.getCheckpoints().size();
+        this.minCounters = Math.min(1, counters);
+        this.maxCounters = counters;
+        this.minCheckpoints = Math.min(1, checkpoints);
+        this.maxCheckpoints = checkpoints;
+    }
+
+    // ==========================================================
+    // Objective and constraints
+    // ==========================================================
+
+    /** Cost of one ticket counter / one checkpoint (staff per shift, dollars, ...). Both default to 1. */
+    public void setCosts(double perCounter, double perCheckpoint) {
+        this.counterCost = Math.max(0.0, perCounter);
+        this.checkpointCost = Math.max(0.0, perCheckpoint);
+    }
+
+    public double getCounterCost() { return counterCost; }
+    public double getCheckpointCost() { return checkpointCost; }
+
+    /** Highest allowed peak of all ticket lines together (Integer.MAX_VALUE = no limit). */
+    public void setMaxTicketQueue(int maxTicketQueue) { this.maxTicketQueue = Math.max(0, maxTicketQueue); }
+    public int getMaxTicketQueue() { return maxTicketQueue; }
+
+    /** Highest allowed peak of all checkpoint lines together (Integer.MAX_VALUE = no limit). */
+    public void setMaxCheckpointQueue(int maxCheckpointQueue) { this.maxCheckpointQueue = Math.max(0, maxCheckpointQueue); }
+    public int getMaxCheckpointQueue() { return maxCheckpointQueue; }
+
+    /** Counter counts to try, clamped to 1 .. the base config's counters. */
+    public void setCounterRange(int min, int max) {
+        int n = base.getCounters().size();
+        this.minCounters = clamp(min, Math.min(1, n), n);
+        this.maxCounters = clamp(max, minCounters, n);
+    }
+
+    /** Checkpoint counts to try, clamped to 1 .. the base config's checkpoints. */
+    public void setCheckpointRange(int min, int max) {
+        int n = base.getCheckpoints().size();
+        this.minCheckpoints = clamp(min, Math.min(1, n), n);
+        this.maxCheckpoints = clamp(max, minCheckpoints, n);
+    }
+
+    public int getMinCounters() { return minCounters; }
+    public int getMaxCounters() { return maxCounters; }
+    public int getMinCheckpoints() { return minCheckpoints; }
+    public int getMaxCheckpoints() { return maxCheckpoints; }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); }
+
+    /**
+     * Applied to every candidate engine before it runs (routing policy, tick size, ...).
+     * A stochastic model set here gives every candidate the same seed, so they see the same draws.
+     */
+    public void setEngineSetup(Consumer<SimulationEngine> engineSetup) {
+        this.engineSetup = (engineSetup == null) ? engine -> { } : engineSetup;
+    }
+
+    // ==========================================================
+    // Running
+    // ==========================================================
+
+    public Result run() {
+        return run(null);
+    }
+
+    /**
+     * Search every counter count in range.
+     * @param progress called with the number of evaluated candidates, from worker threads (may be null)
+     */
+    public Result run(IntConsumer progress) {
+        long t0 = System.nanoTime();
+
+        // the template's schedule and arrivals are built once and shared (read-only) by every candidate
+        SimulationEngine template = base.createEngine();
+        Map<Long, StaffingCandidate> evaluated = new ConcurrentHashMap<>();
+        AtomicInteger done = new AtomicInteger();
+        Search search = new Search(template, evaluated, done, progress);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new CounterTask(minCounters, maxCounters + 1, search));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<StaffingCandidate> all = new ArrayList<>(evaluated.values());
+        all.sort(Comparator.comparingInt(StaffingCandidate::getCounters)
+                .thenComparingInt(StaffingCandidate::getCheckpoints));
+        return new Result(all, (System.nanoTime() - t0) / 1_000_000L);
+    }
+
+    /** Shared state of one run(): the template engine and every candidate evaluated so far. */
+    private final class Search {
+        private final SimulationEngine template;
+        private final Map<Long, StaffingCandidate> evaluated;
+        private final AtomicInteger done;
+        private final IntConsumer progress;
+
+        Search(SimulationEngine template, Map<Long, StaffingCandidate> evaluated,
+               AtomicInteger done, IntConsumer progress) {
+            this.template = template;
+            this.evaluated = evaluated;
+            this.done = done;
+            this.progress = progress;
+        }
+
+        /** Binary search for the fewest checkpoints that work with this many counters. */
+        void searchCheckpoints(int counters) {
+            // if even every checkpoint fails, nothing smaller will pass (e.g. the ticket queue is over its limit)
+            if (!evaluate(counters, maxCheckpoints).isFeasible()) return;
+
+            int lo = minCheckpoints;
+            int hi = maxCheckpoints;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (evaluate(counters, mid).isFeasible()) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+        }
+
+        StaffingCandidate evaluate(int counters, int checkpoints) {
+            Long key = ((long) counters << 32) | checkpoints;
+            StaffingCandidate known = evaluated.get(key);
+            if (known != null) return known;
+
+            // config objects are only read by the engine, so candidates share the base config's
+            SimulationEngine engine = new SimulationEngine(
+                    base.getPercentInPerson(),
+                    new ArrayList<>(base.getCounters().subList(0, counters)),
+                    new ArrayList<>(base.getCheckpoints().subList(0, checkpoints)),
+                    template.getSchedule(),
+                    base.getIntervalMinutes(),
+                    base.getTransitDelayMinutes(),
+                    template.getHoldDelayMinutes(),
+                    base.getHoldRooms());
+            engine.shareArrivalsFrom(template);
+            engine.setRecordingEnabled(false);
+            engine.setEventDriven(true);
+            engineSetup.accept(engine);
+            engine.runAllIntervals();
+
+            StaffingCandidate c = toCandidate(counters, checkpoints, engine);
+            evaluated.put(key, c);
+            if (progress != null) progress.accept(done.incrementAndGet());
+            return c;
+        }
+    }
+
+    private StaffingCandidate toCandidate(int counters, int checkpoints, SimulationEngine engine) {
+        int expected = 0;
+        int boarded = 0;
+        int missed = 0;
+        for (Flight f : engine.getFlights()) {
+            expected += RunResultWriter.expectedPassengers(f);
+            boarded += engine.getBoardedCount(f);
+            missed += engine.getMissedCount(f);
+        }
+        int peakTicket = engine.getTicketQueuedSeries().peakValue();
+        int peakCheckpoint = engine.getCheckpointQueuedSeries().peakValue();
+        boolean feasible = missed == 0
+                && peakTicket <= maxTicketQueue
+                && peakCheckpoint <= maxCheckpointQueue;
+
+        return new StaffingCandidate(counters, checkpoints,
+                counters * counterCost + checkpoints * checkpointCost,
+                expected, boarded, missed, peakTicket, peakCheckpoint, feasible);
+    }
+
+    private static final class CounterTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final Search search;
+
+        CounterTask(int lo, int hi, Search search) {
+            this.lo = lo;
+            this.hi = hi;
+            this.search = search;
+        }
+
+        @Override
+        protected void compute() {
+            // one binary search per counter count; work-stealing balances the uneven ones
+            if (hi - lo <= 1) {
+                if (lo < hi) search.searchCheckpoints(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new CounterTask(lo, mid, search), new CounterTask(mid, hi, search));
+        }
+    }
+
+    // ==========================================================
+    // Result
+    // ==========================================================
+
+    /** Every evaluated candidate, the cheapest feasible one and the cost-vs-missed frontier. */
+    public static final class Result {
+        private final List<StaffingCandidate> evaluated;
+        private final List<StaffingCandidate> frontier;
+        private final StaffingCandidate best;
+        private final long elapsedMillis;
+
+        Result(List<StaffingCandidate> evaluated, long elapsedMillis) {
+            this.evaluated = Collections.unmodifiableList(evaluated);
+            this.frontier = Collections.unmodifiableList(paretoFrontier(evaluated));
+            this.elapsedMillis = elapsedMillis;
+
+            StaffingCandidate cheapest = null;
+            for (StaffingCandidate c : evaluated) {
+                if (!c.isFeasible()) continue;
+                if (cheapest == null || BY_COST.compare(c, cheapest) < 0) cheapest = c;
+            }
+            this.best = cheapest;
+        }
+
+        /** @return the cheapest feasible candidate, or null if no staffing in range is feasible */
+        public StaffingCandidate getBest() { return best; }
+
+        /** Ordered by cost; each entry misses fewer passengers than every cheaper one. */
+        public List<StaffingCandidate> getFrontier() { return frontier; }
+
+        /** Ordered by counters, then checkpoints. */
+        public List<StaffingCandidate> getEvaluated() { return evaluated; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    /** Cost, then fewer missed, then fewer counters (ties are then broken the same way every run). */
+    private static final Comparator<StaffingCandidate> BY_COST =
+            Comparator.comparingDouble(StaffingCandidate::getCost)
+                    .thenComparingInt(StaffingCandidate::getMissedPassengers)
+                    .thenComparingInt(StaffingCandidate::getCounters)
+                    .thenComparingInt(StaffingCandidate::getCheckpoints);
+
+    private static List<StaffingCandidate> paretoFrontier(List<StaffingCandidate> candidates) {
+        List<StaffingCandidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(BY_COST);
+        List<StaffingCandidate> out = new ArrayList<>();
+        int fewestMissed = Integer.MAX_VALUE;
+        for (StaffingCandidate c : sorted) {
+            if (c.getMissedPassengers() < fewestMissed) {
+                out.add(c);
+                fewestMissed = c.getMissedPassengers();
+            }
+        }
+        return out;
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,98 @@
+package sim.service.batch;
+
+import java.util.Locale;
+
+/**
+ * One finished sweep run, reduced to a handful of numbers.
+ * Holds no reference to the engine, so rows can be buffered or streamed cheaply.
+ */
+public final class SweepResult {
+
+    public static final String CSV_HEADER =
+            "point,checkpointRatePerHour,counterRatePerMinute,percentInPerson,"
+                    + "curvePeak,curveLeftSigma,curveRightSigma,"
+                    + "expected,boarded,missed,peakTicketQueue,peakCheckpointQueue,peakHoldRoomTotal,"
+                    + "maxHeldUp,elapsedMicros";
+
+    private final int pointIndex;
+
+    private final double checkpointRatePerHour;
+    private final double counterRatePerMinute;
+    private final double percentInPerson;
+    private final int curvePeak;
+    private final int curveLeftSigma;
+    private final int curveRightSigma;
+
+    private final int expectedPassengers;
+    private final int boardedPassengers;
+    private final int missedPassengers;
+    private final int peakTicketQueue;
+    private final int peakCheckpointQueue;
+    private final int peakHoldRoomTotal;
+    private final int maxHeldUp;
+    private final long elapsedMicros;
+
+    SweepResult(int pointIndex,
+                double checkpointRatePerHour,
+                double counterRatePerMinute,
+                double percentInPerson,
+                int curvePeak,
+                int curveLeftSigma,
+                int curveRightSigma,
+                int expectedPassengers,
+                int boardedPassengers,
+                int missedPassengers,
+                int peakTicketQueue,
+                int peakCheckpointQueue,
+                int peakHoldRoomTotal,
+                int maxHeldUp,
+                long elapsedMicros) {
+        this.pointIndex = pointIndex;
+        this.checkpointRatePerHour = checkpointRatePerHour;
+        this.counterRatePerMinute = counterRatePerMinute;
+        this.percentInPerson = percentInPerson;
+        this.curvePeak = curvePeak;
+        this.curveLeftSigma = curveLeftSigma;
+        this.curveRightSigma = curveRightSigma;
+        this.expectedPassengers = expectedPassengers;
+        this.boardedPassengers = boardedPassengers;
+        this.missedPassengers = missedPassengers;
+        this.peakTicketQueue = peakTicketQueue;
+        this.peakCheckpointQueue = peakCheckpointQueue;
+        this.peakHoldRoomTotal = peakHoldRoomTotal;
+        this.maxHeldUp = maxHeldUp;
+        this.elapsedMicros = elapsedMicros;
+    }
+
+    public int getPointIndex() { return pointIndex; }
+    public double getCheckpointRatePerHour() { return checkpointRatePerHour; }
+    public double getCounterRatePerMinute() { return counterRatePerMinute; }
+    public double getPercentInPerson() { return percentInPerson; }
+    public int getCurvePeak() { return curvePeak; }
+    public int getCurveLeftSigma() { return curveLeftSigma; }
+    public int getCurveRightSigma() { return curveRightSigma; }
+
+    public int getExpectedPassengers() { return expectedPassengers; }
+    public int getBoardedPassengers() { return boardedPassengers; }
+    /** Created but not in a hold room at departure (SimulationEngine.getMissedCount), not expected - boarded. */
+    public int getMissedPassengers() { return missedPassengers; }
+    public int getPeakTicketQueue() { return peakTicketQueue; }
+    public int getPeakCheckpointQueue() { return peakCheckpointQueue; }
+    public int getPeakHoldRoomTotal() { return peakHoldRoomTotal; }
+    public int getMaxHeldUp() { return maxHeldUp; }
+    public long getElapsedMicros() { return elapsedMicros; }
+
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%d,%.3f,%.4f,%.4f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d",
+                pointIndex, checkpointRatePerHour, counterRatePerMinute, percentInPerson,
+                curvePeak, curveLeftSigma, curveRightSigma,
+                expectedPassengers, boardedPassengers, missedPassengers,
+                peakTicketQueue, peakCheckpointQueue, peakHoldRoomTotal,
+                maxHeldUp, elapsedMicros);
+    }
+
+    @Override
+    public String toString() {
+        return "SweepResult{" + toCsvRow() + '}';
+    }
+}
@@ -2,6 +2,7 @@ package sim.ui;
 
 import sim.model.ArrivalCurveConfig;
 import sim.service.ArrivalGenerator;
+import sim.service.arrivals.ArrivalCurveCache;
 import sim.service.arrivals.EditedSplitGaussianArrivalGenerator;
 
 import javax.swing.*;
@@ -413,51 +414,11 @@ public class ArrivalCurveEditorPanel extends JPanel {
     }
 
     /**
-     * Rebuild the same legacy curve shape your ArrivalGenerator produces for (arrivalSpan=120, close=20),
-     * but without needing a Flight instance.
+     * The same legacy curve shape your ArrivalGenerator produces for (arrivalSpan=120, close=20),
+     * but without needing a Flight instance. Shared cached array: read-only.
      */
     private int[] legacyShapeCounts(int totalPassengers) {
-        int totalMinutes = 120 - 20; // 100
-        double[] prob = new double[totalMinutes];
-
-        double mean = totalMinutes / 2.0;
-        double sigma = totalMinutes / 6.0;
-
-        double sum = 0.0;
-        for (int m = 0; m < totalMinutes; m++) {
-            double x = (m + 0.5 - mean) / sigma;
-            double pdf = Math.exp(-0.5 * x * x);
-            prob[m] = pdf;
-            sum += pdf;
-        }
-        for (int m = 0; m < totalMinutes; m++) prob[m] /= sum;
-
-        int[] out = new int[totalMinutes];
-        double[] raw = new double[totalMinutes];
-        int floorSum = 0;
-
-        for (int m = 0; m < totalMinutes; m++) {
-            raw[m] = prob[m] * totalPassengers;
-            out[m] = (int) Math.floor(raw[m]);
-            floorSum += out[m];
-        }
-
-        int remainder = totalPassengers - floorSum;
-        while (remainder > 0) {
-            int bestIdx = 0;
-            double bestFrac = -1.0;
-            for (int i = 0; i < totalMinutes; i++) {
-                double frac = raw[i] - out[i];
-                if (frac > bestFrac) {
-                    bestFrac = frac;
-                    bestIdx = i;
-                }
-            }
-            out[bestIdx]++;
-            remainder--;
-        }
-
-        return out;
+        return ArrivalCurveCache.shared().legacy(120, totalPassengers);
     }
 
     // Coordinate transforms
@@ -1,5 +1,7 @@
 package sim.ui;
 
+import sim.model.CheckpointConfig;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -1,5 +1,7 @@
 package sim.ui;
 
+import sim.model.CheckpointConfig;
+
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
 import java.util.List;
@@ -1,13 +1,14 @@
 package sim.ui;
 
 import sim.model.Flight;
-import sim.model.Passenger;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
@@ -15,15 +16,44 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
-public class DataTableFrame extends JFrame {
+public class DataTableFrame extends JFrame implements SimulationRunWorker.Listener {
     private final JTabbedPane tabbedPane;
 
+    private final BaseHistoryTableModel ticketQueueModel;
+    private final BaseHistoryTableModel ticketCompletedModel;
+    private final BaseHistoryTableModel checkpointQueueModel;
+    private final BaseHistoryTableModel checkpointCompletedModel;
+
+    private final JButton exportBtn;
+    private final JProgressBar progressBar;
+    private final JButton cancelBtn;
+    private final int totalIntervals;
+
+    /** Runs the engine here, on the calling thread, then shows its tables. */
     public DataTableFrame(SimulationEngine engine) {
-        super("Interval Data");
-        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        this(engine, null);
 
         // Run full simulation to populate history and arrivals
         engine.runAllIntervals();
+        for (int step = 0; step < engine.getHistoryQueuedTicket().size(); step++) {
+            addInterval(SimulationRunWorker.IntervalCounts.of(engine, step));
+        }
+        fireIntervalsUpdated();
+        runFinished(false, null);
+    }
+
+    /**
+     * Fills in from a background run as its intervals arrive. Registers itself with run;
+     * the caller execute()s it. Closing the window cancels the run.
+     */
+    public DataTableFrame(SimulationRunWorker run) {
+        this(run.getEngine(), run);
+        run.addListener(this);
+    }
+
+    private DataTableFrame(SimulationEngine engine, SimulationRunWorker run) {
+        super("Interval Data");
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
         // Prepare time headers
         List<Flight> flights = engine.getFlights();
@@ -33,13 +63,15 @@ public class DataTableFrame extends JFrame {
             .orElse(LocalTime.MIDNIGHT);
         LocalTime startTime = firstDep.minusMinutes(engine.getArrivalSpan());
         int interval = engine.getInterval();
-        int totalIntervals = engine.getTotalIntervals();
+        totalIntervals = engine.getTotalIntervals();
+        int ticketLines = engine.getTicketLines().size();
+        int checkpointLines = engine.getCheckpointLines().size();
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
 
         // Create tabbed pane
         tabbedPane = new JTabbedPane();
 
-        // Arrivals tab
+        // Arrivals tab (arrivals are fixed when the engine is built, so this is complete right away)
         JTable arrivalsTable = new JTable(
             new ArrivalsTableModel(engine, startTime, fmt)
         );
@@ -47,66 +79,59 @@ public class DataTableFrame extends JFrame {
         tabbedPane.addTab("Arrivals", new JScrollPane(arrivalsTable));
 
         // Ticket Queue tab
-        JTable ticketQueueTable = new JTable(
-            new BaseHistoryTableModel(
-                engine.getHistoryQueuedTicket(),
-                "Ticket Queue",
-                startTime,
-                interval,
-                totalIntervals,
-                fmt
-            )
+        ticketQueueModel = new BaseHistoryTableModel(
+            ticketLines, "Ticket Queue", startTime, interval, totalIntervals, fmt
         );
+        JTable ticketQueueTable = new JTable(ticketQueueModel);
         configureTable(ticketQueueTable);
         tabbedPane.addTab("Ticket Queue", new JScrollPane(ticketQueueTable));
 
         // Ticket Completed tab
-        JTable ticketCompletedTable = new JTable(
-            new BaseHistoryTableModel(
-                engine.getHistoryServedTicket(),
-                "Ticket Completed",
-                startTime,
-                interval,
-                totalIntervals,
-                fmt
-            )
+        ticketCompletedModel = new BaseHistoryTableModel(
+            ticketLines, "Ticket Completed", startTime, interval, totalIntervals, fmt
         );
+        JTable ticketCompletedTable = new JTable(ticketCompletedModel);
         configureTable(ticketCompletedTable);
         tabbedPane.addTab("Ticket Completed", new JScrollPane(ticketCompletedTable));
 
         // Checkpoint Queue tab
-        JTable checkpointQueueTable = new JTable(
-            new BaseHistoryTableModel(
-                engine.getHistoryQueuedCheckpoint(),
-                "Checkpoint Queue",
-                startTime,
-                interval,
-                totalIntervals,
-                fmt
-            )
+        checkpointQueueModel = new BaseHistoryTableModel(
+            checkpointLines, "Checkpoint Queue", startTime, interval, totalIntervals, fmt
         );
+        JTable checkpointQueueTable = new JTable(checkpointQueueModel);
         configureTable(checkpointQueueTable);
         tabbedPane.addTab("Checkpoint Queue", new JScrollPane(checkpointQueueTable));
 
         // Checkpoint Completed tab
-        JTable checkpointCompletedTable = new JTable(
-            new BaseHistoryTableModel(
-                engine.getHistoryServedCheckpoint(),
-                "Checkpoint Completed",
-                startTime,
-                interval,
-                totalIntervals,
-                fmt
-            )
+        checkpointCompletedModel = new BaseHistoryTableModel(
+            checkpointLines, "Checkpoint Completed", startTime, interval, totalIntervals, fmt
         );
+        JTable checkpointCompletedTable = new JTable(checkpointCompletedModel);
         configureTable(checkpointCompletedTable);
         tabbedPane.addTab("Checkpoint Completed", new JScrollPane(checkpointCompletedTable));
 
         add(tabbedPane, BorderLayout.CENTER);
 
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+
+        // Run progress (hidden once the run is over)
+        JPanel progressPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        progressBar = new JProgressBar(0, Math.max(1, totalIntervals));
+        progressBar.setStringPainted(true);
+        progressBar.setString("Computing 0 / " + totalIntervals);
+        cancelBtn = new JButton("Cancel");
+        cancelBtn.addActionListener(e -> {
+            if (run != null) run.requestCancel();
+            cancelBtn.setEnabled(false);
+        });
+        progressPanel.add(progressBar);
+        progressPanel.add(cancelBtn);
+        bottomPanel.add(progressPanel, BorderLayout.WEST);
+
         // Export all tabs as CSV
-        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        JButton exportBtn = new JButton("Save All as CSV");
+        JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        exportBtn = new JButton("Save All as CSV");
+        exportBtn.setEnabled(false);
         exportBtn.addActionListener(e -> {
             JFileChooser chooser = new JFileChooser();
             chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
@@ -133,13 +158,65 @@ public class DataTableFrame extends JFrame {
                 }
             }
         });
-        bottomPanel.add(exportBtn);
+        exportPanel.add(exportBtn);
+        bottomPanel.add(exportPanel, BorderLayout.EAST);
         add(bottomPanel, BorderLayout.SOUTH);
 
+        if (run != null) {
+            // nobody else will look at a run whose table was closed mid-way
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    run.requestCancel();
+                }
+            });
+        }
+
         setSize(1000, 600);
         setLocationRelativeTo(null);
     }
 
+    // ==========================================================
+    // SimulationRunWorker.Listener
+    // ==========================================================
+
+    @Override
+    public void intervalsComputed(List<SimulationRunWorker.IntervalCounts> intervals) {
+        for (SimulationRunWorker.IntervalCounts c : intervals) addInterval(c);
+        fireIntervalsUpdated();
+
+        int done = intervals.get(intervals.size() - 1).getStep() + 1;
+        progressBar.setValue(done);
+        progressBar.setString("Computing " + done + " / " + totalIntervals);
+    }
+
+    @Override
+    public void runFinished(boolean cancelled, Throwable failure) {
+        exportBtn.setEnabled(true);
+        cancelBtn.setVisible(false);
+        if (failure != null) {
+            progressBar.setString("Failed: " + failure);
+        } else if (cancelled) {
+            progressBar.setString("Cancelled at " + progressBar.getValue() + " / " + totalIntervals);
+        } else {
+            progressBar.setVisible(false);
+        }
+    }
+
+    private void addInterval(SimulationRunWorker.IntervalCounts c) {
+        ticketQueueModel.setInterval(c.getStep(), c.getTicketQueued());
+        ticketCompletedModel.setInterval(c.getStep(), c.getTicketServed());
+        checkpointQueueModel.setInterval(c.getStep(), c.getCheckpointQueued());
+        checkpointCompletedModel.setInterval(c.getStep(), c.getCheckpointServed());
+    }
+
+    private void fireIntervalsUpdated() {
+        ticketQueueModel.fireTableRowsUpdated(0, ticketQueueModel.getRowCount() - 1);
+        ticketCompletedModel.fireTableRowsUpdated(0, ticketCompletedModel.getRowCount() - 1);
+        checkpointQueueModel.fireTableRowsUpdated(0, checkpointQueueModel.getRowCount() - 1);
+        checkpointCompletedModel.fireTableRowsUpdated(0, checkpointCompletedModel.getRowCount() - 1);
+    }
+
     private void configureTable(JTable table) {
         table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
         table.setDefaultRenderer(
@@ -243,12 +320,14 @@ public class DataTableFrame extends JFrame {
         @Override public Object getValueAt(int row, int col) { return data[row][col]; }
     }
 
+    /** One column per interval; a column stays empty until its interval has been computed. */
     private static class BaseHistoryTableModel extends AbstractTableModel {
         private final String[] columnNames;
         private final Object[][] data;
+        private final int lines;
 
         public BaseHistoryTableModel(
-            List<List<List<Passenger>>> history,
+            int lines,
             String label,
             LocalTime startTime,
             int interval,
@@ -257,6 +336,7 @@ public class DataTableFrame extends JFrame {
         ) {
             // clamp negative totalIntervals to zero
             int ti = Math.max(totalIntervals, 0);
+            this.lines = lines;
 
             columnNames = new String[ti + 1];
             columnNames[0] = "Time";
@@ -265,7 +345,6 @@ public class DataTableFrame extends JFrame {
                     startTime.plusMinutes((long)(i + 1) * interval).format(fmt);
             }
 
-            int lines = history.isEmpty() ? 0 : history.get(0).size();
             data = new Object[lines + 1][ti + 1];
 
             // first column labels
@@ -273,17 +352,18 @@ public class DataTableFrame extends JFrame {
             for (int r = 1; r <= lines; r++) {
                 data[r][0] = label + " " + r;
             }
+        }
 
-            // fill counts
-            for (int c = 0; c < ti; c++) {
-                int sum = 0;
-                for (int r = 1; r <= lines; r++) {
-                    int count = history.get(c).get(r - 1).size();
-                    data[r][c + 1] = count;
-                    sum += count;
-                }
-                data[0][c + 1] = sum;
+        /** Fill column step with one count per line (does not fire; see fireIntervalsUpdated). */
+        void setInterval(int step, int[] counts) {
+            if (step < 0 || step + 1 >= columnNames.length) return;
+            int sum = 0;
+            for (int r = 1; r <= lines; r++) {
+                int count = counts[r - 1];
+                data[r][step + 1] = count;
+                sum += count;
             }
+            data[0][step + 1] = sum;
         }
 
         @Override public int getRowCount() { return data.length; }
@@ -1,6 +1,7 @@
 package sim.ui;
 
 import sim.model.Flight;
+import sim.model.HoldRoomConfig;
 import sim.model.Passenger;
 import sim.service.SimulationEngine;
 
@@ -8,6 +9,8 @@ import javax.swing.JComponent;
 import javax.swing.JViewport;
 import java.awt.*;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class GridRenderer {
@@ -379,12 +382,29 @@ public class GridRenderer {
         return "Hold Room " + cfg.getId() + "  (" + m + ":" + ss + ")";
     }
 
+    /**
+     * Cell size for a hold room holding all of f's passengers (seats x fill).
+     * Layout used to be precomputed by the engine for every flight; it is now worked out here,
+     * only for what is actually drawn.
+     */
+    public static int holdRoomCellSize(Flight f) {
+        if (f == null) return MIN_CELL_SIZE;
+        return bestCellSizeForBox((int) Math.round(f.getSeats() * f.getFillPercent()));
+    }
+
+    // passenger count -> cell size, filled on first use (paints ask for the same few counts)
+    private static final Map<Integer, Integer> CELL_SIZE_BY_COUNT = new ConcurrentHashMap<>();
+
     /**
      * Dynamic sizing so mixed-flight rooms still fit in the box.
      * We maximize cell size while keeping grid within HOLD_BOX_SIZE x HOLD_BOX_SIZE.
      */
     private static int bestCellSizeForBox(int passengerCount) {
         if (passengerCount <= 0) return HOLD_BOX_SIZE;
+        return CELL_SIZE_BY_COUNT.computeIfAbsent(passengerCount, GridRenderer::computeCellSize);
+    }
+
+    private static int computeCellSize(int passengerCount) {
         int best = MIN_CELL_SIZE;
 
         int maxRowsPossible = Math.max(1, HOLD_BOX_SIZE / MIN_CELL_SIZE);
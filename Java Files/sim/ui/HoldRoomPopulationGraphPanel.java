@@ -1,7 +1,10 @@
 package sim.ui;
 
+import sim.model.HoldRoomConfig;
 import sim.model.Passenger;
 import sim.service.SimulationEngine;
+import sim.service.batch.QuantileBands;
+import sim.service.batch.ReplicationResult;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,6 +18,9 @@ import java.util.List;
  * X-axis uses the same interval indexing pattern as the rest of your UI:
  *  - interval 0 = initial state (before any simulateInterval ran) -> 0 passengers
  *  - interval i>=1 uses historyHoldRooms.get(i-1)
+ *
+ * After setReplicationBands(result) the selected room's Monte Carlo spread is drawn behind its
+ * line: shaded p10-p90 band, mean, dashed median.
  */
 public class HoldRoomPopulationGraphPanel extends JPanel {
     private final SimulationEngine engine;
@@ -37,12 +43,17 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
     // Track how many rooms we last built buttons for
     private int lastRoomCount = -1;
 
+    // Monte Carlo bands per room (null = none)
+    private ReplicationResult replicationBands;
+
     // ---------------- NEW: Summary stats panel (shown ONLY after simulation completes) ----------------
 
     private final JPanel statsPanel;
     private final JLabel statsStatusLabel;
     private final JLabel maxPeopleValueLabel;
     private final JLabel areaValueLabel;
+    private final JLabel p90Label;
+    private final JLabel p90ValueLabel;
 
     public HoldRoomPopulationGraphPanel(SimulationEngine engine) {
         super(new BorderLayout(8, 8));
@@ -99,6 +110,14 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
         statsPanel.add(areaLbl);
         statsPanel.add(areaValueLabel);
 
+        p90Label = new JLabel("P90 peak (replications):");
+        p90Label.setAlignmentX(Component.LEFT_ALIGNMENT);
+        p90ValueLabel = new JLabel("N/A");
+        p90ValueLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        statsPanel.add(Box.createVerticalStrut(8));
+        statsPanel.add(p90Label);
+        statsPanel.add(p90ValueLabel);
+
         // Put graph + stats side-by-side
         JPanel graphAndStats = new JPanel(new BorderLayout(8, 8));
         graphAndStats.add(graphContainer, BorderLayout.CENTER);
@@ -131,6 +150,16 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
         graphPanel.repaint();
     }
 
+    /** Show Monte Carlo bands for every room (null removes them). */
+    public void setReplicationBands(ReplicationResult result) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> setReplicationBands(result));
+            return;
+        }
+        this.replicationBands = result;
+        syncWithEngine();
+    }
+
     /**
      * Call each refresh tick (like arrivalsGraphPanel.syncWithEngine()).
      * Rebuilds series from engine history and updates the graph.
@@ -144,12 +173,22 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
         // NEW: title is handled by JLabel above the graph (no overlap)
         graphTitleLabel.setText(roomLabel + " - population per interval");
 
+        QuantileBands bands = (replicationBands == null) ? null : replicationBands.getHoldRoom(selectedRoomIndex);
         graphPanel.setData(series, maxComputedInterval, totalIntervals);
+        graphPanel.setBands(bands);
         graphPanel.setMarkerInterval(viewedInterval);
         graphPanel.repaint();
 
         // NEW: summary stats (only once simulation is done)
         updateStats(series);
+        if (bands == null) {
+            p90Label.setText("P90 peak (replications):");
+            p90ValueLabel.setText("N/A");
+        } else {
+            p90Label.setText("P90 peak (" + bands.getReplications() + " runs):");
+            p90ValueLabel.setText(String.format("%,d people, %,d sq ft",
+                    bands.peakP90(), bands.peakP90() * engine.getSqftPerPassenger()));
+        }
     }
 
     // --------- Internal helpers ----------
@@ -285,6 +324,7 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
 
     private static final class LineGraphPanel extends JPanel {
         private List<Integer> data = new ArrayList<>();
+        private QuantileBands bands;
         private int markerInterval = 0;
         private int maxComputed = 0;
         private int total = 0;
@@ -295,6 +335,10 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
             this.total = Math.max(0, totalIntervals);
         }
 
+        public void setBands(QuantileBands bands) {
+            this.bands = bands;
+        }
+
         public void setMarkerInterval(int markerInterval) {
             this.markerInterval = Math.max(0, markerInterval);
         }
@@ -324,6 +368,7 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
                 for (Integer v : data) {
                     if (v != null) maxY = Math.max(maxY, v);
                 }
+                if (bands != null) maxY = Math.max(maxY, bands.peakP90());
 
                 // Axes
                 g.setFont(g.getFont().deriveFont(Font.PLAIN, 11f));
@@ -336,16 +381,21 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
 
                 // X labels (0, maxComputed, total)
                 g.drawString("0", plotX - 2, plotY + plotH + 18);
-                g.drawString(String.valueOf(maxComputed), plotX + plotW - 20, plotY + plotH + 18);
+                int rightX = (bands != null) ? Math.max(maxComputed, bands.length() - 1) : maxComputed;
+                g.drawString(String.valueOf(rightX), plotX + plotW - 20, plotY + plotH + 18);
                 if (total > maxComputed) {
                     g.drawString("Total: " + total, plotX + 6, plotY + plotH + 18);
                 }
 
-                if (data.size() < 2) return;
-
-                // Map points: x in [0..maxComputed]
+                // Map points: x in [0..maxComputed] (the whole day once bands are shown)
                 int n = data.size(); // should be maxComputed+1
                 int maxX = Math.max(1, n - 1);
+                if (bands != null) {
+                    maxX = Math.max(maxX, bands.length() - 1);
+                    paintBands(g, plotX, plotY, plotW, plotH, maxX, maxY);
+                }
+
+                if (data.size() < 2) return;
 
                 int prevX = plotX;
                 int prevY = plotY + plotH - (int) ((data.get(0) / (double) maxY) * plotH);
@@ -374,5 +424,47 @@ public class HoldRoomPopulationGraphPanel extends JPanel {
                 g.dispose();
             }
         }
+
+        /** Shaded p10-p90 band, mean line and dashed median of the replications. */
+        private void paintBands(Graphics2D g, int plotX, int plotY, int plotW, int plotH, int maxX, int maxY) {
+            int len = bands.length();
+            if (len < 2) return;
+
+            int[] xs = new int[len * 2];
+            int[] ys = new int[len * 2];
+            for (int i = 0; i < len; i++) {
+                int x = plotX + (int) ((i / (double) maxX) * plotW);
+                xs[i] = x;
+                ys[i] = plotY + plotH - (int) ((bands.getP90(i) / (double) maxY) * plotH);
+                xs[len * 2 - 1 - i] = x;
+                ys[len * 2 - 1 - i] = plotY + plotH - (int) ((bands.getP10(i) / (double) maxY) * plotH);
+            }
+            Color base = new Color(31, 119, 180);
+            g.setColor(new Color(base.getRed(), base.getGreen(), base.getBlue(), 50));
+            g.fillPolygon(xs, ys, xs.length);
+
+            Stroke oldStroke = g.getStroke();
+            g.setColor(new Color(base.getRed(), base.getGreen(), base.getBlue(), 170));
+            int prevX = xs[0];
+            int prevMean = plotY + plotH - (int) ((bands.getMean(0) / maxY) * plotH);
+            for (int i = 1; i < len; i++) {
+                int y = plotY + plotH - (int) ((bands.getMean(i) / maxY) * plotH);
+                g.drawLine(prevX, prevMean, xs[i], y);
+                prevX = xs[i];
+                prevMean = y;
+            }
+            g.setStroke(new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                    10f, new float[]{4f, 4f}, 0f));
+            prevX = xs[0];
+            int prevMedian = plotY + plotH - (int) ((bands.getP50(0) / (double) maxY) * plotH);
+            for (int i = 1; i < len; i++) {
+                int y = plotY + plotH - (int) ((bands.getP50(i) / (double) maxY) * plotH);
+                g.drawLine(prevX, prevMedian, xs[i], y);
+                prevX = xs[i];
+                prevMedian = y;
+            }
+            g.setStroke(oldStroke);
+            g.setColor(getForeground());
+        }
     }
 }
@@ -1,26 +1,21 @@
 package sim.ui;
 
 import sim.model.ArrivalCurveConfig;
+import sim.model.CheckpointConfig;
 import sim.model.Flight;
+import sim.model.HoldRoomConfig;
+import sim.model.TicketCounterConfig;
+import sim.service.ScenarioConfig;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
-import java.util.HashSet;
 
 public class MainFrame extends JFrame {
     private GlobalInputPanel    globalInputPanel;
@@ -134,159 +129,36 @@ setContentPane(root);
     }
 
     private void saveConfigToFile(File file) throws Exception {
-        Properties p = new Properties();
-
-        p.setProperty("global.percentInPerson", Double.toString(globalInputPanel.getPercentInPerson()));
-        p.setProperty("global.arrivalSpanMinutes", Integer.toString(globalInputPanel.getArrivalSpanMinutes()));
-        p.setProperty("global.transitDelayMinutes", Integer.toString(globalInputPanel.getTransitDelayMinutes()));
-        p.setProperty("global.intervalMinutes", Integer.toString(globalInputPanel.getIntervalMinutes()));
-        p.setProperty("global.sqftPerPassenger", Integer.toString(globalInputPanel.getSqftPerPassenger()));
-
-        List<Flight> flights = flightTablePanel.getFlights();
-        p.setProperty("flights.count", Integer.toString(flights.size()));
-        for (int i = 0; i < flights.size(); i++) {
-            Flight f = flights.get(i);
-            p.setProperty("flights." + i + ".number", safeString(f.getFlightNumber()));
-            p.setProperty("flights." + i + ".depTime", f.getDepartureTime().toString());
-            p.setProperty("flights." + i + ".seats", Integer.toString(f.getSeats()));
-            p.setProperty("flights." + i + ".fillPercent", Double.toString(f.getFillPercent()));
-            p.setProperty("flights." + i + ".shape", f.getShape().name());
-        }
-
-        List<TicketCounterConfig> counters = ticketCounterPanel.getCounters();
-        p.setProperty("counters.count", Integer.toString(counters.size()));
-        for (int i = 0; i < counters.size(); i++) {
-            TicketCounterConfig cfg = counters.get(i);
-            p.setProperty("counters." + i + ".ratePerMinute", Double.toString(cfg.getRate()));
-            p.setProperty("counters." + i + ".allowedFlights", encodeFlightSet(cfg.getAllowedFlights()));
-        }
-
-        List<CheckpointConfig> checkpoints = checkpointPanel.getCheckpoints();
-        p.setProperty("checkpoints.count", Integer.toString(checkpoints.size()));
-        for (int i = 0; i < checkpoints.size(); i++) {
-            CheckpointConfig cfg = checkpoints.get(i);
-            p.setProperty("checkpoints." + i + ".ratePerHour", Double.toString(cfg.getRatePerHour()));
-        }
-
-        List<HoldRoomConfig> holdRooms = holdRoomSetupPanel.getHoldRooms();
-        p.setProperty("holdRooms.count", Integer.toString(holdRooms.size()));
-        for (int i = 0; i < holdRooms.size(); i++) {
-            HoldRoomConfig cfg = holdRooms.get(i);
-            p.setProperty("holdRooms." + i + ".walkMinutes", Integer.toString(cfg.getWalkMinutes()));
-            p.setProperty("holdRooms." + i + ".walkSeconds", Integer.toString(cfg.getWalkSecondsPart()));
-            p.setProperty("holdRooms." + i + ".allowedFlights", encodeStringSet(cfg.getAllowedFlightNumbers()));
-        }
-
-        ArrivalCurveConfig curveCfg = arrivalCurvePanel.getConfigCopy();
-        p.setProperty("arrivalCurve.legacyMode", Boolean.toString(curveCfg.isLegacyMode()));
-        p.setProperty("arrivalCurve.peakMinutesBeforeDeparture", Integer.toString(curveCfg.getPeakMinutesBeforeDeparture()));
-        p.setProperty("arrivalCurve.leftSigmaMinutes", Integer.toString(curveCfg.getLeftSigmaMinutes()));
-        p.setProperty("arrivalCurve.rightSigmaMinutes", Integer.toString(curveCfg.getRightSigmaMinutes()));
-        p.setProperty("arrivalCurve.lateClampEnabled", Boolean.toString(curveCfg.isLateClampEnabled()));
-        p.setProperty("arrivalCurve.lateClampMinutesBeforeDeparture",
-                Integer.toString(curveCfg.getLateClampMinutesBeforeDeparture()));
-        p.setProperty("arrivalCurve.windowStartMinutesBeforeDeparture",
-                Integer.toString(curveCfg.getWindowStartMinutesBeforeDeparture()));
-        p.setProperty("arrivalCurve.boardingCloseMinutesBeforeDeparture",
-                Integer.toString(curveCfg.getBoardingCloseMinutesBeforeDeparture()));
-
-        try (FileOutputStream out = new FileOutputStream(file)) {
-            p.store(out, "Airport UI Configuration");
-        }
+        ScenarioConfig cfg = new ScenarioConfig();
+        cfg.setPercentInPerson(globalInputPanel.getPercentInPerson());
+        cfg.setArrivalSpanMinutes(globalInputPanel.getArrivalSpanMinutes());
+        cfg.setTransitDelayMinutes(globalInputPanel.getTransitDelayMinutes());
+        cfg.setIntervalMinutes(globalInputPanel.getIntervalMinutes());
+        cfg.setSqftPerPassenger(globalInputPanel.getSqftPerPassenger());
+
+        cfg.setFlights(flightTablePanel.getFlights());
+        cfg.setCounters(ticketCounterPanel.getCounters());
+        cfg.setCheckpoints(checkpointPanel.getCheckpoints());
+        cfg.setHoldRooms(holdRoomSetupPanel.getHoldRooms());
+        cfg.setArrivalCurve(arrivalCurvePanel.getConfigCopy());
+
+        cfg.save(file);
     }
 
     private void loadConfigFromFile(File file) throws Exception {
-        Properties p = new Properties();
-        try (FileInputStream in = new FileInputStream(file)) {
-            p.load(in);
-        }
-
-        double percentInPerson = parseDouble(p, "global.percentInPerson", 0.4);
-        int arrivalSpan = parseInt(p, "global.arrivalSpanMinutes", 120);
-        int transitDelay = parseInt(p, "global.transitDelayMinutes", 2);
-        int sqftPerPassenger = parseInt(p, "global.sqftPerPassenger", 15);
-
-        globalInputPanel.setPercentInPerson(percentInPerson);
-        globalInputPanel.setArrivalSpanMinutes(arrivalSpan);
-        globalInputPanel.setTransitDelayMinutes(transitDelay);
-        globalInputPanel.setSqftPerPassenger(sqftPerPassenger);
-
-        int flightCount = parseInt(p, "flights.count", 0);
-        List<Flight> flights = new ArrayList<>();
-        for (int i = 0; i < flightCount; i++) {
-            String number = p.getProperty("flights." + i + ".number", Integer.toString(i + 1));
-            LocalTime dep = parseTime(p.getProperty("flights." + i + ".depTime", "00:00"));
-            int seats = parseInt(p, "flights." + i + ".seats", 180);
-            double fill = parseDouble(p, "flights." + i + ".fillPercent", 0.85);
-            Flight.ShapeType shape = parseShape(p.getProperty("flights." + i + ".shape", "CIRCLE"));
-            flights.add(new Flight(number, dep, seats, fill, shape));
-        }
-        flightTablePanel.setFlights(flights);
-
-        Map<String, Flight> flightByNumber = new HashMap<>();
-        for (Flight f : flightTablePanel.getFlights()) {
-            if (f.getFlightNumber() != null) {
-                flightByNumber.put(f.getFlightNumber().trim(), f);
-            }
-        }
-
-        int counterCount = parseInt(p, "counters.count", 0);
-        List<TicketCounterConfig> counters = new ArrayList<>();
-        for (int i = 0; i < counterCount; i++) {
-            double ratePerMinute = parseDouble(p, "counters." + i + ".ratePerMinute", 1.0);
-            String allowed = p.getProperty("counters." + i + ".allowedFlights", "*");
-            Set<Flight> allowedFlights = parseFlightSet(allowed, flightByNumber);
-            TicketCounterConfig cfg = new TicketCounterConfig(i + 1);
-            cfg.setRate(ratePerMinute);
-            cfg.setAllowedFlights(allowedFlights);
-            counters.add(cfg);
-        }
-        ticketCounterPanel.setCounters(counters);
-
-        int checkpointCount = parseInt(p, "checkpoints.count", 0);
-        List<CheckpointConfig> checkpoints = new ArrayList<>();
-        for (int i = 0; i < checkpointCount; i++) {
-            double ratePerHour = parseDouble(p, "checkpoints." + i + ".ratePerHour", 0.0);
-            CheckpointConfig cfg = new CheckpointConfig(i + 1);
-            cfg.setRatePerHour(ratePerHour);
-            checkpoints.add(cfg);
-        }
-        checkpointPanel.setCheckpoints(checkpoints);
-
-        int holdCount = parseInt(p, "holdRooms.count", 0);
-        List<HoldRoomConfig> holdRooms = new ArrayList<>();
-        for (int i = 0; i < holdCount; i++) {
-            int walkMin = parseInt(p, "holdRooms." + i + ".walkMinutes", 0);
-            int walkSec = parseInt(p, "holdRooms." + i + ".walkSeconds", 0);
-            HoldRoomConfig cfg = new HoldRoomConfig(i + 1, walkMin * 60 + walkSec);
-            String allowed = p.getProperty("holdRooms." + i + ".allowedFlights", "*");
-            if (!isAllMarker(allowed)) {
-                cfg.setAllowedFlightNumbers(parseStringSet(allowed));
-            }
-            holdRooms.add(cfg);
-        }
-        holdRoomSetupPanel.setHoldRooms(holdRooms);
-
-        ArrivalCurveConfig curveCfg = ArrivalCurveConfig.legacyDefault();
-        curveCfg.setLegacyMode(parseBoolean(p, "arrivalCurve.legacyMode", true));
-        curveCfg.setPeakMinutesBeforeDeparture(
-                parseInt(p, "arrivalCurve.peakMinutesBeforeDeparture", curveCfg.getPeakMinutesBeforeDeparture()));
-        curveCfg.setLeftSigmaMinutes(
-                parseInt(p, "arrivalCurve.leftSigmaMinutes", curveCfg.getLeftSigmaMinutes()));
-        curveCfg.setRightSigmaMinutes(
-                parseInt(p, "arrivalCurve.rightSigmaMinutes", curveCfg.getRightSigmaMinutes()));
-        curveCfg.setLateClampEnabled(parseBoolean(p, "arrivalCurve.lateClampEnabled", curveCfg.isLateClampEnabled()));
-        curveCfg.setLateClampMinutesBeforeDeparture(
-                parseInt(p, "arrivalCurve.lateClampMinutesBeforeDeparture",
-                        curveCfg.getLateClampMinutesBeforeDeparture()));
-        curveCfg.setWindowStartMinutesBeforeDeparture(
-                parseInt(p, "arrivalCurve.windowStartMinutesBeforeDeparture",
-                        curveCfg.getWindowStartMinutesBeforeDeparture()));
-        curveCfg.setBoardingCloseMinutesBeforeDeparture(
-                parseInt(p, "arrivalCurve.boardingCloseMinutesBeforeDeparture",
-                        curveCfg.getBoardingCloseMinutesBeforeDeparture()));
-        curveCfg.validateAndClamp();
-        arrivalCurvePanel.setConfig(curveCfg);
+        ScenarioConfig cfg = ScenarioConfig.load(file);
+
+        globalInputPanel.setPercentInPerson(cfg.getPercentInPerson());
+        globalInputPanel.setArrivalSpanMinutes(cfg.getArrivalSpanMinutes());
+        globalInputPanel.setTransitDelayMinutes(cfg.getTransitDelayMinutes());
+        globalInputPanel.setSqftPerPassenger(cfg.getSqftPerPassenger());
+
+        // counters reference these exact Flight objects, so hand the same instances to the table
+        flightTablePanel.setFlights(cfg.getFlights());
+        ticketCounterPanel.setCounters(cfg.getCounters());
+        checkpointPanel.setCheckpoints(cfg.getCheckpoints());
+        holdRoomSetupPanel.setHoldRooms(cfg.getHoldRooms());
+        arrivalCurvePanel.setConfig(cfg.getArrivalCurve());
     }
 
     private void showError(String title, Exception ex) {
@@ -301,119 +173,6 @@ setContentPane(root);
                 JOptionPane.ERROR_MESSAGE);
     }
 
-    private static String safeString(String v) {
-        return v == null ? "" : v;
-    }
-
-    private static String encodeFlightSet(Set<Flight> flights) {
-        if (flights == null || flights.isEmpty()) return "*";
-        StringBuilder sb = new StringBuilder();
-        for (Flight f : flights) {
-            if (f == null || f.getFlightNumber() == null) continue;
-            if (sb.length() > 0) sb.append(",");
-            sb.append(f.getFlightNumber().trim());
-        }
-        return sb.length() == 0 ? "*" : sb.toString();
-    }
-
-    private static String encodeStringSet(Set<String> values) {
-        if (values == null || values.isEmpty()) return "*";
-        StringBuilder sb = new StringBuilder();
-        for (String v : values) {
-            if (v == null) continue;
-            String trimmed = v.trim();
-            if (trimmed.isEmpty()) continue;
-            if (sb.length() > 0) sb.append(",");
-            sb.append(trimmed);
-        }
-        return sb.length() == 0 ? "*" : sb.toString();
-    }
-
-    private static boolean isAllMarker(String v) {
-        if (v == null) return true;
-        String t = v.trim();
-        return t.isEmpty() || "*".equals(t) || "ALL".equalsIgnoreCase(t);
-    }
-
-    private static Set<Flight> parseFlightSet(String value, Map<String, Flight> flightByNumber) {
-        Set<Flight> out = new HashSet<>();
-        if (isAllMarker(value)) return out;
-        for (String part : value.split(",")) {
-            String key = part.trim();
-            if (key.isEmpty()) continue;
-            Flight f = flightByNumber.get(key);
-            if (f != null) out.add(f);
-        }
-        return out;
-    }
-
-    private static Set<String> parseStringSet(String value) {
-        Set<String> out = new HashSet<>();
-        if (isAllMarker(value)) return out;
-        for (String part : value.split(",")) {
-            String key = part.trim();
-            if (!key.isEmpty()) out.add(key);
-        }
-        return out;
-    }
-
-    private static int parseInt(Properties p, String key, int fallback) {
-        String v = p.getProperty(key);
-        if (v == null) return fallback;
-        try {
-            return Integer.parseInt(v.trim());
-        } catch (Exception e) {
-            return fallback;
-        }
-    }
-
-    private static double parseDouble(Properties p, String key, double fallback) {
-        String v = p.getProperty(key);
-        if (v == null) return fallback;
-        try {
-            return Double.parseDouble(v.trim());
-        } catch (Exception e) {
-            return fallback;
-        }
-    }
-
-    private static boolean parseBoolean(Properties p, String key, boolean fallback) {
-        String v = p.getProperty(key);
-        if (v == null) return fallback;
-        return Boolean.parseBoolean(v.trim());
-    }
-
-    private static LocalTime parseTime(String value) {
-        if (value == null) return LocalTime.MIDNIGHT;
-        String v = value.trim();
-        if (v.isEmpty()) return LocalTime.MIDNIGHT;
-        try {
-            return LocalTime.parse(v);
-        } catch (Exception ignored) {
-        }
-        if (v.contains(".")) {
-            String[] parts = v.split("\\.");
-            if (parts.length == 2) {
-                try {
-                    int h = Integer.parseInt(parts[0]);
-                    int m = Integer.parseInt(parts[1]);
-                    return LocalTime.of(h, m);
-                } catch (Exception ignored) {
-                }
-            }
-        }
-        return LocalTime.MIDNIGHT;
-    }
-
-    private static Flight.ShapeType parseShape(String value) {
-        if (value == null) return Flight.ShapeType.CIRCLE;
-        try {
-            return Flight.ShapeType.valueOf(value.trim());
-        } catch (Exception e) {
-            return Flight.ShapeType.CIRCLE;
-        }
-    }
-
     private void onStartSimulation() {
         if (flightTablePanel.getFlights().isEmpty()) {
             JOptionPane.showMessageDialog(this,
@@ -478,8 +237,9 @@ setContentPane(root);
 
             int effectiveArrivalSpan = Math.max(baseArrivalSpan, curveStart);
 
-            // build the pre-run engine for the data table (populate its history)
-            SimulationEngine tableEngine = createEngine(
+            // one engine, computed once in the background: the data table fills in as
+            // intervals arrive, and the animation then scrubs the same recorded run
+            SimulationEngine engine = createEngine(
                     percentInPerson,
                     counters,
                     checkpoints,
@@ -491,42 +251,46 @@ setContentPane(root);
                     holdRooms
             );
     // NEW (Step 6)
-            tableEngine.setArrivalCurveConfig(curveCfg);
-            tableEngine.setSqftPerPassenger(sqftPerPassenger);
-            tableEngine.runAllIntervals();
-
-            // build the fresh engine for live animation
-            SimulationEngine simEngine = createEngine(
-                    percentInPerson,
-                    counters,
-                    checkpoints,
-                    effectiveArrivalSpan,
-                    interval,
-                    transitDelay,
-                    holdDelay,
-                    flights,
-                    holdRooms
-            );
-    // NEW (Step 6)
-            simEngine.setArrivalCurveConfig(curveCfg);
-            simEngine.setSqftPerPassenger(sqftPerPassenger);
-
-            new DataTableFrame(tableEngine).setVisible(true);
-            new SimulationFrame(simEngine).setVisible(true);
+            engine.setArrivalCurveConfig(curveCfg);
+            engine.setSqftPerPassenger(sqftPerPassenger);
+            // stepping back through the recorded day must show each passenger as of that interval
+            engine.setKeepFrontierFields(false);
+
+            SimulationRunWorker run = new SimulationRunWorker(engine);
+            new DataTableFrame(run).setVisible(true);
+            run.addListener(new SimulationRunWorker.Listener() {
+                @Override
+                public void intervalsComputed(List<SimulationRunWorker.IntervalCounts> intervals) { }
+
+                @Override
+                public void runFinished(boolean cancelled, Throwable failure) {
+                    if (failure != null) {
+                        showSimulationError(failure);
+                    } else if (!cancelled) {
+                        engine.goToInterval(0);
+                        new SimulationFrame(engine).setVisible(true);
+                    }
+                }
+            });
+            run.execute();
 
         } catch (Exception ex) {
-            ex.printStackTrace();
-            StringWriter sw = new StringWriter();
-            ex.printStackTrace(new PrintWriter(sw));
-            JTextArea area = new JTextArea(sw.toString(), 20, 60);
-            area.setEditable(false);
-            JOptionPane.showMessageDialog(this,
-                    new JScrollPane(area),
-                    "Simulation Error",
-                    JOptionPane.ERROR_MESSAGE);
+            showSimulationError(ex);
         }
     }
 
+    private void showSimulationError(Throwable ex) {
+        ex.printStackTrace();
+        StringWriter sw = new StringWriter();
+        ex.printStackTrace(new PrintWriter(sw));
+        JTextArea area = new JTextArea(sw.toString(), 20, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this,
+                new JScrollPane(area),
+                "Simulation Error",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
     /**
      * Try to get hold-room delay from the Hold Rooms tab/panel, without hard-coding
      * a specific method name (so you do not break if you renamed it).
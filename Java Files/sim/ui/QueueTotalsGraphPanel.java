@@ -1,6 +1,9 @@
 package sim.ui;
 
+import sim.service.IntTimeSeries;
 import sim.service.SimulationEngine;
+import sim.service.batch.QuantileBands;
+import sim.service.batch.ReplicationResult;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,9 +16,12 @@ import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.ValueMarker;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
 
 /**
  * Live-updating 3-line graph:
@@ -27,6 +33,9 @@ import org.jfree.data.xy.XYSeriesCollection;
  *  setCurrentInterval(i), setInterval(i), setDisplayedInterval(i), goToInterval(i),
  *  onIntervalChanged(i), updateForInterval(i)
  *  plus optional setMaxComputedInterval(max) / setTotalIntervals(total) / refresh().
+ *
+ * setReplicationBands(result) adds the Monte Carlo view behind the live lines: per total, a
+ * shaded p10-p90 band around the replications' mean, and the median dashed.
  */
 public class QueueTotalsGraphPanel extends JPanel {
 
@@ -41,6 +50,16 @@ public class QueueTotalsGraphPanel extends JPanel {
 
     private final XYSeriesCollection dataset = new XYSeriesCollection();
 
+    // replication bands (empty until setReplicationBands): mean with p10-p90, and the median
+    private final YIntervalSeriesCollection bandDataset = new YIntervalSeriesCollection();
+    private final XYSeriesCollection medianDataset = new XYSeriesCollection();
+
+    private static final Color[] SERIES_COLORS = {
+            new Color(31, 119, 180), // blue-ish
+            new Color(214, 39, 40),  // red-ish
+            new Color(44, 160, 44)   // green-ish
+    };
+
     private JFreeChart chart;
     private XYPlot plot;
     private ValueMarker currentMarker;
@@ -171,9 +190,62 @@ public class QueueTotalsGraphPanel extends JPanel {
         plot.setRenderer(r);
 
         // Force distinct colors (user asked explicitly)
-        r.setSeriesPaint(0, new Color(31, 119, 180)); // blue-ish
-        r.setSeriesPaint(1, new Color(214, 39, 40));  // red-ish
-        r.setSeriesPaint(2, new Color(44, 160, 44));  // green-ish
+        for (int i = 0; i < SERIES_COLORS.length; i++) r.setSeriesPaint(i, SERIES_COLORS[i]);
+
+        // bands are drawn behind the live lines (higher dataset index = painted first)
+        DeviationRenderer bands = new DeviationRenderer(true, false);
+        bands.setAlpha(0.2f);
+        XYLineAndShapeRenderer median = new XYLineAndShapeRenderer(true, false);
+        Stroke dashed = new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                10f, new float[]{4f, 4f}, 0f);
+        for (int i = 0; i < SERIES_COLORS.length; i++) {
+            Color faded = fade(SERIES_COLORS[i]);
+            bands.setSeriesPaint(i, faded);
+            bands.setSeriesFillPaint(i, SERIES_COLORS[i]);
+            bands.setSeriesStroke(i, new BasicStroke(1.5f));
+            median.setSeriesPaint(i, faded);
+            median.setSeriesStroke(i, dashed);
+        }
+        plot.setDataset(1, medianDataset);
+        plot.setRenderer(1, median);
+        plot.setDataset(2, bandDataset);
+        plot.setRenderer(2, bands);
+    }
+
+    private static Color fade(Color c) {
+        return new Color(c.getRed(), c.getGreen(), c.getBlue(), 150);
+    }
+
+    /**
+     * Show Monte Carlo bands for the three totals (null removes them). The live lines of this
+     * panel's engine stay on top.
+     */
+    public void setReplicationBands(ReplicationResult result) {
+        if (engine == null) return;
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> setReplicationBands(result));
+            return;
+        }
+        bandDataset.removeAllSeries();
+        medianDataset.removeAllSeries();
+        if (result != null) {
+            int n = result.getReplications();
+            addBand("Ticket Counter Lines", result.getTicketQueued(), n);
+            addBand("Checkpoint Lines", result.getCheckpointQueued(), n);
+            addBand("Hold Rooms", result.getHoldRoomTotal(), n);
+        }
+        refresh();
+    }
+
+    private void addBand(String name, QuantileBands b, int runs) {
+        YIntervalSeries band = new YIntervalSeries(name + " (mean, p10-p90 of " + runs + " runs)");
+        XYSeries median = new XYSeries(name + " (median)", true, false);
+        for (int i = 0; i < b.length(); i++) {
+            band.add(i, b.getMean(i), b.getP10(i), b.getP90(i));
+            median.add(i, b.getP50(i));
+        }
+        bandDataset.addSeries(band);
+        medianDataset.addSeries(median);
     }
 
     private void rebuildSeriesIfNeeded(boolean force) {
@@ -194,11 +266,14 @@ public class QueueTotalsGraphPanel extends JPanel {
             lastBuiltUpTo = -1;
         }
 
-        // Incrementally add points up to targetMax
+        // Incrementally add points up to targetMax (views read the engine's series directly, no copies)
+        IntTimeSeries.View ticket = engine.getTicketQueuedSeries();
+        IntTimeSeries.View checkpoint = engine.getCheckpointQueuedSeries();
+        IntTimeSeries.View hold = engine.getHoldRoomTotalSeries();
         for (int i = lastBuiltUpTo + 1; i <= targetMax; i++) {
-            int t = engine.getTicketQueuedAtInterval(i);
-            int c = engine.getCheckpointQueuedAtInterval(i);
-            int h = engine.getHoldRoomTotalAtInterval(i);
+            int t = ticket.get(i);
+            int c = checkpoint.get(i);
+            int h = hold.get(i);
 
             ticketSeries.add(i, t);
             checkpointSeries.add(i, c);
@@ -212,8 +287,9 @@ public class QueueTotalsGraphPanel extends JPanel {
     private void updateDomainRange(int maxX) {
         if (plot == null) return;
 
-        // keep some sensible range even early on
+        // keep some sensible range even early on; replication bands cover the whole day
         int right = Math.max(1, maxX);
+        if (bandDataset.getSeriesCount() > 0) right = Math.max(right, totalIntervals);
         plot.getDomainAxis().setRange(0, right);
     }
 
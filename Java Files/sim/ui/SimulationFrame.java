@@ -1,8 +1,15 @@
 package sim.ui;
 
+import sim.model.CheckpointConfig;
 import sim.model.Flight;
+import sim.model.HoldRoomConfig;
 import sim.model.Passenger;
+import sim.model.TicketCounterConfig;
+import sim.service.ScenarioConfig;
 import sim.service.SimulationEngine;
+import sim.service.StochasticModel;
+import sim.service.batch.ReplicationResult;
+import sim.service.batch.ReplicationRunner;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -382,6 +389,10 @@ public class SimulationFrame extends JFrame {
         });
         btnPanel.add(graphBtn);
 
+        JButton replicationsBtn = new JButton("Replications...");
+        replicationsBtn.addActionListener(e -> runReplications(replicationsBtn));
+        btnPanel.add(replicationsBtn);
+
         btnPanel.add(summaryBtn);
         control.add(btnPanel);
 
@@ -539,7 +550,7 @@ public class SimulationFrame extends JFrame {
                 int total = (int)Math.round(f.getSeats() * f.getFillPercent());
 
                 int made = 0;
-                for (java.util.LinkedList<Passenger> room : engine.getHoldRoomLines()) {
+                for (java.util.List<Passenger> room : engine.getHoldRoomLines()) {
                     for (Passenger p : room) {
                         if (p != null && p.getFlight() == f) made++;
                     }
@@ -670,6 +681,64 @@ public class SimulationFrame extends JFrame {
 
 
 
+    /**
+     * Monte Carlo view: N stochastic runs of this configuration in the background (all cores),
+     * shown as bands on the Queues and Hold Rooms tabs. Uses the engine's stochastic settings if
+     * it has any, else the defaults with a fixed seed, so the same N gives the same bands.
+     */
+    private void runReplications(JButton trigger) {
+        String input = JOptionPane.showInputDialog(this, "Number of replications:", "200");
+        if (input == null) return;
+        int runs;
+        try {
+            runs = Integer.parseInt(input.trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Not a number: " + input, "Replications", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (runs <= 0) return;
+
+        StochasticModel model = (engine.getStochasticModel() != null)
+                ? engine.getStochasticModel()
+                : new StochasticModel(1L);
+        ReplicationRunner runner = new ReplicationRunner(ScenarioConfig.fromEngine(engine), model);
+        runner.setReplications(runs);
+        int tickSeconds = engine.getTickSeconds();
+        runner.setEngineSetup(e -> {
+            e.setRoutingPolicy(engine.getRoutingPolicy());
+            e.setTickSeconds(tickSeconds);
+        });
+
+        trigger.setEnabled(false);
+        String label = trigger.getText();
+        new SwingWorker<ReplicationResult, Integer>() {
+            @Override
+            protected ReplicationResult doInBackground() {
+                return runner.run(done -> publish(done));
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                trigger.setText(chunks.get(chunks.size() - 1) + " / " + runs);
+            }
+
+            @Override
+            protected void done() {
+                trigger.setText(label);
+                trigger.setEnabled(true);
+                try {
+                    ReplicationResult result = get();
+                    queueTotalsGraphPanel.setReplicationBands(result);
+                    holdRoomPopulationGraphPanel.setReplicationBands(result);
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    JOptionPane.showMessageDialog(SimulationFrame.this,
+                            "Replications failed: " + ex, "Replications", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
     private static int computeMajorTickSpacing(int maxIntervals) {
         if (maxIntervals >= 1000) return 500;
         if (maxIntervals >= 500)  return 100;
@@ -0,0 +1,126 @@
+package sim.ui;
+
+import sim.model.Passenger;
+import sim.service.SimulationEngine;
+
+import javax.swing.SwingWorker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes one engine's whole day on a background thread, so a large schedule no longer freezes
+ * the EDT and every window of a launch shares a single run instead of simulating it again.
+ *
+ * The worker owns the engine until the run ends: nobody else may touch it before
+ * Listener.runFinished(). Per-interval line counts are read on the worker thread and handed to
+ * listeners on the EDT as they come in, so tables can fill in while the run is going.
+ *
+ * requestCancel() is cooperative: the run stops after the interval in progress and runFinished() then
+ * reports it as cancelled, with everything computed so far still recorded in the engine.
+ */
+public class SimulationRunWorker extends SwingWorker<Void, SimulationRunWorker.IntervalCounts> {
+
+    /** Called on the EDT. */
+    public interface Listener {
+        /** Intervals computed since the last call, in order. */
+        void intervalsComputed(List<IntervalCounts> intervals);
+
+        /** The run ended; failure is null unless the engine threw. The engine is free to use from here on. */
+        void runFinished(boolean cancelled, Throwable failure);
+    }
+
+    private final SimulationEngine engine;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+
+    public SimulationRunWorker(SimulationEngine engine) {
+        if (engine == null) throw new IllegalArgumentException("engine is required");
+        this.engine = engine;
+    }
+
+    public SimulationEngine getEngine() { return engine; }
+
+    /** Add before execute(). */
+    public void addListener(Listener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    /** Stop after the interval being computed. */
+    public void requestCancel() {
+        cancelRequested.set(true);
+    }
+
+    public boolean isCancelRequested() { return cancelRequested.get(); }
+
+    @Override
+    protected Void doInBackground() {
+        engine.reset();
+        int total = engine.getTotalIntervals();
+        while (engine.getCurrentInterval() < total && !cancelRequested.get()) {
+            engine.simulateInterval();
+            publish(IntervalCounts.of(engine, engine.getCurrentInterval() - 1));
+            setProgress((int) (100L * engine.getCurrentInterval() / Math.max(1, total)));
+        }
+        return null;
+    }
+
+    @Override
+    protected void process(List<IntervalCounts> chunks) {
+        for (Listener l : listeners) l.intervalsComputed(chunks);
+    }
+
+    @Override
+    protected void done() {
+        Throwable failure = null;
+        try {
+            get();
+        } catch (Exception ex) {
+            failure = (ex.getCause() != null) ? ex.getCause() : ex;
+        }
+        for (Listener l : listeners) l.runFinished(cancelRequested.get(), failure);
+    }
+
+    // ==========================================================
+    // Per-interval counts
+    // ==========================================================
+
+    /** How many passengers were in each line at one history step; no references into the engine. */
+    public static final class IntervalCounts {
+        private final int step;
+        private final int[] ticketQueued;
+        private final int[] ticketServed;
+        private final int[] checkpointQueued;
+        private final int[] checkpointServed;
+
+        private IntervalCounts(int step, int[] ticketQueued, int[] ticketServed,
+                               int[] checkpointQueued, int[] checkpointServed) {
+            this.step = step;
+            this.ticketQueued = ticketQueued;
+            this.ticketServed = ticketServed;
+            this.checkpointQueued = checkpointQueued;
+            this.checkpointServed = checkpointServed;
+        }
+
+        /** Counts of history step `step` of a recording engine (step < its recorded steps). */
+        public static IntervalCounts of(SimulationEngine engine, int step) {
+            return new IntervalCounts(step,
+                    sizes(engine.getHistoryQueuedTicket().get(step)),
+                    sizes(engine.getHistoryServedTicket().get(step)),
+                    sizes(engine.getHistoryQueuedCheckpoint().get(step)),
+                    sizes(engine.getHistoryServedCheckpoint().get(step)));
+        }
+
+        private static int[] sizes(List<List<Passenger>> lines) {
+            int[] out = new int[lines.size()];
+            for (int i = 0; i < out.length; i++) out[i] = lines.get(i).size();
+            return out;
+        }
+
+        public int getStep() { return step; }
+        public int[] getTicketQueued() { return ticketQueued; }
+        public int[] getTicketServed() { return ticketServed; }
+        public int[] getCheckpointQueued() { return checkpointQueued; }
+        public int[] getCheckpointServed() { return checkpointServed; }
+    }
+}
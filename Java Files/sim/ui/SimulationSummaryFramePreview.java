@@ -1,8 +1,12 @@
 package sim.ui;
 
 import sim.model.ArrivalCurveConfig;
+import sim.model.CheckpointConfig;
 import sim.model.Flight;
+import sim.model.HoldRoomConfig;
 import sim.model.Passenger;
+import sim.model.TicketCounterConfig;
+import sim.service.IntTimeSeries;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
@@ -218,10 +222,10 @@ public class SimulationSummaryFramePreview extends JFrame {
         int avgArrToHold = avgMinutesArrivalToHold(everHeld);
 
         // Peaks
-        PeakResult peakTicketQ = peakFromMap(safeMap(engine.getTicketQueuedByInterval()));
-        PeakResult peakCpQ = peakFromMap(safeMap(engine.getCheckpointQueuedByInterval()));
-        PeakResult peakHoldTotal = peakFromMap(safeMap(engine.getHoldRoomTotalByInterval()));
-        PeakResult peakHeldUp = peakFromMap(safeMap(engine.getHoldUpsByInterval()));
+        PeakResult peakTicketQ = peakFromSeries(engine.getTicketQueuedSeries());
+        PeakResult peakCpQ = peakFromSeries(engine.getCheckpointQueuedSeries());
+        PeakResult peakHoldTotal = peakFromSeries(engine.getHoldRoomTotalSeries());
+        PeakResult peakHeldUp = peakFromSeries(engine.getHeldUpSeries());
 
         // --- Run Totals ---
         root.add(cardSectionTitle("Run Totals"));
@@ -317,10 +321,10 @@ public class SimulationSummaryFramePreview extends JFrame {
         root.setLayout(new BoxLayout(root, BoxLayout.Y_AXIS));
         root.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
 
-        PeakResult peakTicketQ = peakFromMap(safeMap(engine.getTicketQueuedByInterval()));
-        PeakResult peakCpQ = peakFromMap(safeMap(engine.getCheckpointQueuedByInterval()));
-        PeakResult peakHoldTotal = peakFromMap(safeMap(engine.getHoldRoomTotalByInterval()));
-        PeakResult peakHeldUp = peakFromMap(safeMap(engine.getHoldUpsByInterval()));
+        PeakResult peakTicketQ = peakFromSeries(engine.getTicketQueuedSeries());
+        PeakResult peakCpQ = peakFromSeries(engine.getCheckpointQueuedSeries());
+        PeakResult peakHoldTotal = peakFromSeries(engine.getHoldRoomTotalSeries());
+        PeakResult peakHeldUp = peakFromSeries(engine.getHeldUpSeries());
 
         JPanel list = new JPanel();
         list.setLayout(new BoxLayout(list, BoxLayout.Y_AXIS));
@@ -441,9 +445,9 @@ public class SimulationSummaryFramePreview extends JFrame {
 
         // Fallback: current hold-room lines (if history is empty)
         if (set.isEmpty()) {
-            List<LinkedList<Passenger>> rooms = engine.getHoldRoomLines();
+            List<List<Passenger>> rooms = engine.getHoldRoomLines();
             if (rooms != null) {
-                for (LinkedList<Passenger> room : rooms) {
+                for (List<Passenger> room : rooms) {
                     if (room == null) continue;
                     for (Passenger p : room) {
                         if (p != null) set.add(p);
@@ -650,10 +654,6 @@ public class SimulationSummaryFramePreview extends JFrame {
         return (in == null) ? Collections.emptyList() : in;
     }
 
-    private static Map<Integer, Integer> safeMap(Map<Integer, Integer> in) {
-        return (in == null) ? Collections.emptyMap() : in;
-    }
-
     private static String fmt1(double v) {
         return String.format(Locale.US, "%.1f", v);
     }
@@ -710,19 +710,10 @@ public class SimulationSummaryFramePreview extends JFrame {
         }
     }
 
-    private static PeakResult peakFromMap(Map<Integer, Integer> m) {
-        int bestV = 0;
-        int bestK = -1;
-        if (m == null) return new PeakResult(0, -1);
-        for (Map.Entry<Integer, Integer> e : m.entrySet()) {
-            int k = e.getKey();
-            int v = (e.getValue() == null) ? 0 : e.getValue();
-            if (v > bestV) {
-                bestV = v;
-                bestK = k;
-            }
-        }
-        return new PeakResult(bestV, bestK);
+    private static PeakResult peakFromSeries(IntTimeSeries.View s) {
+        if (s == null) return new PeakResult(0, -1);
+        int k = s.peakIndex();
+        return new PeakResult(s.get(k), k);
     }
 
     private static final class MaxResult {
@@ -0,0 +1,196 @@
+package sim.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sim.model.Flight;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lazy deletion in PassengerLines: clearing a flight only moves its counts to the dead tally,
+ * dead entries go when they reach the front or when a line passes GARBAGE_RATIO, and tracked
+ * handles stay valid across takeFirst() and compaction.
+ */
+class PassengerLinesTest {
+
+    // F0 and F1 close in the same minute, F2 never does
+    private static final int[] CLOSE = {10, 10, PassengerStore.NEVER};
+    private static final int[] DEPARTURE = {15, 20, PassengerStore.NEVER};
+
+    private PassengerStore store;
+    private final List<int[]> exits = new ArrayList<>();
+    private final PassengerLines.ExitListener listener = (line, id) -> exits.add(new int[] {line, id});
+
+    @BeforeEach
+    void setUp() {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < CLOSE.length; i++) {
+            flights.add(new Flight("F" + i, LocalTime.of(6 + i, 0), 100, 0.85, Flight.ShapeType.CIRCLE));
+        }
+        store = new PassengerStore(flights, CLOSE, DEPARTURE);
+        exits.clear();
+    }
+
+    @Test
+    void clearingAFlightMovesItsEntriesToTheDeadTally() {
+        PassengerLines lines = new PassengerLines(2, 3, store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        int a = add(lines, 0, 0), b = add(lines, 0, 2), c = add(lines, 0, 0), d = add(lines, 0, 2);
+        int e = add(lines, 1, 2), f = add(lines, 1, 0);
+
+        store.setClearedThrough(10);
+        lines.clearFlight(0, listener);
+
+        // half of each line is dead: not past GARBAGE_RATIO, so nothing is touched yet
+        assertEquals(4, lines.raw(0).size());
+        assertEquals(2, lines.raw(1).size());
+        assertEquals(2, lines.size(0));
+        assertEquals(1, lines.size(1));
+        assertEquals(3, lines.totalSize());
+        assertEquals(0, lines.count(0, 0));
+        assertEquals(0, lines.count(0));
+        assertEquals(3, lines.count(2));
+        assertArrayEquals(new int[] {b, d}, lines.liveIds(0));
+        assertArrayEquals(new int[] {e}, lines.liveIds(1));
+        assertEquals(List.of(), exits);
+
+        // the dead front of line 0 goes on the next service, reported once
+        assertEquals(b, lines.takeFirst(0, id -> false, listener));
+        assertEquals(1, exits.size());
+        assertArrayEquals(new int[] {0, a}, exits.get(0));
+        assertArrayEquals(new int[] {c, d}, lines.raw(0).toArray());
+        assertEquals(1, lines.size(0));
+
+        lines.compactAll(listener);
+        assertArrayEquals(new int[] {d}, lines.raw(0).toArray());
+        assertArrayEquals(new int[] {e}, lines.raw(1).toArray());
+        assertEquals(3, exits.size());
+        assertArrayEquals(new int[] {0, c}, exits.get(1));
+        assertArrayEquals(new int[] {1, f}, exits.get(2));
+    }
+
+    @Test
+    void lineIsCompactedOncePastGarbageRatio() {
+        PassengerLines lines = new PassengerLines(1, 3, store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        int a = add(lines, 0, 0), b = add(lines, 0, 2), c = add(lines, 0, 0), d = add(lines, 0, 0);
+
+        store.setClearedThrough(10);
+        lines.clearFlight(0, listener);
+
+        assertArrayEquals(new int[] {b}, lines.raw(0).toArray());
+        assertEquals(1, lines.size(0));
+        assertEquals(3, exits.size());
+        for (int i = 0; i < 3; i++) assertEquals(new int[] {a, c, d}[i], exits.get(i)[1]);
+    }
+
+    @Test
+    void flightsClosingTogetherAreEachCountedByTheirOwnClear() {
+        PassengerLines lines = new PassengerLines(1, 3, store, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        add(lines, 0, 0);
+        int b = add(lines, 0, 1);
+        add(lines, 0, 0);
+        int d = add(lines, 0, 1);
+        add(lines, 0, 0);
+        add(lines, 0, 0);
+        int f = add(lines, 0, 2);
+
+        // the store reports F0 and F1 dead at once; F0's clear compacts and must leave F1 to its own
+        store.setClearedThrough(10);
+        lines.clearFlight(0, listener);
+        assertArrayEquals(new int[] {b, d, f}, lines.raw(0).toArray());
+        assertEquals(2, lines.count(0, 1));
+
+        lines.clearFlight(1, listener);
+        assertEquals(1, lines.size(0));
+        assertEquals(0, lines.count(1));
+        assertArrayEquals(new int[] {f}, lines.raw(0).toArray());
+        assertEquals(6, exits.size());
+        assertEquals(b, exits.get(4)[1]);
+        assertEquals(d, exits.get(5)[1]);
+    }
+
+    @Test
+    void holdRoomsDieAtDepartureNotAtClose() {
+        PassengerLines rooms = new PassengerLines(1, 3, store, PassengerLines.ClearedBy.DEPARTURE);
+        int a = add(rooms, 0, 0), b = add(rooms, 0, 1), c = add(rooms, 0, 2);
+
+        store.setClearedThrough(10);
+        store.setBoardingClosedThrough(10);
+        assertEquals(3, rooms.size(0));
+        assertArrayEquals(new int[] {a, b, c}, rooms.liveIds(0));
+
+        store.setDepartedThrough(15);
+        rooms.clearFlight(0, listener);
+        assertEquals(2, rooms.size(0));
+        assertEquals(3, rooms.raw(0).size());
+        assertArrayEquals(new int[] {b, c}, rooms.liveIds(0));
+        assertEquals(0, rooms.count(0));
+        assertEquals(1, rooms.count(1));
+    }
+
+    @Test
+    void handlesAreRenumberedAfterTakeFirst() {
+        PassengerLines lines = new PassengerLines(2, 3, store, PassengerLines.ClearedBy.BOARDING_CLOSE, true);
+        int a = add(lines, 0, 2), b = add(lines, 0, 2), c = add(lines, 0, 2), d = add(lines, 0, 2), e = add(lines, 0, 2);
+        int x = add(lines, 1, 2);
+
+        assertEquals(a, lines.takeFirst(0, id -> false, listener));
+        // taken from the middle: everything behind it shifts
+        assertEquals(c, lines.takeFirst(0, id -> id == b, listener));
+        assertArrayEquals(new int[] {b, d, e}, lines.liveIds(0));
+
+        assertEquals(0, lines.removeTracked(d, listener));
+        assertArrayEquals(new int[] {b, e}, lines.liveIds(0));
+        assertEquals(PassengerLines.NONE, lines.removeTracked(d, listener));
+        assertEquals(PassengerLines.NONE, lines.removeTracked(a, listener));
+        assertEquals(PassengerLines.NONE, lines.removeTracked(c, listener));
+
+        assertEquals(1, lines.removeTracked(x, listener));
+        assertEquals(0, lines.size(1));
+        assertEquals(0, lines.removeTracked(e, listener));
+        assertEquals(0, lines.removeTracked(b, listener));
+        assertEquals(0, lines.totalSize());
+        assertTrue(lines.isEmpty());
+        assertEquals(List.of(), exits);
+    }
+
+    @Test
+    void handlesSurviveCompaction() {
+        PassengerLines lines = new PassengerLines(1, 3, store, PassengerLines.ClearedBy.BOARDING_CLOSE, true);
+        int a = add(lines, 0, 2), b = add(lines, 0, 2), c = add(lines, 0, 2), d = add(lines, 0, 2), e = add(lines, 0, 2);
+
+        // tombstones: the third one passes GARBAGE_RATIO and compacts the line to a, e
+        lines.removeTracked(b, listener);
+        lines.removeTracked(c, listener);
+        assertEquals(5, lines.raw(0).size());
+        lines.removeTracked(d, listener);
+        assertArrayEquals(new int[] {a, e}, lines.raw(0).toArray());
+
+        assertEquals(0, lines.removeTracked(e, listener));
+        assertArrayEquals(new int[] {a}, lines.liveIds(0));
+
+        // and after a clear compacts around them
+        int f = add(lines, 0, 0), g = add(lines, 0, 0), h = add(lines, 0, 2);
+        store.setClearedThrough(10);
+        lines.clearFlight(0, listener);
+        assertArrayEquals(new int[] {a, h}, lines.raw(0).toArray());
+        assertEquals(PassengerLines.NONE, lines.removeTracked(f, listener));
+        assertEquals(0, lines.removeTracked(h, listener));
+        assertArrayEquals(new int[] {a}, lines.liveIds(0));
+        assertEquals(a, lines.takeFirst(0, id -> false, listener));
+        assertEquals(2, exits.size());
+        assertEquals(f, exits.get(0)[1]);
+        assertEquals(g, exits.get(1)[1]);
+    }
+
+    private int add(PassengerLines lines, int line, int flightIdx) {
+        int id = store.add(flightIdx, 0, true);
+        lines.add(line, id);
+        return id;
+    }
+}
@@ -0,0 +1,108 @@
+package sim.service;
+
+import org.junit.jupiter.api.Test;
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The timeline's history views against what they replace: a full copy of every line at every
+ * step. Lines and timelines are driven the way the engine drives them each minute (joins,
+ * service from the front, O(1) unlinks, departure clear, snapshot, close clear), and the copy is
+ * taken at the snapshot moment.
+ */
+class PassengerTimelineTest {
+
+    private static final int MINUTES = 45;
+    private static final int[] CLOSE = {6, 12, 12, 20, 31, PassengerStore.NEVER};
+    private static final int[] DEPARTURE = {11, 17, 17, 25, 36, PassengerStore.NEVER};
+
+    @Test
+    void queueHistoryMatchesPerStepCopies() {
+        for (long seed = 1; seed <= 20; seed++) {
+            assertHistoryMatchesCopies(seed, PassengerLines.ClearedBy.BOARDING_CLOSE);
+        }
+    }
+
+    @Test
+    void holdRoomHistoryMatchesPerStepCopies() {
+        for (long seed = 1; seed <= 20; seed++) {
+            assertHistoryMatchesCopies(seed, PassengerLines.ClearedBy.DEPARTURE);
+        }
+    }
+
+    private static void assertHistoryMatchesCopies(long seed, PassengerLines.ClearedBy clearedBy) {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < CLOSE.length; i++) {
+            flights.add(new Flight("F" + i, LocalTime.of(6, i), 100, 0.85, Flight.ShapeType.CIRCLE));
+        }
+        PassengerStore store = new PassengerStore(flights, CLOSE, DEPARTURE);
+        int numLines = 3;
+        PassengerLines lines = new PassengerLines(numLines, flights.size(), store, clearedBy, true);
+        PassengerTimeline timeline = new PassengerTimeline(numLines, store, clearedBy);
+        PassengerLines.ExitListener exitTo = timeline::exit;
+        boolean queues = clearedBy == PassengerLines.ClearedBy.BOARDING_CLOSE;
+
+        Random random = new Random(seed);
+        List<Integer> everyone = new ArrayList<>();
+        List<List<List<Passenger>>> copies = new ArrayList<>();
+        for (int minute = 0; minute < MINUTES; minute++) {
+            store.setBoardingClosedThrough(minute);
+
+            for (int op = random.nextInt(12); op > 0; op--) {
+                int line = random.nextInt(numLines);
+                int roll = random.nextInt(10);
+                if (roll < 5) {
+                    // join, for a flight still boarding
+                    int fi = random.nextInt(flights.size());
+                    if (CLOSE[fi] <= minute) continue;
+                    int id = store.add(fi, minute, true);
+                    everyone.add(id);
+                    lines.add(line, id);
+                    timeline.enter(line, id);
+                } else if (roll < 8) {
+                    // served from the front, skipping the missed
+                    int id = lines.takeFirst(line, queues ? store::isMissed : i -> false, exitTo);
+                    if (id != PassengerLines.NONE) timeline.exit(line, id);
+                } else if (!everyone.isEmpty()) {
+                    // unlinked wherever they are
+                    int id = everyone.get(random.nextInt(everyone.size()));
+                    int from = lines.removeTracked(id, exitTo);
+                    if (from != PassengerLines.NONE) timeline.exit(from, id);
+                }
+            }
+
+            store.setDepartedThrough(minute);
+            if (!queues) clearFlightsAt(DEPARTURE, minute, lines, exitTo);
+
+            timeline.markStep();
+            List<List<Passenger>> copy = new ArrayList<>();
+            for (List<Passenger> line : lines.views()) copy.add(new ArrayList<>(line));
+            copies.add(copy);
+
+            store.setClearedThrough(minute);
+            if (queues) clearFlightsAt(CLOSE, minute, lines, exitTo);
+        }
+
+        List<List<List<Passenger>>> history = timeline.asHistory();
+        assertEquals(copies.size(), history.size());
+        for (int step = 0; step < copies.size(); step++) {
+            for (int line = 0; line < numLines; line++) {
+                assertEquals(copies.get(step).get(line), history.get(step).get(line),
+                        clearedBy + " seed " + seed + ", step " + step + ", line " + line);
+            }
+        }
+    }
+
+    private static void clearFlightsAt(int[] epochs, int minute, PassengerLines lines, PassengerLines.ExitListener exitTo) {
+        for (int fi = 0; fi < epochs.length; fi++) {
+            if (epochs[fi] == minute) lines.clearFlight(fi, exitTo);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package sim.service;
+
+import org.junit.jupiter.api.Test;
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rewind (keyframes + replay) followed by a new branch: goToInterval back before a boarding close,
+ * change a rate, simulate on. The branch has to end exactly where a run that changed the rate at
+ * that interval in the first place ends, whatever the keyframe spacing and whether rewinds keep
+ * the frontier's passenger fields; in particular the missed flags the discarded future set must
+ * not carry over into it.
+ */
+class RewindBranchTest {
+
+    private static final double SLOW_CHECKPOINT = 90.0;
+    private static final double FAST_CHECKPOINT = 600.0;
+
+    @Test
+    void branchAfterRewindMatchesUninterruptedRun() {
+        for (int k : new int[] {1, 16}) {
+            for (boolean keepFrontier : new boolean[] {true, false}) {
+                String what = "keyframes every " + k + ", keepFrontierFields " + keepFrontier;
+
+                SimulationEngine straight = engine(k, keepFrontier);
+                int branchAt = branchInterval(straight);
+                straight.reset();
+                while (straight.getCurrentInterval() < branchAt) straight.simulateInterval();
+                speedUpCheckpoint(straight);
+                while (straight.getCurrentInterval() < straight.getTotalIntervals()) straight.simulateInterval();
+
+                SimulationEngine rewound = engine(k, keepFrontier);
+                rewound.runAllIntervals();
+                int slowMissed = totalMissed(rewound);
+                assertTrue(slowMissed > 0, "slow checkpoint never misses anyone: " + what);
+
+                rewound.goToInterval(branchAt);
+                assertEquals(branchAt, rewound.getCurrentInterval(), what);
+                speedUpCheckpoint(rewound);
+                while (rewound.getCurrentInterval() < rewound.getTotalIntervals()) rewound.simulateInterval();
+
+                assertArrayEquals(straight.getTicketQueuedSeries().toArray(),
+                        rewound.getTicketQueuedSeries().toArray(), what);
+                assertArrayEquals(straight.getCheckpointQueuedSeries().toArray(),
+                        rewound.getCheckpointQueuedSeries().toArray(), what);
+                assertArrayEquals(straight.getHoldRoomTotalSeries().toArray(),
+                        rewound.getHoldRoomTotalSeries().toArray(), what);
+                for (Flight f : straight.getFlights()) {
+                    Flight g = rewound.getFlights().get(straight.getFlights().indexOf(f));
+                    assertEquals(straight.getBoardedCount(f), rewound.getBoardedCount(g), what);
+                    assertEquals(straight.getMissedCount(f), rewound.getMissedCount(g), what);
+                }
+                assertTrue(totalMissed(rewound) < slowMissed, "faster checkpoint saves nobody: " + what);
+                assertEquals(describe(straight.getHistoryHoldRooms()), describe(rewound.getHistoryHoldRooms()), what);
+                assertEquals(describe(straight.getHistoryQueuedCheckpoint()),
+                        describe(rewound.getHistoryQueuedCheckpoint()), what);
+            }
+        }
+    }
+
+    @Test
+    void rewindShowsFrontierMissedFlagsOnlyWhenKept() {
+        for (int k : new int[] {1, 16}) {
+            for (boolean keepFrontier : new boolean[] {true, false}) {
+                String what = "keyframes every " + k + ", keepFrontierFields " + keepFrontier;
+                SimulationEngine engine = engine(k, keepFrontier);
+                engine.runAllIntervals();
+                int branchAt = branchInterval(engine);
+
+                engine.goToInterval(branchAt);
+                // boarding has not closed yet at branchAt: only the frontier knows who misses it
+                assertEquals(keepFrontier, anyMissed(engine.getCheckpointLines()), what);
+
+                speedUpCheckpoint(engine);
+                engine.simulateInterval();
+                assertFalse(anyMissed(engine.getCheckpointLines()), "frontier flags leaked into the branch: " + what);
+                assertFalse(anyMissed(engine.getHoldRoomLines()), "frontier flags leaked into the branch: " + what);
+            }
+        }
+    }
+
+    /** Five minutes before the first flight's boarding close, with its checkpoint line still long. */
+    private static int branchInterval(SimulationEngine engine) {
+        return engine.getSchedule().closeMinute(0) - 5;
+    }
+
+    private static void speedUpCheckpoint(SimulationEngine engine) {
+        engine.getCheckpointConfigs().get(0).setRatePerHour(FAST_CHECKPOINT);
+    }
+
+    private static int totalMissed(SimulationEngine engine) {
+        int missed = 0;
+        for (Flight f : engine.getFlights()) missed += engine.getMissedCount(f);
+        return missed;
+    }
+
+    private static boolean anyMissed(List<List<Passenger>> lines) {
+        for (List<Passenger> line : lines) {
+            for (Passenger p : line) {
+                if (p.isMissed()) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Every history step, line by line: flight, arrival minute and missed flag of each passenger. */
+    private static List<String> describe(List<List<List<Passenger>>> history) {
+        List<String> out = new ArrayList<>();
+        for (int step = 0; step < history.size(); step++) {
+            StringBuilder sb = new StringBuilder();
+            for (List<Passenger> line : history.get(step)) {
+                sb.append('|');
+                for (Passenger p : line) {
+                    sb.append(p.getFlight().getFlightNumber()).append('@').append(p.getArrivalMinute())
+                            .append(p.isMissed() ? "x " : " ");
+                }
+            }
+            out.add(step + ": " + sb);
+        }
+        return out;
+    }
+
+    private static SimulationEngine engine(int keyframeInterval, boolean keepFrontier) {
+        Properties p = new Properties();
+        p.setProperty("flights.count", "2");
+        p.setProperty("flights.0.number", "F0");
+        p.setProperty("flights.0.depTime", "06:00");
+        p.setProperty("flights.0.seats", "200");
+        p.setProperty("flights.1.number", "F1");
+        p.setProperty("flights.1.depTime", "07:30");
+        p.setProperty("flights.1.seats", "150");
+        p.setProperty("global.percentInPerson", "0.3");
+        p.setProperty("counters.count", "2");
+        p.setProperty("counters.0.ratePerMinute", "1.0");
+        p.setProperty("counters.1.ratePerMinute", "1.0");
+        p.setProperty("checkpoints.count", "1");
+        p.setProperty("checkpoints.0.ratePerHour", Double.toString(SLOW_CHECKPOINT));
+
+        SimulationEngine engine = ScenarioConfig.fromProperties(p).createEngine();
+        engine.setKeyframeInterval(keyframeInterval);
+        engine.setKeepFrontierFields(keepFrontier);
+        return engine;
+    }
+}
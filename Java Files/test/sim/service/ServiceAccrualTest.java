@@ -0,0 +1,122 @@
+package sim.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fractional service rates against the minute stepper's double accumulator.
+ *
+ * Rates such as 0.1 or 130/60 passengers a minute are not exact in binary, so when a whole
+ * passenger is done depends on the rounding of the running sum (ten additions of 0.1 stop at
+ * 0.9999999, and that passenger finishes a minute later). The reference below is that
+ * accumulator written out on its own; the engine has to match it minute by minute, and the
+ * event-driven and sub-minute runs have to match the engine's own stepper exactly.
+ */
+class ServiceAccrualTest {
+
+    @Test
+    void checkpointAtTenthOfAPassengerMatchesReferenceStepper() {
+        assertMatchesReference(scenario(0, 0.0, 6.0), false);
+    }
+
+    @Test
+    void checkpointAt130PerHourMatchesReferenceStepper() {
+        assertMatchesReference(scenario(0, 0.0, 130.0), false);
+    }
+
+    @Test
+    void counterAt130PerHourMatchesReferenceStepper() {
+        assertMatchesReference(scenario(1, 130.0 / 60.0, 600.0), true);
+    }
+
+    @Test
+    void counterAtTenthOfAPassengerMatchesReferenceStepper() {
+        assertMatchesReference(scenario(1, 0.1, 600.0), true);
+    }
+
+    @Test
+    void eventDrivenAndTickRunsMatchTheStepper() {
+        for (Properties p : new Properties[] {
+                scenario(0, 0.0, 6.0), scenario(0, 0.0, 130.0),
+                scenario(1, 130.0 / 60.0, 100.0), scenario(2, 0.1, 45.5)}) {
+            p.setProperty("flights.count", "2");
+            p.setProperty("flights.1.number", "F1");
+            p.setProperty("flights.1.depTime", "09:40");
+            p.setProperty("flights.1.seats", "150");
+
+            for (int tickSeconds : new int[] {60, 5, 1}) {
+                SimulationEngine stepped = engine(p, tickSeconds, false);
+                SimulationEngine eventDriven = engine(p, tickSeconds, true);
+                String what = p + " at " + tickSeconds + "s ticks";
+                assertArrayEquals(stepped.getTicketQueuedSeries().toArray(),
+                        eventDriven.getTicketQueuedSeries().toArray(), what);
+                assertArrayEquals(stepped.getCheckpointQueuedSeries().toArray(),
+                        eventDriven.getCheckpointQueuedSeries().toArray(), what);
+                assertArrayEquals(stepped.getHoldRoomTotalSeries().toArray(),
+                        eventDriven.getHoldRoomTotalSeries().toArray(), what);
+                assertArrayEquals(stepped.getPeakHeldUpSeries().toArray(),
+                        eventDriven.getPeakHeldUpSeries().toArray(), what);
+            }
+        }
+    }
+
+    /**
+     * One flight, one server of interest: passengers queue at it in the minute they arrive and it
+     * serves after the arrivals, with the accumulator the stepper has always used. Compared up to
+     * boarding close, where the flight's remaining passengers leave the line.
+     */
+    private static void assertMatchesReference(Properties p, boolean atCounter) {
+        SimulationEngine engine = engine(p, 60, false);
+        int[] series = atCounter
+                ? engine.getTicketQueuedSeries().toArray()
+                : engine.getCheckpointQueuedSeries().toArray();
+        double rate = atCounter
+                ? engine.getCounterConfigs().get(0).getRate()
+                : engine.getCheckpointConfigs().get(0).getRatePerHour() / 60.0;
+
+        int close = engine.getSchedule().closeMinute(0);
+        double progress = 0;
+        int queued = 0;
+        int peak = 0;
+        for (int minute = 0; minute < close; minute++) {
+            queued += engine.getTotalArrivalsAtMinute(minute);
+            progress += rate;
+            int toComplete = (int) Math.floor(progress);
+            progress -= toComplete;
+            queued -= Math.min(toComplete, queued);
+            assertEquals(queued, series[minute + 1], "queue after minute " + minute);
+            peak = Math.max(peak, queued);
+        }
+        assertTrue(peak > 1, "scenario never builds a queue");
+    }
+
+    private static SimulationEngine engine(Properties p, int tickSeconds, boolean eventDriven) {
+        SimulationEngine engine = ScenarioConfig.fromProperties(p).createEngine();
+        engine.setTickSeconds(tickSeconds);
+        engine.setEventDriven(eventDriven);
+        engine.runAllIntervals();
+        return engine;
+    }
+
+    /** counters = 0: everyone online to the checkpoint; counters > 0: everyone in person. */
+    private static Properties scenario(int counters, double counterRatePerMinute, double checkpointRatePerHour) {
+        Properties p = new Properties();
+        p.setProperty("flights.count", "1");
+        p.setProperty("flights.0.number", "F0");
+        p.setProperty("flights.0.depTime", "06:00");
+        p.setProperty("flights.0.seats", "200");
+        p.setProperty("global.percentInPerson", (counters == 0) ? "0" : "1");
+        p.setProperty("counters.count", Integer.toString(counters));
+        for (int i = 0; i < counters; i++) {
+            p.setProperty("counters." + i + ".ratePerMinute", Double.toString(counterRatePerMinute));
+        }
+        p.setProperty("checkpoints.count", "1");
+        p.setProperty("checkpoints.0.ratePerHour", Double.toString(checkpointRatePerHour));
+        return p;
+    }
+}